@@ -16,4 +16,44 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Access tokens are short-lived: on 401, rotate the refresh token once and
+// retry. Concurrent 401s share a single refresh call.
+let refreshing = null;
+
+const refreshTokens = async () => {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (!refreshToken) throw new Error("No refresh token");
+
+  const res = await axios.post("http://localhost:8080/api/auth/refresh", {
+    refreshToken,
+  });
+  localStorage.setItem("token", res.data.token);
+  localStorage.setItem("refreshToken", res.data.refreshToken);
+};
+
+api.interceptors.response.use(
+  (response) => response,
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status !== 401 || original._retried) {
+      throw error;
+    }
+    original._retried = true;
+
+    try {
+      refreshing = refreshing || refreshTokens();
+      await refreshing;
+    } catch (refreshError) {
+      localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
+      localStorage.removeItem("user");
+      throw error;
+    } finally {
+      refreshing = null;
+    }
+
+    return api(original);
+  }
+);
+
 export default api;
@@ -6,6 +6,14 @@ export const fetchRecentInvoices = async () => {
 };
 
 export const fetchInvoicePdf = async (id) => {
-  const res = await api.get(`/invoices/${id}/pdf`);
-  return res.data; // pdfUrl
+  try {
+    const res = await api.get(`/invoices/${id}/pdf`, { responseType: "blob" });
+    if (res.status === 202) return null; // still rendering
+    return URL.createObjectURL(res.data);
+  } catch (err) {
+    if (err.response?.status !== 409) throw err;
+    // Rendering failed: queue it again and report it as still rendering
+    await api.post(`/invoices/${id}/pdf/retry`);
+    return null;
+  }
 };
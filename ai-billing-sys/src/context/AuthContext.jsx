@@ -31,7 +31,7 @@ export const AuthProvider = ({ children }) => {
                 password,
             });
 
-            const { token } = res.data;
+            const { token, refreshToken } = res.data;
 
             // Decode minimal user info (or fetch /me later)
             const loggedInUser = {
@@ -39,6 +39,7 @@ export const AuthProvider = ({ children }) => {
             };
 
             localStorage.setItem("token", token);
+            localStorage.setItem("refreshToken", refreshToken);
             localStorage.setItem("user", JSON.stringify(loggedInUser));
 
             setUser(loggedInUser);
@@ -77,8 +78,19 @@ export const AuthProvider = ({ children }) => {
     // LOGOUT
     // -------------------------
     const logout = () => {
+        const token = localStorage.getItem("token");
+        const refreshToken = localStorage.getItem("refreshToken");
+
+        // Revoke server-side; local logout does not wait for it
+        axios.post(
+            `${API_BASE_URL}/logout`,
+            { refreshToken },
+            token ? { headers: { Authorization: `Bearer ${token}` } } : {}
+        ).catch(() => {});
+
         setUser(null);
         localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
         localStorage.removeItem("user");
     };
 
@@ -16,6 +16,8 @@ INVOICE_DIR = os.path.join(BASE_DIR, "invoices")
 os.makedirs(INVOICE_DIR, exist_ok=True)
 
 SPRING_BOOT_BASE_URL = "http://localhost:8080/api/invoices/internal"
+# Must match internal.service.token on the Spring Boot side
+INTERNAL_SERVICE_TOKEN = os.environ.get("INTERNAL_SERVICE_TOKEN", "")
 
 
 # -------------------------
@@ -32,6 +34,7 @@ def generate_invoice():
     try:
         invoice_response = requests.get(
             f"{SPRING_BOOT_BASE_URL}/{invoice_id}",
+            headers={"X-Internal-Token": INTERNAL_SERVICE_TOKEN},
             timeout=5
         )
     except requests.RequestException as e:
@@ -0,0 +1,48 @@
+package com.invoiceGen.demo.config;
+
+import com.invoiceGen.demo.enums.UserRole;
+import com.invoiceGen.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+// /api/admin/** and /api/metrics/** need ADMIN, which sign-up never grants.
+// Accounts listed in security.admin-emails (comma separated) are raised to
+// ADMIN at startup, before the web server takes requests. Register the
+// account first, then list it and restart; without the property nothing
+// changes, and the manual equivalent is
+//   update `user` set role = 'ADMIN' where email = '...';
+// Listing an email never demotes anyone: remove ADMIN by SQL.
+@Component
+public class AdminBootstrap implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminBootstrap.class);
+
+    private final UserRepository userRepository;
+    private final List<String> adminEmails;
+
+    public AdminBootstrap(UserRepository userRepository,
+                          @Value("${security.admin-emails:}") String[] adminEmails) {
+        this.userRepository = userRepository;
+        this.adminEmails = Arrays.stream(adminEmails)
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .toList();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        if (adminEmails.isEmpty()) {
+            return;
+        }
+        int promoted = userRepository.updateRoleByEmails(adminEmails, UserRole.ADMIN);
+        logger.info("Admin bootstrap: {} of {} listed accounts promoted to ADMIN",
+                promoted, adminEmails.size());
+    }
+}
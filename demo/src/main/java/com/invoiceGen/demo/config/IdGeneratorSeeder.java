@@ -0,0 +1,54 @@
+package com.invoiceGen.demo.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Pooled table ids replaced IDENTITY on tables that may already hold rows.
+// Hibernate starts a missing id_generator row at 1, so the first insert on
+// an existing database would collide. Each row is raised above the table's
+// max id plus one allocation block, before the web server takes requests;
+// rows already past that are left alone, so this is a no-op after the
+// first start and safe to run on every node.
+@Component
+public class IdGeneratorSeeder implements SmartInitializingSingleton {
+
+    // gen_name, table, id column, allocationSize: keep in step with the
+    // entities' @TableGenerator
+    private record Generator(String name, String table, String idColumn, int allocationSize) {
+    }
+
+    private static final List<Generator> GENERATORS = List.of(
+            new Generator("invoice", "invoice", "id", 50),
+            new Generator("invoice_item", "invoice_item", "id", 200),
+            new Generator("user", "`user`", "user_id", 50),
+            new Generator("product", "product", "id", 200),
+            new Generator("invoice_analytics", "invoice_analytics", "id", 50),
+            new Generator("pdf_render_task", "pdf_render_task", "id", 50)
+    );
+
+    private static final String SEED =
+            "insert into id_generator (gen_name, next_val) " +
+            "select ?, coalesce(max(%s), 0) + ? from %s " +
+            "on duplicate key update next_val = greatest(next_val, values(next_val))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        for (Generator generator : GENERATORS) {
+            // One full block of headroom whether Hibernate reads next_val as
+            // the low or the high end of its pool
+            jdbcTemplate.update(
+                    String.format(SEED, generator.idColumn(), generator.table()),
+                    generator.name(), generator.allocationSize() + 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.invoiceGen.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Invoice numbers used to be unique across all tenants (a unique index on
+// invoice_number alone); they are now unique per tenant
+// (uk_invoice_user_number). ddl-auto never drops the old index, so on an
+// existing database every tenant after the first would fail on its first
+// INV-<year>-000001. Any unique index made of invoice_number alone is
+// dropped before the web server takes requests; once it is gone this
+// finds nothing, so it is safe to run on every start and on every node.
+@Component
+public class LegacyInvoiceNumberIndexCleanup implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyInvoiceNumberIndexCleanup.class);
+
+    // Hibernate named the old index itself (UK...), so it is found by shape
+    private static final String LEGACY_INDEXES =
+            "select index_name from information_schema.statistics " +
+            "where table_schema = database() and table_name = 'invoice' and non_unique = 0 " +
+            "group by index_name " +
+            "having count(*) = 1 and max(column_name) = 'invoice_number'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LegacyInvoiceNumberIndexCleanup(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        for (String index : jdbcTemplate.queryForList(LEGACY_INDEXES, String.class)) {
+            try {
+                jdbcTemplate.execute("alter table invoice drop index `" + index.replace("`", "``") + "`");
+                logger.info("Dropped legacy global unique index {} on invoice.invoice_number", index);
+            } catch (DataAccessException e) {
+                // Another node starting at the same time got there first
+                if (jdbcTemplate.queryForList(LEGACY_INDEXES, String.class).contains(index)) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.invoiceGen.demo.config;
+
+import com.invoiceGen.demo.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Amounts moved from Double columns (price, total, ...) to long *_minor
+// columns. ddl-auto adds the new columns as 0 and leaves the old ones in
+// place, so an existing database would bill every product at 0 and show
+// every old invoice at 0. Rows whose minor columns are all still 0 and
+// whose old amount is set are converted once, before the web server takes
+// requests. Rows written since the change have no old amounts and are
+// left alone, so this is a no-op after the first start, and on a database
+// created after the change (no old columns) nothing runs at all.
+//
+// Old invoices had no CGST/SGST/IGST split and old lines no per-line tax;
+// those stay 0.
+@Component
+public class MoneyColumnBackfill implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyColumnBackfill.class);
+
+    // minor column <- old Double column; a table's last column is the
+    // row's total, which tells whether the row predates the change
+    private record Column(String minor, String major) {
+    }
+
+    private record Table(String name, List<Column> columns) {
+    }
+
+    private static final List<Table> TABLES = List.of(
+            new Table("product", List.of(
+                    new Column("price_minor", "price"))),
+            new Table("invoice_item", List.of(
+                    new Column("price_minor", "price"),
+                    new Column("total_minor", "total"))),
+            new Table("invoice", List.of(
+                    new Column("subtotal_minor", "subtotal"),
+                    new Column("tax_minor", "tax"),
+                    new Column("total_amount_minor", "total_amount")))
+    );
+
+    private static final String COLUMN_EXISTS =
+            "select count(*) from information_schema.columns " +
+            "where table_schema = database() and table_name = ? and column_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MoneyColumnBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        for (Table table : TABLES) {
+            if (!table.columns().stream().allMatch(column -> exists(table.name(), column.major()))) {
+                continue;
+            }
+
+            int rows = jdbcTemplate.update(String.format(
+                    "update %s set %s where %s and %s is not null",
+                    table.name(),
+                    table.columns().stream()
+                            .map(c -> c.minor() + " = round(" + c.major() + " * "
+                                    + Money.MINOR_PER_MAJOR + ")")
+                            .collect(Collectors.joining(", ")),
+                    table.columns().stream()
+                            .map(c -> c.minor() + " = 0")
+                            .collect(Collectors.joining(" and ")),
+                    table.columns().get(table.columns().size() - 1).major()));
+
+            if (rows > 0) {
+                logger.info("Money backfill: {} {} rows converted to minor units", rows, table.name());
+            }
+        }
+    }
+
+    private boolean exists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(COLUMN_EXISTS, Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
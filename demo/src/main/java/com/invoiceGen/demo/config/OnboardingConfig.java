@@ -0,0 +1,12 @@
+package com.invoiceGen.demo.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// Per-plan product templates; application.properties still wins on conflicts
+@Configuration
+@PropertySource("classpath:onboarding.properties")
+@EnableConfigurationProperties(OnboardingProperties.class)
+public class OnboardingConfig {
+}
@@ -0,0 +1,31 @@
+package com.invoiceGen.demo.config;
+
+import com.invoiceGen.demo.enums.GstSlab;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// onboarding.plans.<plan>[i].name / price-minor / stock / tax-slab
+@Data
+@ConfigurationProperties(prefix = "onboarding")
+public class OnboardingProperties {
+
+    // Plan given to registrations that do not name one
+    private String defaultPlan = "standard";
+
+    // Tenants per transaction on the bulk endpoint
+    private int batchSize = 500;
+
+    private Map<String, List<ProductTemplate>> plans = new HashMap<>();
+
+    @Data
+    public static class ProductTemplate {
+        private String name;
+        private long priceMinor;
+        private int stock;
+        private GstSlab taxSlab;
+    }
+}
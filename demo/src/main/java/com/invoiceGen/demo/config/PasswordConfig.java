@@ -1,15 +1,50 @@
 package com.invoiceGen.demo.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordConfig.class);
+
+    // BCrypt's own default; never calibrate below it
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    // auth.bcrypt.strength=0 calibrates to auth.bcrypt.target-ms on this host.
+    // Stored hashes with a lower cost are upgraded on the next login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(
+            @Value("${auth.bcrypt.strength:0}") int strength,
+            @Value("${auth.bcrypt.target-ms:250}") long targetMs) {
+
+        if (strength <= 0) {
+            strength = calibrate(targetMs);
+        }
+        logger.info("BCrypt strength {}", strength);
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // Each extra round doubles the cost, so one timed hash is enough
+    private static int calibrate(long targetMs) {
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("warm-up");
+
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double measuredMs = Math.max((System.nanoTime() - start) / 1_000_000.0, 1.0);
+
+        int extraRounds = (int) Math.floor(Math.log(targetMs / measuredMs) / Math.log(2));
+        int strength = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, MIN_STRENGTH + extraRounds));
+
+        logger.info("BCrypt cost {} took {} ms; target {} ms", MIN_STRENGTH,
+                Math.round(measuredMs), targetMs);
+        return strength;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.invoiceGen.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// Hibernate batching defaults; application.properties still wins on conflicts
+@Configuration
+@PropertySource("classpath:persistence.properties")
+public class PersistenceConfig {
+
+    // Invoice number blocks are reserved while the caller's transaction
+    // already holds a connection from the main pool. A small pool of their
+    // own means a saturated main pool can't leave the block fetch waiting on
+    // connections held by the threads that wait for it. Not a default
+    // candidate, so everything else still gets the auto-configured one.
+    @Bean(defaultCandidate = false)
+    public HikariDataSource invoiceNumberDataSource(
+            DataSource dataSource,
+            @Value("${invoice.number.pool-size:2}") int poolSize) throws SQLException {
+
+        HikariDataSource main = dataSource.unwrap(HikariDataSource.class);
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("invoice-number");
+        pool.setJdbcUrl(main.getJdbcUrl());
+        pool.setUsername(main.getUsername());
+        pool.setPassword(main.getPassword());
+        if (main.getDriverClassName() != null) {
+            pool.setDriverClassName(main.getDriverClassName());
+        }
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(1);
+        return pool;
+    }
+}
@@ -0,0 +1,23 @@
+package com.invoiceGen.demo.config;
+
+import com.invoiceGen.demo.util.OverdueRiskModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RiskModelConfig {
+
+    // Defaults are the weights hard-coded in the Python service (no bias);
+    // order: days overdue, payment history score, previous overdue count
+    @Bean
+    public OverdueRiskModel overdueRiskModel(
+            @Value("${ai.risk-model.weights:0.04,0.6,0.5}") double[] weights,
+            @Value("${ai.risk-model.bias:0}") double bias) {
+
+        if (weights.length != 3) {
+            throw new IllegalStateException("ai.risk-model.weights needs exactly 3 values");
+        }
+        return new OverdueRiskModel(weights[0], weights[1], weights[2], bias);
+    }
+}
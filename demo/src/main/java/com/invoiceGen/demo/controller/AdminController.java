@@ -0,0 +1,70 @@
+package com.invoiceGen.demo.controller;
+
+import com.invoiceGen.demo.dto.BulkTenantResultDTO;
+import com.invoiceGen.demo.dto.TenantOnboardingRequestDTO;
+import com.invoiceGen.demo.service.CustomerPaymentStatsService;
+import com.invoiceGen.demo.service.RevenueRollupService;
+import com.invoiceGen.demo.service.TenantOnboardingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final TenantOnboardingService tenantOnboardingService;
+    private final CustomerPaymentStatsService customerPaymentStatsService;
+    private final RevenueRollupService revenueRollupService;
+
+    public AdminController(TenantOnboardingService tenantOnboardingService,
+                           CustomerPaymentStatsService customerPaymentStatsService,
+                           RevenueRollupService revenueRollupService) {
+        this.tenantOnboardingService = tenantOnboardingService;
+        this.customerPaymentStatsService = customerPaymentStatsService;
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    // -------------------------
+    // BULK TENANT ONBOARDING
+    // -------------------------
+    @PostMapping("/tenants/bulk")
+    public ResponseEntity<List<BulkTenantResultDTO>> onboardTenants(
+            @RequestBody List<TenantOnboardingRequestDTO> requests) {
+        return ResponseEntity.ok(tenantOnboardingService.onboard(requests));
+    }
+
+    // -------------------------
+    // CUSTOMER PAYMENT STATS
+    // -------------------------
+
+    // Recomputes customer_payment_stats from the invoices, tenants in parallel
+    @PostMapping("/customer-stats/rebuild")
+    public ResponseEntity<CustomerPaymentStatsService.RebuildResult> rebuildCustomerStats() {
+
+        CustomerPaymentStatsService.RebuildResult result = customerPaymentStatsService.rebuild();
+        if (result == null) {
+            return ResponseEntity.status(409).build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // -------------------------
+    // REVENUE ROLLUPS
+    // -------------------------
+
+    // Recomputes revenue_rollup from the invoices, tenants in parallel
+    @PostMapping("/revenue-rollups/rebuild")
+    public ResponseEntity<RevenueRollupService.RebuildResult> rebuildRevenueRollups() {
+
+        RevenueRollupService.RebuildResult result = revenueRollupService.rebuild();
+        if (result == null) {
+            return ResponseEntity.status(409).build();
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -2,7 +2,13 @@ package com.invoiceGen.demo.controller;
 
 import com.invoiceGen.demo.entity.User;
 import com.invoiceGen.demo.service.AuthService;
+import com.invoiceGen.demo.service.PasswordHashingService;
+import com.invoiceGen.demo.service.RefreshTokenService;
+import com.invoiceGen.demo.service.TokenRevocationService;
 import com.invoiceGen.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,10 +24,19 @@ public class AuthController {
 
     private final JwtUtil jwtUtil;
 
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthController(AuthService authService, JwtUtil jwtUtil) {
+    private final TokenRevocationService tokenRevocationService;
+
+
+    public AuthController(AuthService authService,
+                          JwtUtil jwtUtil,
+                          RefreshTokenService refreshTokenService,
+                          TokenRevocationService tokenRevocationService) {
       this.authService = authService;
        this.jwtUtil = jwtUtil;
+       this.refreshTokenService = refreshTokenService;
+       this.tokenRevocationService = tokenRevocationService;
     }
 
 
@@ -33,7 +48,12 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
 
-        User savedUser = authService.register(user);
+        User savedUser;
+        try {
+            savedUser = authService.register(user);
+        } catch (PasswordHashingService.BusyException e) {
+            return busy(e);
+        }
 
 //        String token = jwtUtil.generateToken(savedUser.getEmail());
 
@@ -54,15 +74,74 @@ public class AuthController {
         String email = request.get("email");
         String password = request.get("password");
 
-        User user = authService.login(email, password);
+        User user;
+        try {
+            user = authService.login(email, password);
+        } catch (PasswordHashingService.BusyException e) {
+            return busy(e);
+        }
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        RefreshTokenService.TokenPair tokens = refreshTokenService.issue(user);
 
         return ResponseEntity.ok(
                 Map.of(
                         "message", "Login successful",
-                        "token", token
+                        "token", tokens.accessToken(),
+                        "refreshToken", tokens.refreshToken()
                 )
         );
     }
-}
\ No newline at end of file
+
+    // -------------------------
+    // REFRESH (ROTATES THE REFRESH TOKEN)
+    // -------------------------
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+
+        String refreshToken = request.get("refreshToken");
+        if (refreshToken == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return refreshTokenService.rotate(refreshToken)
+                .<ResponseEntity<?>>map(tokens -> ResponseEntity.ok(
+                        Map.of(
+                                "token", tokens.accessToken(),
+                                "refreshToken", tokens.refreshToken()
+                        )
+                ))
+                .orElseGet(() -> ResponseEntity.status(401)
+                        .body(Map.of("message", "Invalid refresh token")));
+    }
+
+    // -------------------------
+    // LOGOUT (REVOKES BOTH TOKENS)
+    // -------------------------
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) Map<String, String> request,
+                                    HttpServletRequest httpRequest) {
+
+        String authHeader = httpRequest.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.verify(authHeader.substring(7));
+                tokenRevocationService.revoke(jwtUtil.extractTokenId(claims), claims.getExpiration());
+            } catch (JwtException | IllegalArgumentException e) {
+                // already invalid: nothing to revoke
+            }
+        }
+
+        if (request != null && request.get("refreshToken") != null) {
+            refreshTokenService.revoke(request.get("refreshToken"));
+        }
+
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
+    // BCrypt pool is saturated: fail fast so the client backs off
+    private ResponseEntity<?> busy(PasswordHashingService.BusyException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", "1")
+                .body(Map.of("message", e.getMessage()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.invoiceGen.demo.controller;
+
+import com.invoiceGen.demo.dto.RevenueDashboardDTO;
+import com.invoiceGen.demo.dto.RevenueForecastDTO;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.service.RevenueForecastService;
+import com.invoiceGen.demo.service.RevenueRollupService;
+import com.invoiceGen.demo.util.RevenueSeries;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final RevenueRollupService revenueRollupService;
+    private final RevenueForecastService revenueForecastService;
+
+    public DashboardController(RevenueRollupService revenueRollupService,
+                               RevenueForecastService revenueForecastService) {
+        this.revenueRollupService = revenueRollupService;
+        this.revenueForecastService = revenueForecastService;
+    }
+
+    // -------------------------
+    // REVENUE + CASH FLOW
+    // -------------------------
+
+    // Served from the in-memory rollups; defaults to the last twelve months
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueDashboardDTO> revenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") RevenueSeries.Granularity granularity,
+            Authentication auth) {
+
+        if (auth == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User user = (User) auth.getPrincipal();
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+
+        return ResponseEntity.ok(revenueRollupService.dashboard(user.getId(), start, end, granularity));
+    }
+
+    // -------------------------
+    // FORECAST
+    // -------------------------
+
+    // Cached per tenant until the next month closes or a past month changes
+    @GetMapping("/forecast")
+    public ResponseEntity<RevenueForecastDTO> forecast(Authentication auth) {
+
+        if (auth == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User user = (User) auth.getPrincipal();
+
+        return ResponseEntity.ok(revenueForecastService.forecast(user.getId()));
+    }
+}
@@ -1,20 +1,41 @@
 package com.invoiceGen.demo.controller;
 
+import com.invoiceGen.demo.dto.InvoicePageDTO;
 import com.invoiceGen.demo.dto.InvoicePdfDTO;
 import com.invoiceGen.demo.dto.InvoiceRequestDTO;
 import com.invoiceGen.demo.dto.InvoiceResponseDTO;
+import com.invoiceGen.demo.dto.InvoiceSearchResultDTO;
+import com.invoiceGen.demo.dto.InvoiceStatusRequestDTO;
 import com.invoiceGen.demo.entity.Invoice;
 import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.pdf.PdfDownloadWriter;
+import com.invoiceGen.demo.repository.InvoiceListFilter;
 import com.invoiceGen.demo.repository.InvoiceRepository;
-import com.invoiceGen.demo.repository.UserRepository;
+import com.invoiceGen.demo.repository.InvoiceSummary;
+import com.invoiceGen.demo.service.BulkInvoiceImportService;
+import com.invoiceGen.demo.service.InvoiceExportService;
+import com.invoiceGen.demo.service.InvoiceSearchService;
 import com.invoiceGen.demo.service.InvoiceService;
-import com.invoiceGen.demo.util.JwtUtil;
+import com.invoiceGen.demo.service.PdfOutboxService;
+import com.invoiceGen.demo.service.PdfRenderService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,41 +44,96 @@ import java.util.List;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
-    private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
     private final InvoiceRepository invoiceRepository;
+    private final PdfOutboxService pdfOutboxService;
+    private final PdfRenderService pdfRenderService;
+    private final PdfDownloadWriter pdfDownloadWriter;
+    private final BulkInvoiceImportService bulkInvoiceImportService;
+    private final InvoiceSearchService invoiceSearchService;
+    private final InvoiceExportService invoiceExportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${invoice.list.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${invoice.list.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${invoice.search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${invoice.search.max-limit:50}")
+    private int maxSearchLimit;
+
+    @Value("${invoice.pdf.max-internal-batch:10000}")
+    private int maxInternalBatch;
 
     public InvoiceController(InvoiceService invoiceService,
-                             JwtUtil jwtUtil,
-                             UserRepository userRepository,
-                             InvoiceRepository invoiceRepository) {
+                             InvoiceRepository invoiceRepository,
+                             PdfOutboxService pdfOutboxService,
+                             PdfRenderService pdfRenderService,
+                             PdfDownloadWriter pdfDownloadWriter,
+                             BulkInvoiceImportService bulkInvoiceImportService,
+                             InvoiceSearchService invoiceSearchService,
+                             InvoiceExportService invoiceExportService,
+                             ObjectMapper objectMapper) {
         this.invoiceService = invoiceService;
-        this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
         this.invoiceRepository = invoiceRepository;
+        this.pdfOutboxService = pdfOutboxService;
+        this.pdfRenderService = pdfRenderService;
+        this.pdfDownloadWriter = pdfDownloadWriter;
+        this.bulkInvoiceImportService = bulkInvoiceImportService;
+        this.invoiceSearchService = invoiceSearchService;
+        this.invoiceExportService = invoiceExportService;
+        this.objectMapper = objectMapper;
     }
 
     // -------------------------
     // CREATE INVOICE
     // -------------------------
     @PostMapping
-    public ResponseEntity<Invoice> createInvoice(
+    public ResponseEntity<InvoiceResponseDTO> createInvoice(
             @RequestBody InvoiceRequestDTO request,
-            HttpServletRequest httpRequest) {
+            Authentication auth) {
 
-        String authHeader = httpRequest.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (auth == null) {
             return ResponseEntity.status(401).build();
         }
+        User user = (User) auth.getPrincipal();
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
+        // A DTO: the entity's items point back at it and would not serialize
+        Invoice invoice = invoiceService.createInvoice(user, request);
+        return ResponseEntity.ok(toResponse(invoice));
+    }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // -------------------------
+    // BULK CREATE (JSONL / CSV)
+    // -------------------------
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public void bulkCreateInvoices(
+            @RequestParam(required = false) Integer batchSize,
+            Authentication auth,
+            HttpServletRequest httpRequest,
+            HttpServletResponse response) throws IOException {
 
-        Invoice invoice = invoiceService.createInvoice(user, request);
-        return ResponseEntity.ok(invoice);
+        if (auth == null) {
+            response.setStatus(401);
+            return;
+        }
+        User user = (User) auth.getPrincipal();
+
+        // Results are streamed back batch by batch as NDJSON
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        int size = bulkInvoiceImportService.batchSize(batchSize);
+        if (httpRequest.getContentType().startsWith("text/csv")) {
+            bulkInvoiceImportService.importCsv(user, httpRequest.getInputStream(),
+                    response.getOutputStream(), size);
+        } else {
+            bulkInvoiceImportService.importJsonLines(user, httpRequest.getInputStream(),
+                    response.getOutputStream(), size);
+        }
     }
 
     // -------------------------
@@ -65,27 +141,23 @@ public class InvoiceController {
     // -------------------------
     @GetMapping("/recent")
     public ResponseEntity<List<InvoiceResponseDTO>> getRecentInvoices(
-            HttpServletRequest request) {
+            Authentication auth) {
 
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (auth == null) {
             return ResponseEntity.status(401).build();
         }
-
-        String email = jwtUtil.extractUsername(authHeader.substring(7));
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = (User) auth.getPrincipal();
 
         Pageable pageable = PageRequest.of(0, 5);
-        List<Invoice> invoices =
-                invoiceRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+        List<InvoiceSummary> invoices =
+                invoiceRepository.findRecentByUserId(user.getId(), pageable);
 
         List<InvoiceResponseDTO> response = invoices.stream().map(inv -> {
             InvoiceResponseDTO dto = new InvoiceResponseDTO();
             dto.setId(inv.getId());
             dto.setInvoiceNumber(inv.getInvoiceNumber());
             dto.setCustomerName(inv.getCustomerName());
-            dto.setTotalAmount(inv.getTotalAmount());
+            dto.setTotalAmountMinor(inv.getTotalAmountMinor());
             dto.setStatus(inv.getStatus());
             dto.setCreatedAt(inv.getCreatedAt());
             return dto;
@@ -94,24 +166,192 @@ public class InvoiceController {
         return ResponseEntity.ok(response);
     }
 
+    // -------------------------
+    // LIST (KEYSET PAGINATION + FILTERS)
+    // -------------------------
+    @GetMapping
+    public ResponseEntity<InvoicePageDTO> listInvoices(
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+
+        if (auth == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User user = (User) auth.getPrincipal();
+
+        int pageSize = limit == null || limit <= 0
+                ? defaultPageSize
+                : Math.min(limit, maxPageSize);
+
+        InvoiceListFilter filter = new InvoiceListFilter(status, dueFrom, dueTo,
+                customer != null && !customer.isBlank() ? customer : null);
+
+        return ResponseEntity.ok(invoiceService.listInvoices(user, filter, cursor, pageSize));
+    }
+
+    // -------------------------
+    // EXPORT (CSV / JSONL, STREAMED)
+    // -------------------------
+    @GetMapping("/export")
+    public void exportInvoices(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth,
+            HttpServletResponse response) throws IOException {
+
+        if (auth == null) {
+            response.setStatus(401);
+            return;
+        }
+        User user = (User) auth.getPrincipal();
+
+        InvoiceExportService.Format exportFormat;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = InvoiceExportService.Format.CSV;
+            response.setContentType("text/csv");
+        } else if ("jsonl".equalsIgnoreCase(format)) {
+            exportFormat = InvoiceExportService.Format.JSONL;
+            response.setContentType("application/x-ndjson");
+        } else {
+            response.sendError(400, "format must be csv or jsonl");
+            return;
+        }
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"invoices." + format.toLowerCase() + "\"");
+
+        invoiceExportService.export(user.getId(),
+                new InvoiceExportService.Filter(status, from, to),
+                exportFormat, response.getOutputStream());
+    }
+
+    // -------------------------
+    // SEARCH (TYPE-AHEAD)
+    // -------------------------
+    @GetMapping("/search")
+    public ResponseEntity<InvoiceSearchResultDTO> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+
+        if (auth == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User user = (User) auth.getPrincipal();
+
+        int size = limit == null || limit <= 0
+                ? defaultSearchLimit
+                : Math.min(limit, maxSearchLimit);
+
+        return ResponseEntity.ok(invoiceSearchService.search(user, q, size));
+    }
 
     // -------------------------
-    // DOWNLOAD PDF URL
+    // UPDATE STATUS (CANCEL RELEASES STOCK)
     // -------------------------
-    @GetMapping("/{id}/pdf")
-    public ResponseEntity<String> getInvoicePdf(@PathVariable Integer id,
-                                                HttpServletRequest request) {
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<InvoiceResponseDTO> updateStatus(
+            @PathVariable Integer id,
+            @RequestBody InvoiceStatusRequestDTO body,
+            Authentication auth) {
 
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (auth == null) {
             return ResponseEntity.status(401).build();
         }
+        User user = (User) auth.getPrincipal();
+
+        Invoice invoice = invoiceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+
+        if (!invoice.getUser().getId().equals(user.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        Invoice updated = invoiceService.updateStatus(invoice.getId(), body.getStatus());
+        return ResponseEntity.ok(toResponse(updated));
+    }
+
+    private InvoiceResponseDTO toResponse(Invoice inv) {
+        InvoiceResponseDTO dto = new InvoiceResponseDTO();
+        dto.setId(inv.getId());
+        dto.setInvoiceNumber(inv.getInvoiceNumber());
+        dto.setCustomerName(inv.getCustomerName());
+        dto.setTotalAmountMinor(inv.getTotalAmountMinor());
+        dto.setStatus(inv.getStatus());
+        dto.setCreatedAt(inv.getCreatedAt());
+        dto.setDueDate(inv.getDueDate());
+        return dto;
+    }
+
+
+    // -------------------------
+    // DOWNLOAD PDF (RANGE + ETAG)
+    // -------------------------
+    @GetMapping("/{id}/pdf")
+    public void getInvoicePdf(@PathVariable Integer id,
+                              Authentication auth,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+
+        if (auth == null) {
+            response.setStatus(401);
+            return;
+        }
+        User user = (User) auth.getPrincipal();
+
+        Invoice invoice = invoiceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+
+        if (!invoice.getUser().getId().equals(user.getId())) {
+            response.setStatus(403);
+            return;
+        }
+
+        // Rendering is asynchronous; a failed render is only queued again
+        // by POST /{id}/pdf/retry
+        if (invoice.getPdfStatus() == PdfStatus.FAILED) {
+            response.sendError(409, "PDF rendering failed; POST .../pdf/retry to render it again");
+            return;
+        }
+        if (invoice.getPdfStatus() == PdfStatus.PENDING) {
+            response.setStatus(202);
+            return;
+        }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
+        // Revalidation of an unchanged PDF never touches the file
+        if (invoice.getPdfHash() != null
+                && pdfDownloadWriter.notModified(request, response, invoice.getPdfHash())) {
+            return;
+        }
+
+        String fileName = "invoice_" + invoice.getId() + ".pdf";
+        PdfRenderService.PdfFile pdf = pdfRenderService.getPdfFile(invoice);
+        try {
+            pdfDownloadWriter.write(request, response, pdf.hash(), pdf.file(), fileName);
+        } catch (NoSuchFileException e) {
+            // Evicted or deleted since the lookup: serve the bytes instead
+            PdfRenderService.PdfBytes bytes = pdfRenderService.getPdfBytes(invoice, pdf.hash());
+            pdfDownloadWriter.write(request, response, bytes.hash(), bytes.bytes(), fileName);
+        }
+    }
+
+    // -------------------------
+    // RETRY FAILED PDF
+    // -------------------------
+    @PostMapping("/{id}/pdf/retry")
+    public ResponseEntity<Void> retryInvoicePdf(@PathVariable Integer id, Authentication auth) {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (auth == null) {
+            return ResponseEntity.status(401).build();
+        }
+        User user = (User) auth.getPrincipal();
 
         Invoice invoice = invoiceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
@@ -120,36 +360,45 @@ public class InvoiceController {
             return ResponseEntity.status(403).build();
         }
 
-        return ResponseEntity.ok(invoice.getPdfUrl());
+        // Queued now, or already queued (by an earlier or concurrent retry):
+        // either way the PDF is on its way. A rendered PDF has nothing to retry.
+        if (pdfOutboxService.retry(invoice) || invoice.getPdfStatus() != PdfStatus.READY) {
+            return ResponseEntity.status(202).build();
+        }
+        return ResponseEntity.status(409).build();
     }
 
     // -------------------------
     // INTERNAL (PYTHON PDF SERVICE)
     // -------------------------
     @GetMapping("/internal/{id}")
-    public InvoicePdfDTO getInvoiceInternal(@PathVariable Integer id) {
+    public InvoicePdfDTO getInvoiceInternal(@PathVariable Long id) {
+        return invoiceService.getInvoicePdfData(id);
+    }
 
-        Invoice invoice = invoiceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Invoice not found"));
+    // Many invoices per call, streamed back as NDJSON in id order; ids that
+    // do not exist are simply absent from the output
+    @PostMapping("/internal/batch")
+    public void getInvoicesInternal(@RequestBody List<Long> ids,
+                                    HttpServletResponse response) throws IOException {
 
-        InvoicePdfDTO dto = new InvoicePdfDTO();
-        dto.setInvoiceNumber(invoice.getInvoiceNumber());
-        dto.setCustomerName(invoice.getCustomerName());
-        dto.setDueDate(invoice.getDueDate());
-        dto.setSubtotal(invoice.getSubtotal());
-        dto.setTax(invoice.getTax());
-        dto.setTotalAmount(invoice.getTotalAmount());
-
-        List<InvoicePdfDTO.Item> items = invoice.getItems().stream().map(i -> {
-            InvoicePdfDTO.Item item = new InvoicePdfDTO.Item();
-            item.setProductName(i.getProduct().getName());
-            item.setQuantity(i.getQuantity());
-            item.setPrice(i.getPrice());
-            item.setTotal(i.getTotal());
-            return item;
-        }).toList();
+        if (ids == null || ids.size() > maxInternalBatch) {
+            response.sendError(400, "Between 0 and " + maxInternalBatch + " ids per call");
+            return;
+        }
 
-        dto.setItems(items);
-        return dto;
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+
+        invoiceService.forEachInvoicePdfData(ids.stream().distinct().sorted().toList(), dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
     }
 }
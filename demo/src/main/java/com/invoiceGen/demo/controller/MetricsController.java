@@ -0,0 +1,87 @@
+package com.invoiceGen.demo.controller;
+
+import com.invoiceGen.demo.pdf.PdfRenderCache;
+import com.invoiceGen.demo.security.PrincipalCache;
+import com.invoiceGen.demo.service.InvoiceAnalyticsService;
+import com.invoiceGen.demo.service.InvoiceSearchService;
+import com.invoiceGen.demo.service.RevenueForecastService;
+import com.invoiceGen.demo.service.RevenueRollupService;
+import com.invoiceGen.demo.service.RiskScoringJob;
+import com.invoiceGen.demo.util.JwtUtil;
+import com.invoiceGen.demo.util.VerifiedTokenCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final PdfRenderCache pdfRenderCache;
+    private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
+    private final InvoiceSearchService invoiceSearchService;
+    private final InvoiceAnalyticsService invoiceAnalyticsService;
+    private final RiskScoringJob riskScoringJob;
+    private final RevenueRollupService revenueRollupService;
+    private final RevenueForecastService revenueForecastService;
+
+    public MetricsController(PdfRenderCache pdfRenderCache,
+                             JwtUtil jwtUtil,
+                             PrincipalCache principalCache,
+                             InvoiceSearchService invoiceSearchService,
+                             InvoiceAnalyticsService invoiceAnalyticsService,
+                             RiskScoringJob riskScoringJob,
+                             RevenueRollupService revenueRollupService,
+                             RevenueForecastService revenueForecastService) {
+        this.pdfRenderCache = pdfRenderCache;
+        this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.invoiceSearchService = invoiceSearchService;
+        this.invoiceAnalyticsService = invoiceAnalyticsService;
+        this.riskScoringJob = riskScoringJob;
+        this.revenueRollupService = revenueRollupService;
+        this.revenueForecastService = revenueForecastService;
+    }
+
+    @GetMapping("/pdf-cache")
+    public ResponseEntity<PdfRenderCache.Stats> getPdfCacheStats() {
+        return ResponseEntity.ok(pdfRenderCache.stats());
+    }
+
+    @GetMapping("/jwt-cache")
+    public ResponseEntity<VerifiedTokenCache.Stats> getJwtCacheStats() {
+        return ResponseEntity.ok(jwtUtil.verifiedCacheStats());
+    }
+
+    @GetMapping("/principal-cache")
+    public ResponseEntity<PrincipalCache.Stats> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<InvoiceSearchService.Stats> getSearchIndexStats() {
+        return ResponseEntity.ok(invoiceSearchService.stats());
+    }
+
+    @GetMapping("/ai-analysis")
+    public ResponseEntity<InvoiceAnalyticsService.Stats> getAiAnalysisStats() {
+        return ResponseEntity.ok(invoiceAnalyticsService.stats());
+    }
+
+    @GetMapping("/risk-scoring")
+    public ResponseEntity<RiskScoringJob.Stats> getRiskScoringStats() {
+        return ResponseEntity.ok(riskScoringJob.stats());
+    }
+
+    @GetMapping("/revenue-rollups")
+    public ResponseEntity<RevenueRollupService.Stats> getRevenueRollupStats() {
+        return ResponseEntity.ok(revenueRollupService.stats());
+    }
+
+    @GetMapping("/revenue-forecast")
+    public ResponseEntity<RevenueForecastService.Stats> getRevenueForecastStats() {
+        return ResponseEntity.ok(revenueForecastService.stats());
+    }
+}
@@ -0,0 +1,18 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+// One line of the streamed bulk-import response
+@Data
+public class BulkInvoiceResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private long line;      // input line (first row of the invoice for CSV)
+    private String ref;     // CSV invoice reference, null for JSONL
+    private String status;  // CREATED / FAILED
+    private Long invoiceId;
+    private String invoiceNumber;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+// Per-tenant outcome of a bulk onboarding request, in request order
+@Data
+public class BulkTenantResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private String email;
+    private String status;  // CREATED / FAILED
+    private Long userId;
+    private String error;
+}
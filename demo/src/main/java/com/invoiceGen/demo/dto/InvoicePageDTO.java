@@ -0,0 +1,14 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// One keyset page; nextCursor is null on the last page. sort names the
+// order, which the filters pick (see InvoiceListFilter.Order).
+@Data
+public class InvoicePageDTO {
+    private List<InvoiceResponseDTO> items;
+    private String sort;
+    private String nextCursor;
+}
@@ -2,6 +2,7 @@ package com.invoiceGen.demo.dto;
 
 
 
+import com.invoiceGen.demo.util.Money;
 import lombok.Data;
 import java.time.LocalDate;
 import java.util.List;
@@ -9,20 +10,47 @@ import java.util.List;
 @Data
 public class InvoicePdfDTO {
 
+    private Long invoiceId;
     private String invoiceNumber;
     private String customerName;
     private LocalDate dueDate;
-    private Double subtotal;
-    private Double tax;
-    private Double totalAmount;
+
+    // Minor units (paise)
+    private long subtotalMinor;
+    private long cgstMinor;
+    private long sgstMinor;
+    private long igstMinor;
+    private long taxMinor;
+    private long totalAmountMinor;
 
     private List<Item> items;
 
+    // Display values (read by the Python renderer)
+    public double getSubtotal() {
+        return Money.toMajor(subtotalMinor);
+    }
+
+    public double getTax() {
+        return Money.toMajor(taxMinor);
+    }
+
+    public double getTotalAmount() {
+        return Money.toMajor(totalAmountMinor);
+    }
+
     @Data
     public static class Item {
         private String productName;
         private Integer quantity;
-        private Double price;
-        private Double total;
+        private long priceMinor;
+        private long totalMinor;
+
+        public double getPrice() {
+            return Money.toMajor(priceMinor);
+        }
+
+        public double getTotal() {
+            return Money.toMajor(totalMinor);
+        }
     }
 }
@@ -14,6 +14,9 @@ public class InvoiceRequestDTO {
     private LocalDate dueDate;
     private InvoiceStatus status;
 
+    // Place of supply in another state: IGST instead of CGST + SGST
+    private Boolean interState;
+
     private String urlName;
     private List<Item> items;
 
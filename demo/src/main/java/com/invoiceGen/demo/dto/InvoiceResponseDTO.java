@@ -1,8 +1,10 @@
 package com.invoiceGen.demo.dto;
 
 import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.util.Money;
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -10,7 +12,12 @@ public class InvoiceResponseDTO {
     private Long id;
     private String invoiceNumber;
     private String customerName;
-    private Double totalAmount;
+    private long totalAmountMinor;
     private InvoiceStatus status;
     private LocalDateTime createdAt;
+    private LocalDate dueDate;
+
+    public double getTotalAmount() {
+        return Money.toMajor(totalAmountMinor);
+    }
 }
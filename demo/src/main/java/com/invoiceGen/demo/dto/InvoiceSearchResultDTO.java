@@ -0,0 +1,12 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Type-ahead matches: invoices newest first, plus distinct matching customers
+@Data
+public class InvoiceSearchResultDTO {
+    private List<InvoiceResponseDTO> invoices;
+    private List<String> customers;
+}
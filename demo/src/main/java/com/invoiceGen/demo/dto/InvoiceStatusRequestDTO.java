@@ -0,0 +1,9 @@
+package com.invoiceGen.demo.dto;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import lombok.Data;
+
+@Data
+public class InvoiceStatusRequestDTO {
+    private InvoiceStatus status;
+}
@@ -0,0 +1,32 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Revenue and cash flow of a tenant between two dates, one bucket per day,
+// week or month. outstanding is the balance at the end of each bucket.
+@Data
+public class RevenueDashboardDTO {
+
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+
+    private double totalInvoiced;
+    private double totalTax;
+    private double totalPaid;
+    private double outstanding;
+
+    private List<Bucket> buckets;
+
+    @Data
+    public static class Bucket {
+        private LocalDate start;
+        private double invoiced;
+        private double tax;
+        private double paid;
+        private double outstanding;
+    }
+}
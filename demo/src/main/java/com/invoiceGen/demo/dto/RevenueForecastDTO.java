@@ -0,0 +1,25 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Expected invoiced and collected (paid) totals for the coming months.
+// Seasonal once a full year of months has been observed, trend-only before.
+@Data
+public class RevenueForecastDTO {
+
+    private String basedOnMonthsThrough;   // yyyy-MM, last completed month
+    private int monthsObserved;
+    private boolean seasonal;
+    private List<Month> months;
+    private LocalDateTime generatedAt;
+
+    @Data
+    public static class Month {
+        private String month;              // yyyy-MM
+        private double invoiced;
+        private double collected;
+    }
+}
@@ -0,0 +1,12 @@
+package com.invoiceGen.demo.dto;
+
+import lombok.Data;
+
+// One tenant of a bulk onboarding request
+@Data
+public class TenantOnboardingRequestDTO {
+    private String name;
+    private String email;
+    private String password;
+    private String plan;    // null: onboarding.default-plan
+}
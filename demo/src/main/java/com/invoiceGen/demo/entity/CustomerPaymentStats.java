@@ -0,0 +1,54 @@
+package com.invoiceGen.demo.entity;
+
+import com.invoiceGen.demo.util.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Payment history of one customer of a tenant, kept in step with its
+// invoices by CustomerPaymentStatsService. Cancelled invoices are not
+// counted. Invoices without a customer name share the "" row.
+@Entity
+@IdClass(CustomerPaymentStats.Key.class)
+@Data
+@NoArgsConstructor
+public class CustomerPaymentStats {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String customerName;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    private String customerName;
+
+    private long invoiceCount;
+    private long openCount;          // UNPAID or OVERDUE
+    private long overdueCount;       // currently OVERDUE
+    private long paidCount;
+    private long paidLateCount;      // paid after the due date
+    private long totalDaysToPay;     // over the paid invoices
+
+    private long outstandingMinor;   // total of the open invoices
+    private long paidMinor;
+
+    private LocalDateTime updatedAt;
+
+    public double getAverageDaysToPay() {
+        return paidCount == 0 ? 0.0 : (double) totalDaysToPay / paidCount;
+    }
+
+    public double getOutstanding() {
+        return Money.toMajor(outstandingMinor);
+    }
+}
@@ -1,6 +1,8 @@
 package com.invoiceGen.demo.entity;
 
 import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,15 +14,32 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Numbers are sequential per tenant, so uniqueness is per tenant too
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_invoice_user_number", columnNames = {"user_id", "invoiceNumber"}),
+        indexes = {
+                // Keyset listing: unfiltered, by status, by due date, by customer
+                // prefix. InnoDB ends each with the id, so the last two are in
+                // the (dueDate, id) and (customerName, id) order of those pages.
+                @Index(name = "idx_invoice_user_created", columnList = "user_id, createdAt DESC"),
+                @Index(name = "idx_invoice_user_status_created",
+                        columnList = "user_id, status, createdAt DESC"),
+                @Index(name = "idx_invoice_user_due", columnList = "user_id, dueDate"),
+                @Index(name = "idx_invoice_user_customer", columnList = "user_id, customerName")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Invoice {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_id")
+    @TableGenerator(name = "invoice_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "invoice", allocationSize = 50)
     private Long id;
 
     // Company / User
@@ -29,16 +48,19 @@ public class Invoice {
     private User user;
 
     // Invoice details
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String invoiceNumber;
 
     private LocalDate dueDate;
     private String customerName;
 
-    // Amounts
-    private Double subtotal;
-    private Double tax;
-    private Double totalAmount;
+    // Amounts in minor units (paise)
+    private long subtotalMinor;
+    private long cgstMinor;
+    private long sgstMinor;
+    private long igstMinor;
+    private long taxMinor;
+    private long totalAmountMinor;
 
     @Enumerated(EnumType.STRING)
     private InvoiceStatus status;
@@ -46,14 +68,37 @@ public class Invoice {
     // File reference
     private String pdfUrl;
 
+    @Enumerated(EnumType.STRING)
+    private PdfStatus pdfStatus;
+
+    // Content hash of the rendered PDF (key into PdfRenderCache)
+    private String pdfHash;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // Set when the invoice becomes PAID; feeds CustomerPaymentStats
+    private LocalDateTime paidAt;
+
     // 🔥 IMPORTANT: Invoice → InvoiceItems
+    // Lazy: only InvoiceRepository.findWithItemsById fetch-joins them
     @OneToMany(
             mappedBy = "invoice",
             cascade = CascadeType.ALL,
-            fetch = FetchType.EAGER
+            fetch = FetchType.LAZY
     )
     private List<InvoiceItem> items;
+
+    // Display values for the frontend
+    public double getSubtotal() {
+        return Money.toMajor(subtotalMinor);
+    }
+
+    public double getTax() {
+        return Money.toMajor(taxMinor);
+    }
+
+    public double getTotalAmount() {
+        return Money.toMajor(totalAmountMinor);
+    }
 }
@@ -7,21 +7,45 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
+// Last AI analysis of an invoice. Valid while the fingerprint of the
+// analysed inputs still matches the invoice and expiresAt is in the future.
 @Entity
+@Table(indexes = @Index(name = "idx_invoice_analytics_expiry", columnList = "expiresAt"))
 @Data
 public class InvoiceAnalytics {
 
+    // Pooled table generator instead of IDENTITY so batch scoring can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_analytics_id")
+    @TableGenerator(name = "invoice_analytics_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "invoice_analytics", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", unique = true)
     private Invoice invoice;
 
     private String riskStatus;
+    @Column(length = 2000)
     private String reason;
     private Double overdueProbability;
+    @Column(length = 2000)
     private String recommendation;
 
+    private Boolean anomalyDetected;
+    @Column(length = 1000)
+    private String anomalyKeywords;   // comma separated
+
+    // Risk status and reason came from the LLM, not from the in-JVM model
+    private boolean narrative;
+
+    // SHA-256 (hex) of the inputs the analysis was computed from
+    @Column(length = 64, nullable = false)
+    private String fingerprint;
+
     private LocalDateTime analyzedAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
 }
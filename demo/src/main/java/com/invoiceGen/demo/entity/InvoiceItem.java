@@ -1,10 +1,13 @@
 package com.invoiceGen.demo.entity;
 
+import com.invoiceGen.demo.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Data
@@ -13,12 +16,20 @@ import lombok.NoArgsConstructor;
 @Builder
 public class InvoiceItem {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "invoice_item_id")
+    @TableGenerator(name = "invoice_item_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "invoice_item", allocationSize = 200)
     private Long id;
 
+    // Back-reference: left out of toString/equals/hashCode, which would
+    // otherwise loop through Invoice.items
     @ManyToOne
     @JoinColumn(name = "invoice_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Invoice invoice;
 
     @ManyToOne
@@ -26,6 +37,19 @@ public class InvoiceItem {
     private Product product;
 
     private Integer quantity;
-    private Double price;  // snapshot of product price
-    private Double total;  // quantity * price
+
+    // Minor units (paise)
+    private long priceMinor;   // snapshot of product price
+    private long totalMinor;   // quantity * price
+    private long taxMinor;     // GST on this line
+    private int taxRateBasisPoints;
+
+    // Display values for the frontend
+    public double getPrice() {
+        return Money.toMajor(priceMinor);
+    }
+
+    public double getTotal() {
+        return Money.toMajor(totalMinor);
+    }
 }
@@ -0,0 +1,32 @@
+package com.invoiceGen.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// High-water mark of invoice numbers handed out per tenant and year
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_invoice_number_sequence", columnNames = {"userId", "invoiceYear"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceNumberSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer invoiceYear;
+
+    // First number not yet reserved by any block
+    @Column(nullable = false)
+    private Long nextValue;
+}
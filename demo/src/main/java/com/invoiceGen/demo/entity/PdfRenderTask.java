@@ -0,0 +1,50 @@
+package com.invoiceGen.demo.entity;
+
+import com.invoiceGen.demo.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Outbox row: written with the invoice, drained by PdfOutboxWorker
+@Entity
+@Table(indexes = @Index(name = "idx_pdf_task_due", columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PdfRenderTask {
+
+    // Pooled ids so bulk imports can batch outbox inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pdf_render_task_id")
+    @TableGenerator(name = "pdf_render_task_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "pdf_render_task", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long invoiceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set while a worker owns the task; used to recover from crashed workers
+    private LocalDateTime lockedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
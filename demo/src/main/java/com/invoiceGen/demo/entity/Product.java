@@ -1,5 +1,7 @@
 package com.invoiceGen.demo.entity;
 
+import com.invoiceGen.demo.enums.GstSlab;
+import com.invoiceGen.demo.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,8 +15,12 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Product {
 
+    // Pooled ids so onboarding can batch the template inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "product_id")
+    @TableGenerator(name = "product_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "product", allocationSize = 200)
     private Long id;
 
     @ManyToOne
@@ -23,13 +29,23 @@ public class Product {
 
     private String name;
 
-    private Double price;
+    // Minor units (paise)
+    private long priceMinor;
+
+    @Enumerated(EnumType.STRING)
+    private GstSlab taxSlab;
 
     private Integer stock;
 
-    public Product(String name, Double price, Integer stock) {
+    public Product(String name, long priceMinor, Integer stock) {
         this.name = name;
-        this.price = price;
+        this.priceMinor = priceMinor;
+        this.taxSlab = GstSlab.DEFAULT;
         this.stock = stock;
     }
+
+    // Display value for the frontend
+    public double getPrice() {
+        return Money.toMajor(priceMinor);
+    }
 }
@@ -0,0 +1,46 @@
+package com.invoiceGen.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One row per issued refresh token. Only the SHA-256 of the token is
+// stored. Every rotation stays in the same family, so reuse of an already
+// rotated token can revoke the whole chain.
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_token_family", columnList = "familyId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private boolean revoked;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.invoiceGen.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One tenant-day of the revenue dashboard: totals and tax of the invoices
+// created that day (cancelled ones excluded) and totals of the invoices
+// paid that day. Backs the in-memory RevenueSeries; kept current by
+// RevenueRollupService.
+@Entity
+@IdClass(RevenueRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class RevenueRollup {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate rollupDate;
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    private LocalDate rollupDate;
+
+    private long invoicedMinor;
+    private long taxMinor;
+    private long paidMinor;
+
+    private LocalDateTime updatedAt;
+}
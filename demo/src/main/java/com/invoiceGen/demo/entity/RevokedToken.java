@@ -0,0 +1,27 @@
+package com.invoiceGen.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Access token revoked before its expiry (logout, compromise). Rows are
+// only needed until the token would have expired anyway.
+@Entity
+@Table(indexes = @Index(name = "idx_revoked_token_expiry", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    // The token's jti
+    @Id
+    private Long tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
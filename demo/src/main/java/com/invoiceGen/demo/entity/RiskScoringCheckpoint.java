@@ -0,0 +1,45 @@
+package com.invoiceGen.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of a batch scoring run, saved after every page. A run that
+// crashed resumes after (lastUserId, lastInvoiceId) on the same day.
+// owner / leaseUntil make one node at a time the runner: the lease is
+// claimed by a conditional update and renewed every page, and a node that
+// dies mid-run loses it when it expires.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskScoringCheckpoint {
+
+    @Id
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    private long lastUserId;
+    private long lastInvoiceId;
+
+    private long processed;   // open invoices visited
+    private long scored;      // analysed by the service
+    private long skipped;     // already had a fresh analysis
+    private long failed;
+
+    private boolean completed;
+
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+}
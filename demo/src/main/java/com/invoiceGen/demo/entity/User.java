@@ -1,6 +1,7 @@
 package com.invoiceGen.demo.entity;
 
 import com.invoiceGen.demo.enums.UserRole;
+import com.invoiceGen.demo.security.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,14 +15,20 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_user_email", columnList = "email", unique = true))
+@EntityListeners(UserChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
 
+    // Pooled ids so bulk onboarding can batch user inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "user", allocationSize = 50)
     @Column(name = "user_id")
     private Long id;
 
@@ -36,11 +43,18 @@ public class User {
     @Enumerated(EnumType.STRING)
     private UserRole role;
 
+    // Selects the product templates provisioned at registration
+    private String plan;
 
+
+    // Sign-up forces USER (TenantProvisioningService); other writers keep
+    // an explicitly set role
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
-        this.role=UserRole.USER;
+        if (this.role == null) {
+            this.role = UserRole.USER;
+        }
     }
 
 
@@ -0,0 +1,23 @@
+package com.invoiceGen.demo.enums;
+
+// GST rate slabs in basis points (1800 = 18%)
+public enum GstSlab {
+    EXEMPT(0),
+    GST_5(500),
+    GST_12(1200),
+    GST_18(1800),
+    GST_28(2800);
+
+    // Products created before slabs existed were taxed at 18%
+    public static final GstSlab DEFAULT = GST_18;
+
+    private final int basisPoints;
+
+    GstSlab(int basisPoints) {
+        this.basisPoints = basisPoints;
+    }
+
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+}
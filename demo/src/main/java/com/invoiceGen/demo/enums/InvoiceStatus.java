@@ -3,5 +3,6 @@ package com.invoiceGen.demo.enums;
 public enum InvoiceStatus {
     UNPAID,
     PAID,
-    OVERDUE
+    OVERDUE,
+    CANCELLED
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.invoiceGen.demo.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    IN_PROGRESS,
+    FAILED
+}
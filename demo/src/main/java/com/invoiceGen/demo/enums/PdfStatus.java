@@ -0,0 +1,7 @@
+package com.invoiceGen.demo.enums;
+
+public enum PdfStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,165 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+
+import java.util.List;
+
+import static com.invoiceGen.demo.pdf.PdfBuffer.ascii;
+
+// Invoice page template: fixed content is compiled to bytes once,
+// only the invoice values are written per render
+final class InvoicePdfLayout {
+
+    // A4 in points
+    static final int PAGE_WIDTH = 595;
+    static final int PAGE_HEIGHT = 842;
+
+    private static final int[] COLUMNS = {50, 250, 300, 380};
+    private static final int FIRST_TABLE_Y = 632;
+    private static final int NEXT_TABLE_Y = 762;
+    private static final int HEADER_GAP = 30;
+    private static final int ROW_HEIGHT = 25;
+    private static final int LOWEST_ROW_Y = 70;
+    private static final int TOTALS_MIN_Y = 120; // totals block needs 80pt + margin
+
+    // -------------------------
+    // PRECOMPILED FRAGMENTS
+    // -------------------------
+    private static final byte[] TITLE = ascii("BT /F2 18 Tf 50 792 Td (INVOICE) Tj ET\n");
+    private static final byte[] FIRST_TABLE_HEADER = tableHeader(FIRST_TABLE_Y);
+    private static final byte[] NEXT_TABLE_HEADER = tableHeader(NEXT_TABLE_Y);
+
+    private static final byte[] INVOICE_NO = ascii("BT /F1 12 Tf 50 742 Td (Invoice No: ");
+    private static final byte[] CUSTOMER = ascii("BT /F1 12 Tf 50 712 Td (Customer: ");
+    private static final byte[] DUE_DATE = ascii("BT /F1 12 Tf 50 682 Td (Due Date: ");
+    private static final byte[] CONTINUED = ascii("BT /F2 12 Tf 50 792 Td (Invoice ");
+    private static final byte[] CONTINUED_END = ascii(" \\(continued\\)) Tj ET\n");
+
+    private static final byte[] CELL_F1 = ascii("BT /F1 12 Tf ");
+    private static final byte[] CELL_F2 = ascii("BT /F2 12 Tf ");
+    private static final byte[] TD_OPEN = ascii(" Td (");
+    private static final byte[] TJ_CLOSE = ascii(") Tj ET\n");
+
+    private static final byte[] SUBTOTAL = ascii("Subtotal: ");
+    private static final byte[] CGST = ascii("Tax \\(CGST ");
+    private static final byte[] SGST = ascii(" + SGST ");
+    private static final byte[] IGST = ascii("Tax \\(IGST ");
+    private static final byte[] TAX_CLOSE = ascii("\\): ");
+    private static final byte[] TOTAL = ascii("Total: ");
+    private static final byte[] FOOTER = ascii("BT /F1 9 Tf 50 30 Td (Page ");
+    private static final byte[] OF = ascii(" of ");
+
+    private InvoicePdfLayout() {
+    }
+
+    // -------------------------
+    // PAGINATION
+    // -------------------------
+
+    // Item boundaries per page: page p holds items [starts[p], starts[p + 1])
+    static int[] paginate(int itemCount) {
+
+        int firstCapacity = capacity(FIRST_TABLE_Y);
+        int nextCapacity = capacity(NEXT_TABLE_Y);
+
+        int pages = 1;
+        int lastRows = Math.min(itemCount, firstCapacity);
+        int remaining = itemCount - lastRows;
+
+        while (remaining > 0) {
+            pages++;
+            lastRows = Math.min(remaining, nextCapacity);
+            remaining -= lastRows;
+        }
+
+        // Totals go on an extra page when they don't fit under the last row
+        int lastTableY = pages == 1 ? FIRST_TABLE_Y : NEXT_TABLE_Y;
+        if (lastTableY - HEADER_GAP - lastRows * ROW_HEIGHT < TOTALS_MIN_Y) {
+            pages++;
+        }
+
+        int[] starts = new int[pages + 1];
+        for (int p = 0; p < pages; p++) {
+            int pageCapacity = p == 0 ? firstCapacity : nextCapacity;
+            starts[p + 1] = Math.min(itemCount, starts[p] + pageCapacity);
+        }
+        return starts;
+    }
+
+    private static int capacity(int tableY) {
+        return (tableY - HEADER_GAP - LOWEST_ROW_Y) / ROW_HEIGHT + 1;
+    }
+
+    // -------------------------
+    // PAGE CONTENT
+    // -------------------------
+    static void writePage(PdfBuffer buf, InvoicePdfDTO invoice,
+                          List<InvoicePdfDTO.Item> items,
+                          int from, int to, int page, int pageCount) {
+
+        int tableY;
+        if (page == 0) {
+            buf.append(TITLE);
+            buf.append(INVOICE_NO).appendText(invoice.getInvoiceNumber()).append(TJ_CLOSE);
+            buf.append(CUSTOMER).appendText(invoice.getCustomerName()).append(TJ_CLOSE);
+            buf.append(DUE_DATE);
+            if (invoice.getDueDate() != null) {
+                buf.appendAscii(invoice.getDueDate().toString());
+            }
+            buf.append(TJ_CLOSE);
+            buf.append(FIRST_TABLE_HEADER);
+            tableY = FIRST_TABLE_Y;
+        } else {
+            buf.append(CONTINUED).appendText(invoice.getInvoiceNumber()).append(CONTINUED_END);
+            buf.append(NEXT_TABLE_HEADER);
+            tableY = NEXT_TABLE_Y;
+        }
+
+        int y = tableY - HEADER_GAP;
+        for (int i = from; i < to; i++) {
+            InvoicePdfDTO.Item item = items.get(i);
+
+            cellStart(buf, CELL_F1, COLUMNS[0], y).appendText(item.getProductName()).append(TJ_CLOSE);
+            cellStart(buf, CELL_F1, COLUMNS[1], y)
+                    .appendInt(item.getQuantity() != null ? item.getQuantity() : 0).append(TJ_CLOSE);
+            cellStart(buf, CELL_F1, COLUMNS[2], y).appendAmount(item.getPriceMinor()).append(TJ_CLOSE);
+            cellStart(buf, CELL_F1, COLUMNS[3], y).appendAmount(item.getTotalMinor()).append(TJ_CLOSE);
+
+            y -= ROW_HEIGHT;
+        }
+
+        if (page == pageCount - 1) {
+            y -= 20;
+            cellStart(buf, CELL_F1, COLUMNS[0], y)
+                    .append(SUBTOTAL).appendAmount(invoice.getSubtotalMinor()).append(TJ_CLOSE);
+            cellStart(buf, CELL_F1, COLUMNS[0], y - 30);
+            if (invoice.getIgstMinor() != 0) {
+                buf.append(IGST).appendAmount(invoice.getIgstMinor());
+            } else {
+                buf.append(CGST).appendAmount(invoice.getCgstMinor())
+                        .append(SGST).appendAmount(invoice.getSgstMinor());
+            }
+            buf.append(TAX_CLOSE).appendAmount(invoice.getTaxMinor()).append(TJ_CLOSE);
+            cellStart(buf, CELL_F2, COLUMNS[0], y - 60)
+                    .append(TOTAL).appendAmount(invoice.getTotalAmountMinor()).append(TJ_CLOSE);
+        }
+
+        buf.append(FOOTER).appendInt(page + 1).append(OF).appendInt(pageCount).append(TJ_CLOSE);
+    }
+
+    private static PdfBuffer cellStart(PdfBuffer buf, byte[] font, int x, int y) {
+        return buf.append(font).appendInt(x).append(' ').appendInt(y).append(TD_OPEN);
+    }
+
+    private static byte[] tableHeader(int y) {
+        String[] labels = {"Product", "Qty", "Price", "Total"};
+        StringBuilder ops = new StringBuilder();
+        for (int i = 0; i < labels.length; i++) {
+            ops.append("BT /F2 12 Tf ").append(COLUMNS[i]).append(' ').append(y)
+                    .append(" Td (").append(labels[i]).append(") Tj ET\n");
+        }
+        int lineY = y - 8;
+        ops.append("0.5 w 50 ").append(lineY).append(" m 545 ").append(lineY).append(" l S\n");
+        return ascii(ops.toString());
+    }
+}
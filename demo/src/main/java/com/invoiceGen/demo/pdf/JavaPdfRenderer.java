@@ -0,0 +1,167 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import static com.invoiceGen.demo.pdf.PdfBuffer.ascii;
+
+// In-JVM renderer: writes PDF 1.4 straight to the output stream using the
+// standard Helvetica fonts, so nothing has to be embedded or loaded per invoice
+@Component
+public class JavaPdfRenderer implements PdfRenderer {
+
+    // Object numbers; pages start at 6 as (page, content) pairs
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT_REGULAR = 3;
+    private static final int FONT_BOLD = 4;
+    private static final int RESOURCES = 5;
+    private static final int FIRST_PAGE = 6;
+
+    // -------------------------
+    // SHARED OBJECTS (BUILT ONCE)
+    // -------------------------
+    private static final byte[] HEADER = ascii("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+
+    private static final byte[][] SHARED_OBJECTS = {
+            ascii(CATALOG + " 0 obj\n<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n"),
+            ascii(FONT_REGULAR + " 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica" +
+                    " /Encoding /WinAnsiEncoding >>\nendobj\n"),
+            ascii(FONT_BOLD + " 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold" +
+                    " /Encoding /WinAnsiEncoding >>\nendobj\n"),
+            ascii(RESOURCES + " 0 obj\n<< /Font << /F1 " + FONT_REGULAR + " 0 R /F2 " +
+                    FONT_BOLD + " 0 R >> >>\nendobj\n")
+    };
+    private static final int[] SHARED_NUMBERS = {CATALOG, FONT_REGULAR, FONT_BOLD, RESOURCES};
+
+    private static final byte[] PAGES_OPEN = ascii(PAGES + " 0 obj\n<< /Type /Pages /Count ");
+    private static final byte[] KIDS_OPEN = ascii(" /Kids [");
+    private static final byte[] REF = ascii(" 0 R");
+    private static final byte[] PAGES_CLOSE = ascii("] >>\nendobj\n");
+
+    private static final byte[] OBJ = ascii(" 0 obj\n");
+    private static final byte[] PAGE_OPEN = ascii("<< /Type /Page /Parent " + PAGES +
+            " 0 R /MediaBox [0 0 " + InvoicePdfLayout.PAGE_WIDTH + " " +
+            InvoicePdfLayout.PAGE_HEIGHT + "] /Resources " + RESOURCES + " 0 R /Contents ");
+    private static final byte[] PAGE_CLOSE = ascii(" 0 R >>\nendobj\n");
+    private static final byte[] STREAM_OPEN = ascii("<< /Length ");
+    private static final byte[] STREAM_START = ascii(" >>\nstream\n");
+    private static final byte[] STREAM_END = ascii("\nendstream\nendobj\n");
+
+    private static final byte[] XREF_OPEN = ascii("xref\n0 ");
+    private static final byte[] XREF_FREE = ascii("\n0000000000 65535 f \n");
+    private static final byte[] XREF_ENTRY_END = ascii(" 00000 n \n");
+    private static final byte[] TRAILER_OPEN = ascii("trailer\n<< /Size ");
+    private static final byte[] TRAILER_ROOT = ascii(" /Root " + CATALOG + " 0 R >>\nstartxref\n");
+    private static final byte[] EOF = ascii("\n%%EOF\n");
+
+    // Per-thread scratch buffers: one page of content + small object headers
+    private static final ThreadLocal<PdfBuffer[]> BUFFERS =
+            ThreadLocal.withInitial(() -> new PdfBuffer[]{new PdfBuffer(8192), new PdfBuffer(1024)});
+
+    // -------------------------
+    // RENDER
+    // -------------------------
+    @Override
+    public void render(InvoicePdfDTO invoice, OutputStream out) throws IOException {
+
+        List<InvoicePdfDTO.Item> items =
+                invoice.getItems() != null ? invoice.getItems() : List.of();
+
+        int[] pageStarts = InvoicePdfLayout.paginate(items.size());
+        int pageCount = pageStarts.length - 1;
+        int objectCount = FIRST_PAGE + pageCount * 2;
+
+        PdfBuffer content = BUFFERS.get()[0];
+        PdfBuffer scratch = BUFFERS.get()[1];
+
+        PositionStream pdf = new PositionStream(out);
+        long[] offsets = new long[objectCount];
+
+        pdf.write(HEADER);
+        for (int i = 0; i < SHARED_OBJECTS.length; i++) {
+            offsets[SHARED_NUMBERS[i]] = pdf.position;
+            pdf.write(SHARED_OBJECTS[i]);
+        }
+
+        offsets[PAGES] = pdf.position;
+        scratch.reset();
+        scratch.append(PAGES_OPEN).appendInt(pageCount).append(KIDS_OPEN);
+        for (int p = 0; p < pageCount; p++) {
+            scratch.append(' ').appendInt(pageObject(p)).append(REF);
+        }
+        scratch.append(PAGES_CLOSE);
+        write(pdf, scratch);
+
+        // One page in memory at a time
+        for (int p = 0; p < pageCount; p++) {
+
+            content.reset();
+            InvoicePdfLayout.writePage(content, invoice, items,
+                    pageStarts[p], pageStarts[p + 1], p, pageCount);
+
+            int pageObject = pageObject(p);
+
+            offsets[pageObject] = pdf.position;
+            scratch.reset();
+            scratch.appendInt(pageObject).append(OBJ).append(PAGE_OPEN)
+                    .appendInt(pageObject + 1).append(PAGE_CLOSE);
+            write(pdf, scratch);
+
+            offsets[pageObject + 1] = pdf.position;
+            scratch.reset();
+            scratch.appendInt(pageObject + 1).append(OBJ).append(STREAM_OPEN)
+                    .appendInt(content.size()).append(STREAM_START);
+            write(pdf, scratch);
+            write(pdf, content);
+            pdf.write(STREAM_END);
+        }
+
+        long xrefOffset = pdf.position;
+        scratch.reset();
+        scratch.append(XREF_OPEN).appendInt(objectCount).append(XREF_FREE);
+        for (int i = 1; i < objectCount; i++) {
+            scratch.appendPadded(offsets[i], 10).append(XREF_ENTRY_END);
+        }
+        scratch.append(TRAILER_OPEN).appendInt(objectCount).append(TRAILER_ROOT)
+                .appendInt(xrefOffset).append(EOF);
+        write(pdf, scratch);
+
+        pdf.flush();
+    }
+
+    private static int pageObject(int page) {
+        return FIRST_PAGE + page * 2;
+    }
+
+    private static void write(PositionStream pdf, PdfBuffer buf) throws IOException {
+        buf.writeTo(pdf);
+    }
+
+    // Tracks byte offsets for the xref table
+    private static final class PositionStream extends FilterOutputStream {
+
+        private long position;
+
+        PositionStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.invoiceGen.demo.pdf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Growable byte buffer for PDF content; reused across renders on the same thread
+final class PdfBuffer {
+
+    private byte[] bytes;
+    private int size;
+
+    PdfBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    PdfBuffer append(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+        return this;
+    }
+
+    PdfBuffer append(char c) {
+        ensure(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    PdfBuffer appendAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+
+    PdfBuffer appendInt(long value) {
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        if (value >= 10) {
+            appendInt(value / 10);
+        }
+        return append((char) ('0' + value % 10));
+    }
+
+    // Zero-padded to a fixed width, as the xref table requires
+    PdfBuffer appendPadded(long value, int width) {
+        ensure(width);
+        for (int i = width - 1; i >= 0; i--) {
+            bytes[size + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += width;
+        return this;
+    }
+
+    // Minor units printed as a two-decimal amount, without String.format
+    PdfBuffer appendAmount(long cents) {
+        if (cents < 0) {
+            append('-');
+            cents = -cents;
+        }
+        appendInt(cents / 100).append('.');
+        return appendPadded(cents % 100, 2);
+    }
+
+    // Body of a PDF literal string: WinAnsi (Latin-1) with escapes
+    PdfBuffer appendText(String value) {
+        if (value == null) {
+            return this;
+        }
+        ensure(value.length() * 2);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                bytes[size++] = '\\';
+                bytes[size++] = (byte) c;
+            } else if (c < 0x20 || c > 0xFF) {
+                bytes[size++] = '?';
+            } else {
+                bytes[size++] = (byte) c;
+            }
+        }
+        return this;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
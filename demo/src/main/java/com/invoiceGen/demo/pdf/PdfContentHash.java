@@ -0,0 +1,74 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Stable SHA-256 over everything that ends up on the page.
+// Fields are length-prefixed so adjacent values can't run together.
+public final class PdfContentHash {
+
+    // Bump when the layout changes so old renders aren't served
+    private static final String LAYOUT_VERSION = "invoice-v2";
+
+    private PdfContentHash() {
+    }
+
+    public static String of(InvoicePdfDTO invoice) {
+
+        MessageDigest digest = sha256();
+
+        update(digest, LAYOUT_VERSION);
+        update(digest, invoice.getInvoiceNumber());
+        update(digest, invoice.getCustomerName());
+        update(digest, invoice.getDueDate() != null ? invoice.getDueDate().toString() : null);
+        update(digest, invoice.getSubtotalMinor());
+        update(digest, invoice.getCgstMinor());
+        update(digest, invoice.getSgstMinor());
+        update(digest, invoice.getIgstMinor());
+        update(digest, invoice.getTaxMinor());
+        update(digest, invoice.getTotalAmountMinor());
+
+        List<InvoicePdfDTO.Item> items =
+                invoice.getItems() != null ? invoice.getItems() : List.of();
+        update(digest, String.valueOf(items.size()));
+        for (InvoicePdfDTO.Item item : items) {
+            update(digest, item.getProductName());
+            update(digest, item.getQuantity() != null ? item.getQuantity().toString() : null);
+            update(digest, item.getPriceMinor());
+            update(digest, item.getTotalMinor());
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, long minor) {
+        update(digest, Long.toString(minor));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
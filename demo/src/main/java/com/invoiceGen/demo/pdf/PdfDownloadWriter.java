@@ -0,0 +1,226 @@
+package com.invoiceGen.demo.pdf;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+// Streams a cached PDF file with ETag / Range support.
+// On Tomcat the bytes go out via sendfile, otherwise via FileChannel.transferTo.
+@Component
+public class PdfDownloadWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final String cacheControl;
+
+    public PdfDownloadWriter(@Value("${pdf.download.max-age-seconds:3600}") long maxAgeSeconds) {
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+                .cachePrivate()
+                .mustRevalidate()
+                .getHeaderValue();
+    }
+
+    // -------------------------
+    // CONDITIONAL GET
+    // -------------------------
+
+    // Answers 304 when the client already has this content; needs no file access
+    public boolean notModified(HttpServletRequest request, HttpServletResponse response, String hash) {
+
+        String etag = etag(hash);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    // -------------------------
+    // FULL / PARTIAL CONTENT
+    // -------------------------
+
+    // Throws NoSuchFileException, before anything is committed, when the
+    // file has gone since it was looked up
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      String hash, Path file, String fileName) throws IOException {
+
+        if (notModified(request, response, hash)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long[] slice = prepare(request, response, hash, channel.size(), fileName);
+            if (slice == null) {
+                return;
+            }
+            long start = slice[0];
+            long count = slice[1] - start;
+
+            // Tomcat sends the file itself (kernel sendfile) after the handler returns
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + count);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long sent = channel.transferTo(position, count, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    // Same response from bytes in memory, for when the file is not there
+    public void write(HttpServletRequest request, HttpServletResponse response,
+                      String hash, byte[] bytes, String fileName) throws IOException {
+
+        if (notModified(request, response, hash)) {
+            return;
+        }
+
+        long[] slice = prepare(request, response, hash, bytes.length, fileName);
+        if (slice == null) {
+            return;
+        }
+        response.getOutputStream().write(bytes, (int) slice[0], (int) (slice[1] - slice[0]));
+    }
+
+    // Sets status and headers; returns the {start, end exclusive} slice to
+    // send, or null when the response is already complete
+    private long[] prepare(HttpServletRequest request, HttpServletResponse response,
+                           String hash, long length, String fileName) {
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+
+        // If-Range: only honour the range when the client's copy is current
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+        if (range != null && (ifRange == null || ifRange.equals(etag(hash)))) {
+            long[] bounds = parseRange(range, length);
+
+            if (bounds == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return null;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                partial = true;
+            }
+        }
+
+        long count = end - start + 1;
+
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "inline; filename=\"" + fileName + "\"");
+        response.setContentLengthLong(count);
+
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return null;
+        }
+        return new long[]{start, start + count};
+    }
+
+    // -------------------------
+    // HELPERS
+    // -------------------------
+    private static String etag(String hash) {
+        return "\"" + hash + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Single byte range -> {start, end}; null means "ignore and send everything"
+    private static long[] parseRange(String header, long length) {
+
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (spec.contains(",") || dash < 0) {
+            return null; // multi-range is rare for PDFs; a full 200 is valid
+        }
+
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1
+                    ? length - 1
+                    : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+
+            if (start >= length || start > end) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, end};
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
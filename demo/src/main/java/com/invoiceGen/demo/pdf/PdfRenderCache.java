@@ -0,0 +1,365 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Content-addressed PDF cache: memory LRU in front of a size-bounded disk tier.
+// Keys are PdfContentHash values, so identical content is rendered once.
+@Component
+public class PdfRenderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfRenderCache.class);
+
+    private final Path dir;
+    private final long memoryMaxBytes;
+    private final long diskMaxBytes;
+    private final long deleteGraceNanos;
+
+    // Access-ordered maps give LRU iteration order; guarded by their own monitors
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskBytes;
+
+    // Evicted files stay on disk for a grace period, since a path handed out
+    // by getFile() may still be opened (by us, or by Tomcat's sendfile after
+    // the handler returns). Hash -> delete-after nanoTime, guarded by disk.
+    private final LinkedHashMap<String, Long> evicted = new LinkedHashMap<>();
+
+    // Concurrent requests for the same content share one render
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder();
+    private final LongAdder diskEvictions = new LongAdder();
+
+    public PdfRenderCache(@Value("${pdf.cache.dir:pdf-cache}") String dir,
+                          @Value("${pdf.cache.memory-max-bytes:67108864}") long memoryMaxBytes,
+                          @Value("${pdf.cache.disk-max-bytes:1073741824}") long diskMaxBytes,
+                          @Value("${pdf.cache.delete-grace-ms:60000}") long deleteGraceMs) {
+        this.dir = Path.of(dir);
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.diskMaxBytes = diskMaxBytes;
+        this.deleteGraceNanos = deleteGraceMs * 1_000_000L;
+    }
+
+    public record Stats(long memoryHits, long diskHits, long misses, double hitRatio,
+                        long memoryEvictions, long diskEvictions,
+                        long memoryBytes, long diskBytes) {
+    }
+
+    // -------------------------
+    // DISK INDEX (STARTUP)
+    // -------------------------
+    @PostConstruct
+    public void loadDiskIndex() throws IOException {
+
+        Files.createDirectories(dir);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.toList();
+        }
+
+        // Oldest first, so the LRU order survives a restart
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(".pdf"))
+                .sorted(Comparator.comparing(PdfRenderCache::lastModified))
+                .forEach(file -> {
+                    String name = file.getFileName().toString();
+                    long size = size(file);
+                    synchronized (disk) {
+                        disk.put(name.substring(0, name.length() - 4), size);
+                        diskBytes += size;
+                    }
+                });
+
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(".tmp"))
+                .forEach(PdfRenderCache::deleteQuietly);
+
+        evictDisk();
+        logger.info("PDF cache loaded {} files ({} bytes) from {}", disk.size(), diskBytes, dir);
+    }
+
+    // -------------------------
+    // LOOKUP
+    // -------------------------
+    public byte[] get(String hash) {
+
+        byte[] bytes;
+        synchronized (memory) {
+            bytes = memory.get(hash);
+        }
+        if (bytes != null) {
+            memoryHits.increment();
+            return bytes;
+        }
+
+        bytes = readDisk(hash);
+        if (bytes != null) {
+            diskHits.increment();
+            putMemory(hash, bytes);
+        }
+        return bytes;
+    }
+
+    public byte[] getOrRender(String hash, InvoicePdfDTO invoice, PdfRenderer renderer)
+            throws IOException {
+
+        byte[] cached = get(hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<byte[]> render = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(hash, render);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Another thread may have finished between get() and putIfAbsent()
+            byte[] bytes = get(hash);
+            if (bytes == null) {
+                misses.increment();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+                renderer.render(invoice, out);
+                bytes = out.toByteArray();
+                writeDisk(hash, bytes);
+                putMemory(hash, bytes);
+            }
+            render.complete(bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, render);
+        }
+    }
+
+    // Disk file for zero-copy serving, or null when not on disk. The file
+    // can still vanish before it is opened (deleted outside the cache, or
+    // opened after the grace period); callers fall back to get().
+    public Path getFile(String hash) {
+        synchronized (disk) {
+            if (disk.get(hash) == null) {
+                return null;
+            }
+        }
+        diskHits.increment();
+        return file(hash);
+    }
+
+    public Path getOrRenderFile(String hash, InvoicePdfDTO invoice, PdfRenderer renderer)
+            throws IOException {
+
+        Path file = getFile(hash);
+        if (file != null) {
+            return file;
+        }
+
+        byte[] bytes = getOrRender(hash, invoice, renderer);
+
+        // A memory-tier hit may have outlived its disk copy
+        synchronized (disk) {
+            if (disk.get(hash) != null) {
+                return file(hash);
+            }
+        }
+        writeDisk(hash, bytes);
+        return file(hash);
+    }
+
+    public Stats stats() {
+        long memory = memoryHits.sum();
+        long diskTier = diskHits.sum();
+        long missed = misses.sum();
+        long total = memory + diskTier + missed;
+        synchronized (this.memory) {
+            synchronized (disk) {
+                return new Stats(memory, diskTier, missed,
+                        total == 0 ? 0.0 : (double) (memory + diskTier) / total,
+                        memoryEvictions.sum(), diskEvictions.sum(),
+                        memoryBytes, diskBytes);
+            }
+        }
+    }
+
+    // -------------------------
+    // MEMORY TIER
+    // -------------------------
+    private void putMemory(String hash, byte[] bytes) {
+
+        // One oversized document shouldn't flush the whole tier
+        if (bytes.length > memoryMaxBytes / 4) {
+            return;
+        }
+
+        synchronized (memory) {
+            byte[] previous = memory.put(hash, bytes);
+            memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+
+            Iterator<Map.Entry<String, byte[]>> lru = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && lru.hasNext()) {
+                memoryBytes -= lru.next().getValue().length;
+                lru.remove();
+                memoryEvictions.increment();
+            }
+        }
+    }
+
+    // -------------------------
+    // DISK TIER
+    // -------------------------
+    private byte[] readDisk(String hash) {
+
+        synchronized (disk) {
+            if (disk.get(hash) == null) {
+                return null;
+            }
+        }
+
+        try {
+            return Files.readAllBytes(file(hash));
+        } catch (IOException e) {
+            // Deleted underneath us; forget it
+            synchronized (disk) {
+                Long size = disk.remove(hash);
+                if (size != null) {
+                    diskBytes -= size;
+                }
+            }
+            return null;
+        }
+    }
+
+    private void writeDisk(String hash, byte[] bytes) {
+
+        Path target = file(hash);
+        Path tmp = null;
+
+        try {
+            // One temp file per writer: concurrent writes of the same hash
+            // (getOrRenderFile runs outside the in-flight de-duplication)
+            // must not share one
+            tmp = Files.createTempFile(dir, hash, ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same hash, same content: another writer got there first
+            deleteQuietly(tmp);
+        } catch (IOException e) {
+            if (tmp != null) {
+                deleteQuietly(tmp);
+            }
+            throw new UncheckedIOException("Failed to write cached PDF", e);
+        }
+
+        synchronized (disk) {
+            Long previous = disk.put(hash, (long) bytes.length);
+            diskBytes += bytes.length - (previous != null ? previous : 0);
+            evicted.remove(hash);
+        }
+        evictDisk();
+    }
+
+    private void evictDisk() {
+        synchronized (disk) {
+            long now = System.nanoTime();
+
+            Iterator<Map.Entry<String, Long>> lru = disk.entrySet().iterator();
+            while (diskBytes > diskMaxBytes && lru.hasNext()) {
+                Map.Entry<String, Long> eldest = lru.next();
+                diskBytes -= eldest.getValue();
+                lru.remove();
+                evicted.remove(eldest.getKey());
+                evicted.put(eldest.getKey(), now + deleteGraceNanos);
+                diskEvictions.increment();
+            }
+
+            // Oldest evictions first; a hash written again since is kept
+            Iterator<Map.Entry<String, Long>> due = evicted.entrySet().iterator();
+            while (due.hasNext()) {
+                Map.Entry<String, Long> entry = due.next();
+                if (entry.getValue() - now > 0) {
+                    break;
+                }
+                if (!disk.containsKey(entry.getKey())) {
+                    deleteQuietly(file(entry.getKey()));
+                }
+                due.remove();
+            }
+        }
+    }
+
+    private Path file(String hash) {
+        return dir.resolve(hash + ".pdf");
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> render) throws IOException {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
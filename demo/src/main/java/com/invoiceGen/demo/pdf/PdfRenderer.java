@@ -0,0 +1,12 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PdfRenderer {
+
+    // Writes a complete PDF document; the caller owns (and closes) the stream
+    void render(InvoicePdfDTO invoice, OutputStream out) throws IOException;
+}
@@ -0,0 +1,56 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.util.PdfRequest;
+import com.invoiceGen.demo.util.PdfResponse;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Fallback: the Flask/ReportLab service renders, then we copy its file
+@Component
+public class PythonPdfRenderer implements PdfRenderer {
+
+    private static final String PYTHON_PDF_URL =
+            "http://localhost:5000/generate-invoice";
+
+    private final RestTemplate restTemplate;
+
+    public PythonPdfRenderer(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public void render(InvoicePdfDTO invoice, OutputStream out) throws IOException {
+
+        PdfRequest payload = new PdfRequest(invoice.getInvoiceId());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpEntity<PdfRequest> requestEntity =
+                new HttpEntity<>(payload, headers);
+
+        PdfResponse response = restTemplate.postForObject(
+                PYTHON_PDF_URL,
+                requestEntity,
+                PdfResponse.class
+        );
+
+        if (response == null || response.getPdfUrl() == null) {
+            throw new RuntimeException("Failed to generate invoice PDF");
+        }
+
+        byte[] pdf = restTemplate.getForObject(response.getPdfUrl(), byte[].class);
+        if (pdf == null) {
+            throw new RuntimeException("Failed to download invoice PDF");
+        }
+
+        out.write(pdf);
+    }
+}
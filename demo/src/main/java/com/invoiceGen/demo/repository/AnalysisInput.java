@@ -0,0 +1,22 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Scalar projection of the invoice fields an AI risk analysis is built from
+public interface AnalysisInput {
+    Long getId();
+    Long getUserId();
+    long getTotalAmountMinor();
+    LocalDate getDueDate();
+    LocalDateTime getCreatedAt();
+    String getCustomerName();
+    InvoiceStatus getStatus();
+
+    // The customer's CustomerPaymentStats; null while it has none
+    Long getPaidCount();
+    Long getPaidLateCount();
+    Long getOverdueCount();
+}
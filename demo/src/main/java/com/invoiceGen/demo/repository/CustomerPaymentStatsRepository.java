@@ -0,0 +1,8 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.CustomerPaymentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CustomerPaymentStatsRepository
+        extends JpaRepository<CustomerPaymentStats, CustomerPaymentStats.Key> {
+}
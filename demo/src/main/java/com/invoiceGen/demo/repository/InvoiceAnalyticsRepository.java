@@ -0,0 +1,32 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.InvoiceAnalytics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface InvoiceAnalyticsRepository extends JpaRepository<InvoiceAnalytics, Long> {
+
+    @Query("select a from InvoiceAnalytics a where a.invoice.id = :invoiceId")
+    Optional<InvoiceAnalytics> findByInvoiceId(@Param("invoiceId") Long invoiceId);
+
+    @Query("select a from InvoiceAnalytics a where a.invoice.id in :invoiceIds")
+    List<InvoiceAnalytics> findByInvoiceIds(@Param("invoiceIds") Collection<Long> invoiceIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from InvoiceAnalytics a where a.invoice.id = :invoiceId")
+    int deleteByInvoiceId(@Param("invoiceId") Long invoiceId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from InvoiceAnalytics a where a.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+
+import java.time.LocalDate;
+
+// Optional filters of the invoice listing; null means "any"
+public record InvoiceListFilter(InvoiceStatus status,
+                                LocalDate dueFrom,
+                                LocalDate dueTo,
+                                String customerPrefix) {
+
+    // A range filter only reads an index in that index's own order, so the
+    // filters decide the order, each served by one index without a sort:
+    // customer prefix by idx_invoice_user_customer, due range by
+    // idx_invoice_user_due, otherwise newest first (by status or not).
+    // Any other filter set alongside is checked row by row on that index.
+    public enum Order {
+        CREATED_DESC("createdAt,desc"),
+        DUE_DATE_ASC("dueDate,asc"),
+        CUSTOMER_ASC("customerName,asc");
+
+        private final String sort;
+
+        Order(String sort) {
+            this.sort = sort;
+        }
+
+        public String sort() {
+            return sort;
+        }
+    }
+
+    public Order order() {
+        if (customerPrefix != null) {
+            return Order.CUSTOMER_ASC;
+        }
+        if (dueFrom != null || dueTo != null) {
+            return Order.DUE_DATE_ASC;
+        }
+        return Order.CREATED_DESC;
+    }
+}
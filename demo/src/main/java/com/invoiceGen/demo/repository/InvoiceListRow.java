@@ -0,0 +1,8 @@
+package com.invoiceGen.demo.repository;
+
+import java.time.LocalDate;
+
+// Listing row: the summary plus the due date, which orders filtered pages
+public interface InvoiceListRow extends InvoiceSummary {
+    LocalDate getDueDate();
+}
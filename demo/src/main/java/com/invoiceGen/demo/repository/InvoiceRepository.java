@@ -1,12 +1,82 @@
 package com.invoiceGen.demo.repository;
 
 import com.invoiceGen.demo.entity.Invoice;
-import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface InvoiceRepository extends JpaRepository<Invoice,Integer> {
-    List<Invoice> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+public interface InvoiceRepository extends JpaRepository<Invoice,Integer>, InvoiceRepositoryCustom {
+    // Six columns straight off idx_invoice_user_created; nothing else is loaded
+    @Query("select i.id as id, i.invoiceNumber as invoiceNumber, " +
+            "i.customerName as customerName, i.totalAmountMinor as totalAmountMinor, " +
+            "i.status as status, i.createdAt as createdAt " +
+            "from Invoice i where i.user.id = :userId " +
+            "order by i.createdAt desc, i.id desc")
+    List<InvoiceSummary> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Every invoice of a tenant, oldest first, to build its search index
+    @Query("select i.id as id, i.invoiceNumber as invoiceNumber, " +
+            "i.customerName as customerName, i.totalAmountMinor as totalAmountMinor, " +
+            "i.status as status, i.createdAt as createdAt " +
+            "from Invoice i where i.user.id = :userId order by i.id")
+    List<InvoiceSummary> findAllSummariesByUserId(@Param("userId") Long userId);
+
+    // Open invoices of all tenants, tenant by tenant, for batch risk scoring.
+    // Keyset on (user_id, id) so a run can resume from its checkpoint.
+    // The customer's payment history comes along in the same row.
+    @Query("select i.id as id, i.user.id as userId, i.totalAmountMinor as totalAmountMinor, " +
+            "i.dueDate as dueDate, i.createdAt as createdAt, " +
+            "i.customerName as customerName, i.status as status, " +
+            "s.paidCount as paidCount, s.paidLateCount as paidLateCount, " +
+            "s.overdueCount as overdueCount " +
+            "from Invoice i left join CustomerPaymentStats s " +
+            "on s.userId = i.user.id and s.customerName = coalesce(i.customerName, '') " +
+            "where i.status in :statuses " +
+            "and (i.user.id > :afterUserId or (i.user.id = :afterUserId and i.id > :afterId)) " +
+            "order by i.user.id, i.id")
+    List<AnalysisInput> findOpenAfter(@Param("statuses") Collection<InvoiceStatus> statuses,
+                                      @Param("afterUserId") Long afterUserId,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    // Header, items and their products in one statement (items are lazy).
+    // The owner is fetched too: it is also every product's (eager) user.
+    @Query("select distinct i from Invoice i join fetch i.user " +
+            "left join fetch i.items it left join fetch it.product " +
+            "where i.id = :id")
+    Optional<Invoice> findWithItemsById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Invoice i set i.status = :status, i.paidAt = :paidAt " +
+            "where i.id = :id and i.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") InvoiceStatus expected,
+                            @Param("status") InvoiceStatus status,
+                            @Param("paidAt") LocalDateTime paidAt);
+
+    @Modifying
+    @Query("update Invoice i set i.pdfStatus = :pdfStatus " +
+            "where i.id = :id and i.pdfStatus = :expected")
+    int compareAndSetPdfStatus(@Param("id") Long id,
+                               @Param("expected") PdfStatus expected,
+                               @Param("pdfStatus") PdfStatus pdfStatus);
+
+    @Transactional
+    @Modifying
+    @Query("update Invoice i set i.pdfUrl = :pdfUrl, i.pdfHash = :pdfHash, " +
+            "i.pdfStatus = :pdfStatus where i.id = :id")
+    int updatePdf(@Param("id") Long id,
+                  @Param("pdfUrl") String pdfUrl,
+                  @Param("pdfHash") String pdfHash,
+                  @Param("pdfStatus") PdfStatus pdfStatus);
 }
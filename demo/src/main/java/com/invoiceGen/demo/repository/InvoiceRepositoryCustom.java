@@ -0,0 +1,20 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.util.InvoiceCursor;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InvoiceRepositoryCustom {
+
+    // Keyset page in filter.order(): (createdAt, id) descending, or
+    // (dueDate, id) / (customerName, id) ascending. Rows strictly after the
+    // cursor in that order; null for the first page.
+    List<InvoiceListRow> findPage(Long userId, InvoiceListFilter filter,
+                                  InvoiceCursor after, int limit);
+
+    // PDF data of the given invoices, ordered by id, from one flat statement
+    // over invoice, item and product columns. Unknown ids are left out.
+    List<InvoicePdfDTO> findPdfData(Collection<Long> invoiceIds);
+}
@@ -0,0 +1,189 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.util.InvoiceCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Only the predicates that are actually set go into the statement, so MySQL
+// can pick the matching composite index instead of evaluating
+// "(:x is null or ...)" for every row. The order follows the filters (see
+// InvoiceListFilter.Order) so that index also returns the rows in order and
+// a deep page reads limit rows, not every match before it plus a sort.
+public class InvoiceRepositoryCustomImpl implements InvoiceRepositoryCustom {
+
+    private record Row(Long id, String invoiceNumber, String customerName,
+                       long totalAmountMinor, InvoiceStatus status,
+                       LocalDateTime createdAt, LocalDate dueDate) implements InvoiceListRow {
+
+        @Override public Long getId() { return id; }
+        @Override public String getInvoiceNumber() { return invoiceNumber; }
+        @Override public String getCustomerName() { return customerName; }
+        @Override public long getTotalAmountMinor() { return totalAmountMinor; }
+        @Override public InvoiceStatus getStatus() { return status; }
+        @Override public LocalDateTime getCreatedAt() { return createdAt; }
+        @Override public LocalDate getDueDate() { return dueDate; }
+    }
+
+    private final EntityManager entityManager;
+
+    public InvoiceRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<InvoiceListRow> findPage(Long userId, InvoiceListFilter filter,
+                                         InvoiceCursor after, int limit) {
+
+        InvoiceListFilter.Order order = filter.order();
+
+        StringBuilder jpql = new StringBuilder(
+                "select i.id as id, i.invoiceNumber as invoiceNumber, " +
+                "i.customerName as customerName, i.totalAmountMinor as totalAmountMinor, " +
+                "i.status as status, i.createdAt as createdAt, i.dueDate as dueDate " +
+                "from Invoice i where i.user.id = :userId");
+
+        if (filter.status() != null) {
+            jpql.append(" and i.status = :status");
+        }
+        if (filter.dueFrom() != null) {
+            jpql.append(" and i.dueDate >= :dueFrom");
+        }
+        if (filter.dueTo() != null) {
+            jpql.append(" and i.dueDate <= :dueTo");
+        }
+        if (filter.customerPrefix() != null) {
+            jpql.append(" and i.customerName like :customerPrefix escape '!'");
+        }
+        switch (order) {
+            case CREATED_DESC -> {
+                if (after != null) {
+                    jpql.append(" and (i.createdAt < :afterKey" +
+                            " or (i.createdAt = :afterKey and i.id < :afterId))");
+                }
+                jpql.append(" order by i.createdAt desc, i.id desc");
+            }
+            case DUE_DATE_ASC -> {
+                if (after != null) {
+                    jpql.append(" and (i.dueDate > :afterKey" +
+                            " or (i.dueDate = :afterKey and i.id > :afterId))");
+                }
+                jpql.append(" order by i.dueDate, i.id");
+            }
+            case CUSTOMER_ASC -> {
+                if (after != null) {
+                    jpql.append(" and (i.customerName > :afterKey" +
+                            " or (i.customerName = :afterKey and i.id > :afterId))");
+                }
+                jpql.append(" order by i.customerName, i.id");
+            }
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+
+        if (filter.status() != null) {
+            query.setParameter("status", filter.status());
+        }
+        if (filter.dueFrom() != null) {
+            query.setParameter("dueFrom", filter.dueFrom());
+        }
+        if (filter.dueTo() != null) {
+            query.setParameter("dueTo", filter.dueTo());
+        }
+        if (filter.customerPrefix() != null) {
+            query.setParameter("customerPrefix", escapeLike(filter.customerPrefix()) + "%");
+        }
+        if (after != null) {
+            query.setParameter("afterKey", switch (order) {
+                case CREATED_DESC -> after.createdAt();
+                case DUE_DATE_ASC -> after.dueDate();
+                case CUSTOMER_ASC -> after.key();
+            });
+            query.setParameter("afterId", after.id());
+        }
+
+        List<Tuple> tuples = query.getResultList();
+        List<InvoiceListRow> rows = new ArrayList<>(tuples.size());
+        for (Tuple t : tuples) {
+            rows.add(new Row(
+                    t.get("id", Long.class),
+                    t.get("invoiceNumber", String.class),
+                    t.get("customerName", String.class),
+                    t.get("totalAmountMinor", Long.class),
+                    t.get("status", InvoiceStatus.class),
+                    t.get("createdAt", LocalDateTime.class),
+                    t.get("dueDate", LocalDate.class)));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<InvoicePdfDTO> findPdfData(Collection<Long> invoiceIds) {
+
+        if (invoiceIds.isEmpty()) {
+            return List.of();
+        }
+
+        // One row per item (one with null item columns for an empty invoice);
+        // the header columns repeat and are read once per invoice
+        List<Tuple> tuples = entityManager.createQuery(
+                        "select i.id as id, i.invoiceNumber as invoiceNumber, " +
+                        "i.customerName as customerName, i.dueDate as dueDate, " +
+                        "i.subtotalMinor as subtotalMinor, i.cgstMinor as cgstMinor, " +
+                        "i.sgstMinor as sgstMinor, i.igstMinor as igstMinor, " +
+                        "i.taxMinor as taxMinor, i.totalAmountMinor as totalAmountMinor, " +
+                        "it.id as itemId, p.name as productName, it.quantity as quantity, " +
+                        "it.priceMinor as priceMinor, it.totalMinor as totalMinor " +
+                        "from Invoice i left join i.items it left join it.product p " +
+                        "where i.id in :ids order by i.id, it.id", Tuple.class)
+                .setParameter("ids", invoiceIds)
+                .getResultList();
+
+        List<InvoicePdfDTO> invoices = new ArrayList<>();
+        InvoicePdfDTO current = null;
+
+        for (Tuple t : tuples) {
+            Long id = t.get("id", Long.class);
+            if (current == null || !current.getInvoiceId().equals(id)) {
+                current = new InvoicePdfDTO();
+                current.setInvoiceId(id);
+                current.setInvoiceNumber(t.get("invoiceNumber", String.class));
+                current.setCustomerName(t.get("customerName", String.class));
+                current.setDueDate(t.get("dueDate", LocalDate.class));
+                current.setSubtotalMinor(t.get("subtotalMinor", Long.class));
+                current.setCgstMinor(t.get("cgstMinor", Long.class));
+                current.setSgstMinor(t.get("sgstMinor", Long.class));
+                current.setIgstMinor(t.get("igstMinor", Long.class));
+                current.setTaxMinor(t.get("taxMinor", Long.class));
+                current.setTotalAmountMinor(t.get("totalAmountMinor", Long.class));
+                current.setItems(new ArrayList<>());
+                invoices.add(current);
+            }
+
+            if (t.get("itemId", Long.class) != null) {
+                InvoicePdfDTO.Item item = new InvoicePdfDTO.Item();
+                item.setProductName(t.get("productName", String.class));
+                item.setQuantity(t.get("quantity", Integer.class));
+                item.setPriceMinor(t.get("priceMinor", Long.class));
+                item.setTotalMinor(t.get("totalMinor", Long.class));
+                current.getItems().add(item);
+            }
+        }
+        return invoices;
+    }
+
+    // '!' rather than backslash: MySQL treats '\' inside literals as an escape
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
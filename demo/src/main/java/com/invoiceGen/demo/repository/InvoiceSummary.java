@@ -0,0 +1,15 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+
+import java.time.LocalDateTime;
+
+// Scalar projection for invoice lists: no entity, no items, no products
+public interface InvoiceSummary {
+    Long getId();
+    String getInvoiceNumber();
+    String getCustomerName();
+    long getTotalAmountMinor();
+    InvoiceStatus getStatus();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,35 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.PdfRenderTask;
+import com.invoiceGen.demo.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PdfRenderTaskRepository extends JpaRepository<PdfRenderTask, Long> {
+
+    List<PdfRenderTask> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            OutboxStatus status, LocalDateTime now, Pageable pageable);
+
+    // Conditional update so only one worker can own a task
+    @Modifying
+    @Query("update PdfRenderTask t set t.status = com.invoiceGen.demo.enums.OutboxStatus.IN_PROGRESS, " +
+            "t.lockedAt = :now where t.id = :id and t.status = com.invoiceGen.demo.enums.OutboxStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update PdfRenderTask t set t.status = com.invoiceGen.demo.enums.OutboxStatus.PENDING, " +
+            "t.lockedAt = null where t.status = com.invoiceGen.demo.enums.OutboxStatus.IN_PROGRESS " +
+            "and t.lockedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from PdfRenderTask t where t.invoiceId = :invoiceId " +
+            "and t.status = com.invoiceGen.demo.enums.OutboxStatus.FAILED")
+    int deleteFailed(@Param("invoiceId") Long invoiceId);
+}
@@ -4,9 +4,17 @@ import com.invoiceGen.demo.entity.Product;
 import com.invoiceGen.demo.entity.User;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product,Integer> {
     @Nullable List<Product> findByUser(User user);
+
+    // Loads and ownership-checks every product of an invoice in one query
+    @Query("select p from Product p where p.id in :ids and p.user.id = :userId")
+    List<Product> findOwnedByIds(@Param("ids") Collection<Long> ids,
+                                 @Param("userId") Long userId);
 }
@@ -0,0 +1,11 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollup.Key> {
+
+    List<RevenueRollup> findByUserIdOrderByRollupDate(Long userId);
+}
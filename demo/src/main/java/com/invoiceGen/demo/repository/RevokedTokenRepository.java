@@ -0,0 +1,22 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    @Query("select t.tokenId from RevokedToken t where t.expiresAt > :now")
+    List<Long> findActiveTokenIds(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
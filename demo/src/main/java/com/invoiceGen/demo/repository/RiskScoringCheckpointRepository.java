@@ -0,0 +1,30 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.entity.RiskScoringCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface RiskScoringCheckpointRepository extends JpaRepository<RiskScoringCheckpoint, String> {
+
+    // Takes a free or expired lease, or extends one the owner already holds
+    @Transactional
+    @Modifying
+    @Query("update RiskScoringCheckpoint c set c.owner = :owner, c.leaseUntil = :leaseUntil " +
+            "where c.jobName = :jobName " +
+            "and (c.owner is null or c.owner = :owner or c.leaseUntil < :now)")
+    int claim(@Param("jobName") String jobName,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update RiskScoringCheckpoint c set c.owner = null, c.leaseUntil = null " +
+            "where c.jobName = :jobName and c.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner);
+}
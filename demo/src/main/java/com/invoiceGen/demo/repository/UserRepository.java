@@ -1,8 +1,15 @@
 package com.invoiceGen.demo.repository;
 
 import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User,Integer> {
@@ -12,4 +19,18 @@ public interface UserRepository extends JpaRepository<User,Integer> {
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    // Which of a bulk request's emails are already taken, in one query
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.role = :role where u.email in :emails and u.role <> :role")
+    int updateRoleByEmails(@Param("emails") Collection<String> emails, @Param("role") UserRole role);
 }
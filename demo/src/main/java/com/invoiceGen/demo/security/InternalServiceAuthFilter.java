@@ -0,0 +1,64 @@
+package com.invoiceGen.demo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+// Authenticates the PDF service on /api/invoices/internal/** by a shared
+// secret header. Without a configured token nothing is authenticated, so
+// the internal endpoints stay closed.
+@Component
+public class InternalServiceAuthFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Internal-Token";
+    public static final String ROLE = "INTERNAL_SERVICE";
+
+    private static final String INTERNAL_PATH = "/api/invoices/internal/";
+
+    private final byte[] token;
+
+    public InternalServiceAuthFilter(@Value("${internal.service.token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + INTERNAL_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String presented = request.getHeader(HEADER);
+
+        // Constant-time compare: no timing hint about the secret
+        if (token.length > 0 && presented != null
+                && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            "pdf-service",
+                            null,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))
+                    );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
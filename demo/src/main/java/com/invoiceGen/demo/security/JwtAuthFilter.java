@@ -2,8 +2,10 @@ package com.invoiceGen.demo.security;
 
 
 import com.invoiceGen.demo.entity.User;
-import com.invoiceGen.demo.repository.UserRepository;
+import com.invoiceGen.demo.service.TokenRevocationService;
 import com.invoiceGen.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,11 +22,15 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthFilter(JwtUtil jwtUtil,
+                         PrincipalCache principalCache,
+                         TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -40,15 +46,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
+        // One verification per request (and one per token per cache TTL);
+        // controllers read the principal from the SecurityContext
+        Claims claims;
+        try {
+            claims = jwtUtil.verify(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Logged-out or compromised token: O(1) primitive-set probe
+        if (tokenRevocationService.isRevoked(jwtUtil.extractTokenId(claims))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
+        String email = claims.getSubject();
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            User user = userRepository.findByEmail(email)
-                    .orElse(null);
+            // No database access while the principal is cached
+            User user = principalCache.resolve(jwtUtil.extractUserId(claims), email);
 
-            if (user != null && jwtUtil.validateToken(token, user.getEmail())) {
+            if (user != null) {
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,114 @@
+package com.invoiceGen.demo.security;
+
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.UserRole;
+import com.invoiceGen.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Resolves the authenticated tenant from a verified token without touching
+// the users table on the hot path. Entries hold only id, email and role
+// (authorities derive from the role) and are dropped on TTL, on size
+// pressure and whenever the user row changes (see UserChangeListener).
+@Component
+public class PrincipalCache {
+
+    public record Stats(long size, long hits, long misses, long evictions) {
+    }
+
+    private record Entry(Long userId, String email, UserRole role, long loadedAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${auth.principal-cache.ttl-ms:300000}") long ttlMs,
+                          @Value("${auth.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    // -------------------------
+    // RESOLVE
+    // -------------------------
+
+    // userId comes from the token's uid claim; tokens issued before the
+    // claim existed fall back to the email lookup. Returns null when the
+    // user is gone or no longer owns the token's email.
+    public User resolve(Long userId, String email) {
+
+        long now = System.currentTimeMillis();
+
+        if (userId != null) {
+            Entry entry = entries.get(userId);
+            if (entry != null && now - entry.loadedAt() < ttlMs && entry.email().equals(email)) {
+                hits.increment();
+                return toUser(entry);
+            }
+        }
+        misses.increment();
+
+        Optional<User> loaded = userId != null
+                ? userRepository.findById(userId.intValue())
+                : userRepository.findByEmail(email);
+
+        User user = loaded.orElse(null);
+        if (user == null || !email.equals(user.getEmail())) {
+            return null;
+        }
+
+        Entry entry = new Entry(user.getId(), user.getEmail(), user.getRole(), now);
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(user.getId(), entry);
+        return toUser(entry);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    private void evict(long now) {
+
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+
+        int excess = entries.size() - maxEntries * 3 / 4;
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    // Detached reference for controllers and services: carries the id (all
+    // JPA needs for a user_id foreign key), email and role, never the
+    // password hash. A fresh instance per request since User is mutable.
+    private static User toUser(Entry entry) {
+        return User.builder()
+                .id(entry.userId())
+                .email(entry.email())
+                .role(entry.role())
+                .build();
+    }
+}
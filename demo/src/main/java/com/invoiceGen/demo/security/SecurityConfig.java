@@ -18,9 +18,12 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final InternalServiceAuthFilter internalServiceAuthFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter,
+                          InternalServiceAuthFilter internalServiceAuthFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.internalServiceAuthFilter = internalServiceAuthFilter;
     }
 
     @Bean
@@ -41,10 +44,12 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
 
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/invoices/internal/**").permitAll()
-                        .requestMatchers("/api/invoices/ai/**").permitAll()
+                        // PDF service only: shared secret header, see InternalServiceAuthFilter
+                        .requestMatchers("/api/invoices/internal/**").hasRole(InternalServiceAuthFilter.ROLE)
                         .requestMatchers("/api/invoices/**").authenticated()
                         .requestMatchers("/api/products/**").authenticated()
+                        .requestMatchers("/api/metrics/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
@@ -53,6 +58,12 @@ public class SecurityConfig {
                 .addFilterBefore(
                         jwtAuthFilter,
                         UsernamePasswordAuthenticationFilter.class
+                )
+
+                // ✅ SERVICE TOKEN FILTER (INTERNAL ENDPOINTS)
+                .addFilterBefore(
+                        internalServiceAuthFilter,
+                        JwtAuthFilter.class
                 );
 
         return http.build();
@@ -64,7 +75,7 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
 
         config.setAllowedOrigins(List.of("http://localhost:5173")); // Vite
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
         config.setAllowCredentials(true);
 
@@ -0,0 +1,24 @@
+package com.invoiceGen.demo.security;
+
+import com.invoiceGen.demo.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+// JPA listener on User, created by Spring through Hibernate's bean container.
+// The cache is looked up lazily because it depends on the repositories that
+// are still being built when Hibernate instantiates its listeners.
+public class UserChangeListener {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public UserChangeListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.ifAvailable(cache -> cache.invalidate(user.getId()));
+    }
+}
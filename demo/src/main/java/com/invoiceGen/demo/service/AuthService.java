@@ -1,28 +1,22 @@
 package com.invoiceGen.demo.service;
 
-import com.invoiceGen.demo.entity.Product;
 import com.invoiceGen.demo.entity.User;
-import com.invoiceGen.demo.repository.ProductRepository;
 import com.invoiceGen.demo.repository.UserRepository;
-import com.invoiceGen.demo.util.DefaultProducts;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final TenantProvisioningService tenantProvisioningService;
+    private final PasswordHashingService passwordHashingService;
 
     public AuthService(UserRepository userRepository,
-                       ProductRepository productRepository,
-                       PasswordEncoder passwordEncoder) {
+                       TenantProvisioningService tenantProvisioningService,
+                       PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
-        this.productRepository = productRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.tenantProvisioningService = tenantProvisioningService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     // -------------------------
@@ -35,21 +29,15 @@ public class AuthService {
             throw new RuntimeException("Email already registered");
         }
 
-        // 2. Encrypt password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-
-        // 3. Save user
-        User savedUser = userRepository.save(user);
-
-        // 4. Create predefined products (exactly 5)
-        List<Product> defaultProducts = DefaultProducts.getDefaultProducts();
+        // 2. Reject an unknown plan before paying for BCrypt
+        user.setPlan(tenantProvisioningService.planOf(user.getPlan()));
+        tenantProvisioningService.checkPlan(user.getPlan());
 
-        defaultProducts.forEach(product -> {
-            product.setUser(savedUser);
-            productRepository.save(product);
-        });
+        // 3. Encrypt password (bounded BCrypt pool, outside the transaction)
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
 
-        return savedUser;
+        // 4. User + plan products in one transaction, inserts batched
+        return tenantProvisioningService.provision(user);
     }
 
     // -------------------------
@@ -61,10 +49,17 @@ public class AuthService {
                 .orElseThrow(() ->
                         new RuntimeException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        if (!passwordHashingService.matches(rawPassword, user.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
 
+        // Cost was raised since this hash was stored: upgrade it quietly
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            passwordHashingService.rehashLater(rawPassword,
+                    hash -> userRepository.updatePassword(userId, hash));
+        }
+
         return user;
     }
 }
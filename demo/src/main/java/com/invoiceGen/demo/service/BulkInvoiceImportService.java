@@ -0,0 +1,276 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.dto.BulkInvoiceResultDTO;
+import com.invoiceGen.demo.dto.InvoiceRequestDTO;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams JSONL / CSV invoice imports: constant memory in, per-record results out.
+@Service
+public class BulkInvoiceImportService {
+
+    // CSV: one row per line item, rows sharing a ref form one invoice
+    public static final String CSV_HEADER = "ref,customerName,dueDate,status,productId,quantity";
+
+    private final InvoiceService invoiceService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${invoice.bulk.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${invoice.bulk.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    public BulkInvoiceImportService(InvoiceService invoiceService,
+                                    ObjectMapper objectMapper) {
+        this.invoiceService = invoiceService;
+        this.objectMapper = objectMapper;
+    }
+
+    public int batchSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultBatchSize;
+        }
+        return Math.min(requested, maxBatchSize);
+    }
+
+    // -------------------------
+    // JSONL
+    // -------------------------
+    public void importJsonLines(User user, InputStream in, OutputStream out, int batchSize)
+            throws IOException {
+
+        Batch batch = new Batch(user, out, batchSize);
+        BufferedReader reader = reader(in);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(objectMapper.readValue(line, InvoiceRequestDTO.class), lineNumber, null);
+            } catch (RuntimeException e) {
+                batch.reject(lineNumber, null, "Invalid JSON: " + e.getMessage());
+            }
+        }
+        batch.flush();
+    }
+
+    // -------------------------
+    // CSV
+    // -------------------------
+    public void importCsv(User user, InputStream in, OutputStream out, int batchSize)
+            throws IOException {
+
+        Batch batch = new Batch(user, out, batchSize);
+        BufferedReader reader = reader(in);
+
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        if (!header.trim().equalsIgnoreCase(CSV_HEADER)) {
+            batch.reject(1, null, "Expected CSV header: " + CSV_HEADER);
+            batch.flush();
+            return;
+        }
+
+        // Only the invoice currently being assembled is held in memory
+        InvoiceRequestDTO current = null;
+        String currentRef = null;
+        long currentLine = 0;
+        String currentError = null;
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            List<String> fields = parseCsvLine(line);
+            String ref = fields.isEmpty() ? "" : fields.get(0);
+
+            if (current == null || !ref.equals(currentRef)) {
+                finishCsvInvoice(batch, current, currentLine, currentRef, currentError);
+                current = new InvoiceRequestDTO();
+                current.setItems(new ArrayList<>());
+                currentRef = ref;
+                currentLine = lineNumber;
+                currentError = null;
+            }
+
+            if (currentError != null) {
+                continue;
+            }
+
+            try {
+                if (fields.size() != 6) {
+                    throw new IllegalArgumentException("Expected 6 columns, got " + fields.size());
+                }
+                if (current.getItems().isEmpty()) {
+                    current.setCustomerName(fields.get(1));
+                    current.setDueDate(fields.get(2).isEmpty() ? null : LocalDate.parse(fields.get(2)));
+                    current.setStatus(fields.get(3).isEmpty()
+                            ? null
+                            : InvoiceStatus.valueOf(fields.get(3).toUpperCase()));
+                }
+                InvoiceRequestDTO.Item item = new InvoiceRequestDTO.Item();
+                item.setProductId(Integer.valueOf(fields.get(4)));
+                item.setQuantity(Integer.valueOf(fields.get(5)));
+                current.getItems().add(item);
+            } catch (RuntimeException e) {
+                currentError = "Line " + lineNumber + ": " + e.getMessage();
+            }
+        }
+
+        finishCsvInvoice(batch, current, currentLine, currentRef, currentError);
+        batch.flush();
+    }
+
+    private void finishCsvInvoice(Batch batch, InvoiceRequestDTO invoice,
+                                  long line, String ref, String error) throws IOException {
+        if (invoice == null) {
+            return;
+        }
+        if (error != null) {
+            batch.reject(line, ref, error);
+        } else {
+            batch.add(invoice, line, ref);
+        }
+    }
+
+    // Minimal RFC 4180 field splitting (quoted fields, doubled quotes)
+    private static List<String> parseCsvLine(String line) {
+
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // -------------------------
+    // BATCHING + RESULT STREAM
+    // -------------------------
+    private final class Batch {
+
+        private final User user;
+        private final OutputStream out;
+        private final int size;
+
+        private final List<InvoiceRequestDTO> requests = new ArrayList<>();
+        private final List<BulkInvoiceResultDTO> pending = new ArrayList<>();
+
+        Batch(User user, OutputStream out, int size) {
+            this.user = user;
+            this.out = out;
+            this.size = size;
+        }
+
+        void add(InvoiceRequestDTO request, long line, String ref) throws IOException {
+            BulkInvoiceResultDTO result = new BulkInvoiceResultDTO();
+            result.setLine(line);
+            result.setRef(ref);
+            requests.add(request);
+            pending.add(result);
+            if (requests.size() >= size) {
+                flush();
+            }
+        }
+
+        void reject(long line, String ref, String error) throws IOException {
+            BulkInvoiceResultDTO result = new BulkInvoiceResultDTO();
+            result.setLine(line);
+            result.setRef(ref);
+            result.setStatus(BulkInvoiceResultDTO.FAILED);
+            result.setError(error);
+            pending.add(result);
+            if (pending.size() >= size) {
+                flush();
+            }
+        }
+
+        // Writes one transaction's worth, then reports every record in input order
+        void flush() throws IOException {
+
+            List<BulkInvoiceResultDTO> created = List.of();
+            if (!requests.isEmpty()) {
+                try {
+                    created = invoiceService.createInvoiceBatch(user, requests);
+                } catch (RuntimeException e) {
+                    created = null;
+                    failBatch(e.getMessage());
+                }
+            }
+
+            int next = 0;
+            for (BulkInvoiceResultDTO result : pending) {
+                if (result.getStatus() == null && created != null) {
+                    BulkInvoiceResultDTO outcome = created.get(next++);
+                    result.setStatus(outcome.getStatus());
+                    result.setInvoiceId(outcome.getInvoiceId());
+                    result.setInvoiceNumber(outcome.getInvoiceNumber());
+                    result.setError(outcome.getError());
+                }
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+
+            requests.clear();
+            pending.clear();
+        }
+
+        private void failBatch(String error) {
+            for (BulkInvoiceResultDTO result : pending) {
+                if (result.getStatus() == null) {
+                    result.setStatus(BulkInvoiceResultDTO.FAILED);
+                    result.setError("Batch rolled back: " + error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.CustomerPaymentStats;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.repository.AnalysisInput;
+import com.invoiceGen.demo.repository.CustomerPaymentStatsRepository;
+import com.invoiceGen.demo.util.TenantRebuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Per-customer payment history (customer_payment_stats). Every invoice
+// create and status change adds its difference to the customer's row with
+// one upsert in the invoice's own transaction, so the row never needs a
+// recount; rebuild() recomputes all rows from the invoice table, one
+// tenant per task.
+@Service
+public class CustomerPaymentStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerPaymentStatsService.class);
+
+    // Payment history score for a customer that has not paid anything yet
+    public static final int NEUTRAL_HISTORY_SCORE = 3;
+
+    private static final String UPSERT =
+            "insert into customer_payment_stats (user_id, customer_name, invoice_count, " +
+            "open_count, overdue_count, paid_count, paid_late_count, total_days_to_pay, " +
+            "outstanding_minor, paid_minor, updated_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update " +
+            "invoice_count = invoice_count + values(invoice_count), " +
+            "open_count = open_count + values(open_count), " +
+            "overdue_count = overdue_count + values(overdue_count), " +
+            "paid_count = paid_count + values(paid_count), " +
+            "paid_late_count = paid_late_count + values(paid_late_count), " +
+            "total_days_to_pay = total_days_to_pay + values(total_days_to_pay), " +
+            "outstanding_minor = outstanding_minor + values(outstanding_minor), " +
+            "paid_minor = paid_minor + values(paid_minor), " +
+            "updated_at = values(updated_at)";
+
+    // Same sums as Delta.of, over all of a tenant's invoices
+    private static final String REBUILD_TENANT =
+            "insert into customer_payment_stats (user_id, customer_name, invoice_count, " +
+            "open_count, overdue_count, paid_count, paid_late_count, total_days_to_pay, " +
+            "outstanding_minor, paid_minor, updated_at) " +
+            "select user_id, coalesce(customer_name, ''), count(*), " +
+            "sum(case when status in ('UNPAID', 'OVERDUE') then 1 else 0 end), " +
+            "sum(case when status = 'OVERDUE' then 1 else 0 end), " +
+            "sum(case when status = 'PAID' then 1 else 0 end), " +
+            "sum(case when status = 'PAID' and date(paid_at) > due_date then 1 else 0 end), " +
+            "sum(case when status = 'PAID' and paid_at is not null " +
+            "then greatest(datediff(paid_at, created_at), 0) else 0 end), " +
+            "sum(case when status in ('UNPAID', 'OVERDUE') then total_amount_minor else 0 end), " +
+            "sum(case when status = 'PAID' then total_amount_minor else 0 end), ? " +
+            "from invoice where user_id = ? and status <> 'CANCELLED' " +
+            "group by user_id, coalesce(customer_name, '')";
+
+    private static final Comparator<CustomerPaymentStats.Key> KEY_ORDER =
+            Comparator.comparing(CustomerPaymentStats.Key::getUserId)
+                    .thenComparing(CustomerPaymentStats.Key::getCustomerName);
+
+    public record RebuildResult(int tenants, long customers, long elapsedMs) {
+    }
+
+    // What one invoice in one state contributes to its customer's row
+    private record Delta(long invoices, long open, long overdue, long paid, long paidLate,
+                         long daysToPay, long outstandingMinor, long paidMinor) {
+
+        static final Delta NONE = new Delta(0, 0, 0, 0, 0, 0, 0, 0);
+
+        static Delta of(InvoiceStatus status, long totalMinor, LocalDate dueDate,
+                        LocalDateTime createdAt, LocalDateTime paidAt) {
+            if (status == null) {
+                return NONE;
+            }
+            switch (status) {
+                case UNPAID -> {
+                    return new Delta(1, 1, 0, 0, 0, 0, totalMinor, 0);
+                }
+                case OVERDUE -> {
+                    return new Delta(1, 1, 1, 0, 0, 0, totalMinor, 0);
+                }
+                case PAID -> {
+                    long days = 0;
+                    long late = 0;
+                    if (paidAt != null) {
+                        LocalDate paidOn = paidAt.toLocalDate();
+                        if (createdAt != null) {
+                            days = Math.max(0, ChronoUnit.DAYS.between(createdAt.toLocalDate(), paidOn));
+                        }
+                        late = dueDate != null && paidOn.isAfter(dueDate) ? 1 : 0;
+                    }
+                    return new Delta(1, 0, 0, 1, late, days, 0, totalMinor);
+                }
+                default -> {
+                    return NONE;   // CANCELLED
+                }
+            }
+        }
+
+        Delta plus(Delta o) {
+            return new Delta(invoices + o.invoices, open + o.open, overdue + o.overdue,
+                    paid + o.paid, paidLate + o.paidLate, daysToPay + o.daysToPay,
+                    outstandingMinor + o.outstandingMinor, paidMinor + o.paidMinor);
+        }
+
+        Delta minus(Delta o) {
+            return new Delta(invoices - o.invoices, open - o.open, overdue - o.overdue,
+                    paid - o.paid, paidLate - o.paidLate, daysToPay - o.daysToPay,
+                    outstandingMinor - o.outstandingMinor, paidMinor - o.paidMinor);
+        }
+
+        boolean isZero() {
+            return equals(NONE);
+        }
+    }
+
+    private final CustomerPaymentStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantRebuilder rebuilder;
+
+    public CustomerPaymentStatsService(CustomerPaymentStatsRepository statsRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${customer-stats.rebuild.threads:4}") int rebuildThreads) {
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuilder = new TenantRebuilder("customer-stats", rebuildThreads);
+    }
+
+    // -------------------------
+    // INCREMENTAL (CALLER'S TRANSACTION)
+    // -------------------------
+
+    // Invoices just saved; one upsert per customer, in one JDBC batch.
+    // Rows are written in key order so concurrent batches cannot deadlock.
+    public void invoicesCreated(List<Invoice> invoices) {
+
+        Map<CustomerPaymentStats.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Invoice invoice : invoices) {
+            deltas.merge(keyOf(invoice), Delta.of(invoice.getStatus(),
+                    invoice.getTotalAmountMinor(), invoice.getDueDate(),
+                    invoice.getCreatedAt(), invoice.getPaidAt()), Delta::plus);
+        }
+        apply(deltas);
+    }
+
+    // The invoice already carries its new status and paidAt
+    public void statusChanged(Invoice invoice, InvoiceStatus previousStatus,
+                              LocalDateTime previousPaidAt) {
+
+        Delta before = Delta.of(previousStatus, invoice.getTotalAmountMinor(),
+                invoice.getDueDate(), invoice.getCreatedAt(), previousPaidAt);
+        Delta after = Delta.of(invoice.getStatus(), invoice.getTotalAmountMinor(),
+                invoice.getDueDate(), invoice.getCreatedAt(), invoice.getPaidAt());
+
+        apply(Map.of(keyOf(invoice), after.minus(before)));
+    }
+
+    private void apply(Map<CustomerPaymentStats.Key, Delta> deltas) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, d) -> {
+            if (!d.isZero()) {
+                rows.add(new Object[]{key.getUserId(), key.getCustomerName(), d.invoices(),
+                        d.open(), d.overdue(), d.paid(), d.paidLate(), d.daysToPay(),
+                        d.outstandingMinor(), d.paidMinor(), now});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    // -------------------------
+    // LOOKUP
+    // -------------------------
+    public Optional<CustomerPaymentStats> find(Long userId, String customerName) {
+        return statsRepository.findById(
+                new CustomerPaymentStats.Key(userId, customerKey(customerName)));
+    }
+
+    // 1 (always paid on time) to 5 (always paid late), the direction the
+    // risk model's positive weight expects
+    public static int paymentHistoryScore(Long paidCount, Long paidLateCount) {
+
+        if (paidCount == null || paidCount == 0) {
+            return NEUTRAL_HISTORY_SCORE;
+        }
+        long late = paidLateCount == null ? 0 : paidLateCount;
+        return 1 + (int) Math.round(4.0 * late / paidCount);
+    }
+
+    // Late payments plus currently overdue invoices, not counting the
+    // analysed invoice itself
+    public static int previousOverdueCount(AnalysisInput input) {
+
+        long count = (input.getPaidLateCount() == null ? 0 : input.getPaidLateCount())
+                + (input.getOverdueCount() == null ? 0 : input.getOverdueCount());
+        if (input.getStatus() == InvoiceStatus.OVERDUE) {
+            count--;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, count));
+    }
+
+    // -------------------------
+    // REBUILD (FROM SCRATCH)
+    // -------------------------
+
+    // Recomputes every tenant's rows, rebuildThreads tenants at a time. Each
+    // tenant is one transaction; its insert ... select takes shared locks on
+    // the tenant's invoice rows, so concurrent updates wait instead of
+    // being lost. Null when a rebuild is already running.
+    public RebuildResult rebuild() {
+
+        TenantRebuilder.Result run = rebuilder.run(
+                () -> jdbcTemplate.queryForList("select distinct user_id from invoice", Long.class),
+                this::rebuildTenant);
+        if (run == null) {
+            return null;
+        }
+
+        RebuildResult result = new RebuildResult(run.tenants(), run.rows(), run.elapsedMs());
+        logger.info("Customer payment stats rebuilt: {} tenants, {} customers in {} ms",
+                result.tenants(), result.customers(), result.elapsedMs());
+        return result;
+    }
+
+    private long rebuildTenant(Long userId) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer customers = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("delete from customer_payment_stats where user_id = ?", userId);
+            return jdbcTemplate.update(REBUILD_TENANT, now, userId);
+        });
+        return customers == null ? 0 : customers;
+    }
+
+    // -------------------------
+    // HELPERS
+    // -------------------------
+    private static CustomerPaymentStats.Key keyOf(Invoice invoice) {
+        return new CustomerPaymentStats.Key(invoice.getUser().getId(),
+                customerKey(invoice.getCustomerName()));
+    }
+
+    private static String customerKey(String customerName) {
+        return customerName == null ? "" : customerName;
+    }
+}
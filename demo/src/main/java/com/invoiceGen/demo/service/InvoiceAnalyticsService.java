@@ -1,20 +1,540 @@
-
 package com.invoiceGen.demo.service;
 
 import com.invoiceGen.demo.dto.AiAnalysisRequestDTO;
 import com.invoiceGen.demo.dto.AiAnalysisResponseDTO;
+import com.invoiceGen.demo.entity.CustomerPaymentStats;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.InvoiceAnalytics;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.repository.AnalysisInput;
+import com.invoiceGen.demo.repository.InvoiceAnalyticsRepository;
+import com.invoiceGen.demo.util.Money;
+import com.invoiceGen.demo.util.OverdueRiskModel;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// AI risk analysis of invoices. Overdue probability, keyword anomalies and
+// the payment-terms recommendation are computed in this JVM; only the LLM
+// risk narrative needs the Python service, and only when asked for. Those
+// narratives are cached in two tiers, a memory LRU in front of the
+// invoice_analytics table, and reused while the fingerprint of their inputs
+// (amount, dates, status, ...) still matches the invoice and the TTL has
+// not run out. The service's fallback replies (LLM down or unparseable) are
+// never stored, and stay in memory only for a short negative TTL.
 @Service
 public class InvoiceAnalyticsService {
 
     private static final String PYTHON_AI_URL =
             "http://localhost:8000/analyze-invoice";
 
+    // Part of every fingerprint; bump when the inputs change meaning
+    private static final String FINGERPRINT_VERSION = "analysis-v3";
+
+    // Same lists as the Python service
+    private static final List<String> ANOMALY_KEYWORDS =
+            List.of("urgent", "manual", "adjustment", "override", "misc");
+    private static final List<String> RECOMMENDATIONS = List.of(
+            "Offer 5% early payment discount",
+            "Enable recurring monthly invoices",
+            "Shorten payment cycle to 15 days");
+
+    // Reasons the Python service gives when it could not ask the LLM
+    private static final List<String> FALLBACK_REASONS =
+            List.of("AI unavailable, fallback applied", "Invalid AI response");
+
+    public record Stats(long memoryHits, long tableHits, long misses, long memoryEntries) {
+    }
+
+    // One batch-scored invoice, ready to be stored; narrative when the
+    // risk text came from the Python service rather than the model
+    public record Scored(AnalysisInput input, AiAnalysisResponseDTO response, boolean narrative) {
+    }
+
+    private record Cached(String fingerprint, AiAnalysisResponseDTO response,
+                          LocalDateTime expiresAt) {
+    }
+
+    private record InvoiceInput(Long id, Long userId, long totalAmountMinor, LocalDate dueDate,
+                                LocalDateTime createdAt, String customerName,
+                                InvoiceStatus status, Long paidCount, Long paidLateCount,
+                                Long overdueCount) implements AnalysisInput {
+
+        static InvoiceInput of(Invoice invoice, CustomerPaymentStats stats) {
+            return new InvoiceInput(invoice.getId(), invoice.getUser().getId(),
+                    invoice.getTotalAmountMinor(), invoice.getDueDate(), invoice.getCreatedAt(),
+                    invoice.getCustomerName(), invoice.getStatus(),
+                    stats != null ? stats.getPaidCount() : null,
+                    stats != null ? stats.getPaidLateCount() : null,
+                    stats != null ? stats.getOverdueCount() : null);
+        }
+
+        @Override public Long getId() { return id; }
+        @Override public Long getUserId() { return userId; }
+        @Override public long getTotalAmountMinor() { return totalAmountMinor; }
+        @Override public LocalDate getDueDate() { return dueDate; }
+        @Override public LocalDateTime getCreatedAt() { return createdAt; }
+        @Override public String getCustomerName() { return customerName; }
+        @Override public InvoiceStatus getStatus() { return status; }
+        @Override public Long getPaidCount() { return paidCount; }
+        @Override public Long getPaidLateCount() { return paidLateCount; }
+        @Override public Long getOverdueCount() { return overdueCount; }
+    }
+
     private final RestTemplate restTemplate = new RestTemplate();
+    private final InvoiceAnalyticsRepository analyticsRepository;
+    private final CustomerPaymentStatsService customerPaymentStatsService;
+    private final EntityManager entityManager;
+    private final OverdueRiskModel riskModel;
+    private final double riskyThreshold;
+    private final long ttlMinutes;
+    private final long fallbackTtlSeconds;
+
+    // Access-ordered map gives LRU iteration order; guarded by its own monitor
+    private final LinkedHashMap<Long, Cached> memory;
+
+    // Concurrent views of the same invoice share one remote call
+    private final ConcurrentHashMap<Long, CompletableFuture<AiAnalysisResponseDTO>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public InvoiceAnalyticsService(InvoiceAnalyticsRepository analyticsRepository,
+                                   CustomerPaymentStatsService customerPaymentStatsService,
+                                   EntityManager entityManager,
+                                   OverdueRiskModel riskModel,
+                                   @Value("${ai.risk-model.risky-threshold:0.9}") double riskyThreshold,
+                                   @Value("${ai.analysis.ttl-minutes:1440}") long ttlMinutes,
+                                   @Value("${ai.analysis.fallback-ttl-seconds:60}") long fallbackTtlSeconds,
+                                   @Value("${ai.analysis.cache.max-entries:10000}") int maxEntries) {
+        this.analyticsRepository = analyticsRepository;
+        this.customerPaymentStatsService = customerPaymentStatsService;
+        this.entityManager = entityManager;
+        this.riskModel = riskModel;
+        this.riskyThreshold = riskyThreshold;
+        this.ttlMinutes = ttlMinutes;
+        this.fallbackTtlSeconds = fallbackTtlSeconds;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // -------------------------
+    // ANALYZE
+    // -------------------------
+    public AiAnalysisResponseDTO analyze(Invoice invoice, boolean narrative) {
+
+        // One keyed lookup for the customer's history
+        AnalysisInput input = InvoiceInput.of(invoice, customerPaymentStatsService
+                .find(invoice.getUser().getId(), invoice.getCustomerName()).orElse(null));
+        LocalDate today = LocalDate.now();
+        double probability = riskModel.score(
+                OverdueRiskModel.daysOverdue(input.getDueDate(), today),
+                paymentHistoryScore(input),
+                CustomerPaymentStatsService.previousOverdueCount(input));
+
+        AiAnalysisResponseDTO response = modelAnalysis(input, probability, today);
+        if (narrative) {
+            response.setRiskAnalysis(narrativeAnalysis(input).getRiskAnalysis());
+        }
+        return response;
+    }
+
+    // -------------------------
+    // NARRATIVE (PYTHON, CACHED)
+    // -------------------------
+    private AiAnalysisResponseDTO narrativeAnalysis(AnalysisInput input) {
+
+        AiAnalysisRequestDTO request = buildRequest(input);
+        String fingerprint = fingerprint(input, request);
+        Long invoiceId = input.getId();
+
+        AiAnalysisResponseDTO cached = lookup(invoiceId, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<AiAnalysisResponseDTO> call = new CompletableFuture<>();
+        CompletableFuture<AiAnalysisResponseDTO> existing = inFlight.putIfAbsent(invoiceId, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Another thread may have finished between lookup() and putIfAbsent()
+            AiAnalysisResponseDTO response = lookupMemory(invoiceId, fingerprint);
+            if (response == null) {
+                misses.increment();
+                response = analyzeInvoice(request);
+                if (isFallback(response)) {
+                    // Served, but remembered only long enough to spare the
+                    // service during an outage
+                    putMemory(invoiceId, new Cached(fingerprint, response,
+                            LocalDateTime.now().plusSeconds(fallbackTtlSeconds)));
+                } else {
+                    store(input, fingerprint, response);
+                }
+            }
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(invoiceId, call);
+        }
+    }
+
+    // The invoice changed: drop both tiers. The fingerprint already keeps
+    // stale entries from being served; this just frees them early.
+    public void invalidate(Long invoiceId) {
+        synchronized (memory) {
+            memory.remove(invoiceId);
+        }
+        analyticsRepository.deleteByInvoiceId(invoiceId);
+    }
+
+    // -------------------------
+    // BATCH (NIGHTLY SCORING)
+    // -------------------------
+
+    // The invoices of a page that have no fresh analysis (with a narrative,
+    // if one is required), in one query
+    public List<AnalysisInput> needingAnalysis(List<AnalysisInput> inputs, boolean narrative) {
+
+        Map<Long, InvoiceAnalytics> existing = new HashMap<>();
+        for (InvoiceAnalytics row : analyticsRepository.findByInvoiceIds(
+                inputs.stream().map(AnalysisInput::getId).toList())) {
+            existing.put(row.getInvoice().getId(), row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AnalysisInput> stale = new ArrayList<>();
+        for (AnalysisInput input : inputs) {
+            InvoiceAnalytics row = existing.get(input.getId());
+            if (row == null || !row.getExpiresAt().isAfter(now)
+                    || (narrative && !row.isNarrative())
+                    || !row.getFingerprint().equals(fingerprint(input, buildRequest(input)))) {
+                stale.add(input);
+            }
+        }
+        return stale;
+    }
+
+    // The service's degraded reply instead of an LLM narrative; not worth
+    // keeping for the full TTL
+    public boolean isFallback(AiAnalysisResponseDTO response) {
+        return response.getRiskAnalysis() == null
+                || FALLBACK_REASONS.contains(response.getRiskAnalysis().getReason());
+    }
+
+    // Remote call only; no caching, the batch stores results itself
+    public AiAnalysisResponseDTO analyzeUncached(AnalysisInput input) {
+        return analyzeInvoice(buildRequest(input));
+    }
+
+    // In-JVM scoring of a whole page: features go into primitive arrays
+    // and the model scores them in one pass
+    public List<Scored> scoreWithModel(List<AnalysisInput> inputs) {
+
+        int count = inputs.size();
+        int[] daysOverdue = new int[count];
+        int[] history = new int[count];
+        int[] previous = new int[count];
+        double[] probabilities = new double[count];
+
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count; i++) {
+            daysOverdue[i] = OverdueRiskModel.daysOverdue(inputs.get(i).getDueDate(), today);
+            history[i] = paymentHistoryScore(inputs.get(i));
+            previous[i] = CustomerPaymentStatsService.previousOverdueCount(inputs.get(i));
+        }
+        riskModel.scoreAll(daysOverdue, history, previous, probabilities, count);
+
+        List<Scored> scored = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AnalysisInput input = inputs.get(i);
+            scored.add(new Scored(input, modelAnalysis(input, probabilities[i], today), false));
+        }
+        return scored;
+    }
+
+    // One transaction per page: existing rows are updated in place, new
+    // rows are inserted in JDBC batches
+    @Transactional
+    public void storeAll(List<Scored> results) {
+
+        if (results.isEmpty()) {
+            return;
+        }
+
+        Map<Long, InvoiceAnalytics> existing = new HashMap<>();
+        for (InvoiceAnalytics row : analyticsRepository.findByInvoiceIds(
+                results.stream().map(scored -> scored.input().getId()).toList())) {
+            existing.put(row.getInvoice().getId(), row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<InvoiceAnalytics> created = new ArrayList<>();
+        for (Scored scored : results) {
+            AnalysisInput input = scored.input();
+            InvoiceAnalytics row = existing.get(input.getId());
+            if (row == null) {
+                row = new InvoiceAnalytics();
+                row.setInvoice(entityManager.getReference(Invoice.class, input.getId()));
+                created.add(row);
+            }
+            fill(row, fingerprint(input, buildRequest(input)), scored.response(), now);
+            row.setNarrative(scored.narrative());
+        }
+        analyticsRepository.saveAll(created);
+    }
+
+    @Scheduled(cron = "${ai.analysis.cleanup-cron:0 45 3 * * *}")
+    public void deleteExpired() {
+        analyticsRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    public Stats stats() {
+        synchronized (memory) {
+            return new Stats(memoryHits.sum(), tableHits.sum(), misses.sum(), memory.size());
+        }
+    }
+
+    // -------------------------
+    // TIERS
+    // -------------------------
+    private AiAnalysisResponseDTO lookup(Long invoiceId, String fingerprint) {
+
+        AiAnalysisResponseDTO response = lookupMemory(invoiceId, fingerprint);
+        if (response != null) {
+            return response;
+        }
+
+        InvoiceAnalytics row = analyticsRepository.findByInvoiceId(invoiceId).orElse(null);
+        if (row == null || !row.isNarrative() || !row.getFingerprint().equals(fingerprint)
+                || !row.getExpiresAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+
+        tableHits.increment();
+        response = toResponse(row);
+        putMemory(invoiceId, new Cached(fingerprint, response, row.getExpiresAt()));
+        return response;
+    }
+
+    private AiAnalysisResponseDTO lookupMemory(Long invoiceId, String fingerprint) {
+
+        Cached cached;
+        synchronized (memory) {
+            cached = memory.get(invoiceId);
+        }
+        if (cached == null || !cached.fingerprint().equals(fingerprint)
+                || !cached.expiresAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        memoryHits.increment();
+        return cached.response();
+    }
+
+    private void putMemory(Long invoiceId, Cached cached) {
+        synchronized (memory) {
+            memory.put(invoiceId, cached);
+        }
+    }
+
+    private void store(AnalysisInput input, String fingerprint, AiAnalysisResponseDTO response) {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        InvoiceAnalytics row = analyticsRepository.findByInvoiceId(input.getId())
+                .orElseGet(InvoiceAnalytics::new);
+        if (row.getInvoice() == null) {
+            row.setInvoice(Invoice.builder().id(input.getId()).build());
+        }
+        fill(row, fingerprint, response, now);
+        row.setNarrative(true);
+
+        try {
+            analyticsRepository.save(row);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same invoice first; its row is as good
+        }
+        putMemory(input.getId(), new Cached(fingerprint, response, row.getExpiresAt()));
+    }
+
+    private void fill(InvoiceAnalytics row, String fingerprint,
+                      AiAnalysisResponseDTO response, LocalDateTime now) {
+
+        row.setFingerprint(fingerprint);
+        row.setAnalyzedAt(now);
+        row.setExpiresAt(now.plusMinutes(ttlMinutes));
+        row.setOverdueProbability(response.getOverdueProbability());
+        row.setRecommendation(response.getRecommendation());
+        row.setRiskStatus(response.getRiskAnalysis() != null
+                ? response.getRiskAnalysis().getStatus() : null);
+        row.setReason(response.getRiskAnalysis() != null
+                ? response.getRiskAnalysis().getReason() : null);
+        row.setAnomalyDetected(response.getNlpAnomaly() != null
+                ? response.getNlpAnomaly().getAnomalyDetected() : null);
+        row.setAnomalyKeywords(response.getNlpAnomaly() != null
+                && response.getNlpAnomaly().getKeywords() != null
+                ? String.join(",", response.getNlpAnomaly().getKeywords()) : null);
+    }
+
+    private static AiAnalysisResponseDTO toResponse(InvoiceAnalytics row) {
+
+        AiAnalysisResponseDTO response = new AiAnalysisResponseDTO();
+        response.setOverdueProbability(row.getOverdueProbability());
+        response.setRecommendation(row.getRecommendation());
+
+        AiAnalysisResponseDTO.RiskAnalysis risk = new AiAnalysisResponseDTO.RiskAnalysis();
+        risk.setStatus(row.getRiskStatus());
+        risk.setReason(row.getReason());
+        response.setRiskAnalysis(risk);
+
+        AiAnalysisResponseDTO.NlpAnomaly anomaly = new AiAnalysisResponseDTO.NlpAnomaly();
+        anomaly.setAnomalyDetected(row.getAnomalyDetected());
+        anomaly.setKeywords(row.getAnomalyKeywords() == null || row.getAnomalyKeywords().isEmpty()
+                ? List.of()
+                : Arrays.asList(row.getAnomalyKeywords().split(",")));
+        response.setNlpAnomaly(anomaly);
+        return response;
+    }
+
+    // -------------------------
+    // MODEL (IN-JVM)
+    // -------------------------
+
+    // Everything but the LLM text; the risk status and reason are derived
+    // from the score
+    private AiAnalysisResponseDTO modelAnalysis(AnalysisInput input, double probability,
+                                                LocalDate today) {
+
+        AiAnalysisResponseDTO response = new AiAnalysisResponseDTO();
+        response.setOverdueProbability(probability);
+
+        AiAnalysisResponseDTO.RiskAnalysis risk = new AiAnalysisResponseDTO.RiskAnalysis();
+        risk.setStatus(probability >= riskyThreshold ? "RISKY" : input.getStatus().name());
+        risk.setReason(String.format("Estimated %d%% overdue probability, %d days past due",
+                Math.round(probability * 100),
+                OverdueRiskModel.daysOverdue(input.getDueDate(), today)));
+        response.setRiskAnalysis(risk);
+
+        String description = description(input).toLowerCase(Locale.ROOT);
+        List<String> keywords = new ArrayList<>();
+        for (String keyword : ANOMALY_KEYWORDS) {
+            if (description.contains(keyword)) {
+                keywords.add(keyword);
+            }
+        }
+        AiAnalysisResponseDTO.NlpAnomaly anomaly = new AiAnalysisResponseDTO.NlpAnomaly();
+        anomaly.setAnomalyDetected(!keywords.isEmpty());
+        anomaly.setKeywords(keywords);
+        response.setNlpAnomaly(anomaly);
+
+        // The Python service's cosine-similarity lookup always picks the
+        // client's own profile row, i.e. clientId mod 3
+        response.setRecommendation(RECOMMENDATIONS.get(
+                (int) Math.floorMod(input.getUserId(), (long) RECOMMENDATIONS.size())));
+        return response;
+    }
+
+    // -------------------------
+    // REQUEST + FINGERPRINT
+    // -------------------------
+    private static AiAnalysisRequestDTO buildRequest(AnalysisInput input) {
+
+        AiAnalysisRequestDTO aiRequest = new AiAnalysisRequestDTO();
+        aiRequest.setInvoiceId(input.getId());
+        aiRequest.setClientId(input.getUserId().intValue());
+        aiRequest.setAmount(Money.toMajor(input.getTotalAmountMinor()));
+        // No partial payments: a paid invoice is paid in full
+        aiRequest.setPaidAmount(input.getStatus() == InvoiceStatus.PAID
+                ? Money.toMajor(input.getTotalAmountMinor()) : 0.0);
+        aiRequest.setDueDate(input.getDueDate());
+        aiRequest.setInvoiceDate(input.getCreatedAt().toLocalDate());
+        aiRequest.setDescription(description(input));
+        aiRequest.setPaymentHistoryScore(paymentHistoryScore(input));
+        aiRequest.setPreviousOverdueCount(CustomerPaymentStatsService.previousOverdueCount(input));
+        return aiRequest;
+    }
+
+    private static int paymentHistoryScore(AnalysisInput input) {
+        return CustomerPaymentStatsService.paymentHistoryScore(
+                input.getPaidCount(), input.getPaidLateCount());
+    }
+
+    private static String description(AnalysisInput input) {
+        return "Invoice for " + input.getCustomerName();
+    }
+
+    // Everything the Python service sees, plus the status it does not
+    private static String fingerprint(AnalysisInput input, AiAnalysisRequestDTO request) {
+
+        String joined = String.join("|",
+                FINGERPRINT_VERSION,
+                String.valueOf(request.getInvoiceId()),
+                String.valueOf(request.getClientId()),
+                String.valueOf(input.getTotalAmountMinor()),
+                String.valueOf(request.getPaidAmount()),
+                String.valueOf(request.getDueDate()),
+                String.valueOf(request.getInvoiceDate()),
+                String.valueOf(request.getDescription()),
+                String.valueOf(request.getPaymentHistoryScore()),
+                String.valueOf(request.getPreviousOverdueCount()),
+                String.valueOf(input.getStatus()));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(joined.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AiAnalysisResponseDTO await(CompletableFuture<AiAnalysisResponseDTO> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
 
+    // -------------------------
+    // REMOTE CALL (PYTHON SERVICE)
+    // -------------------------
     public AiAnalysisResponseDTO analyzeInvoice(AiAnalysisRequestDTO request) {
 
         HttpHeaders headers = new HttpHeaders();
@@ -0,0 +1,236 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.util.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Full exports of a tenant's invoices, one line per invoice item. Rows go
+// from a forward-only JDBC cursor straight into the response stream: no
+// entities, no per-export collections, so heap use does not depend on how
+// many rows are exported.
+@Service
+public class InvoiceExportService {
+
+    public enum Format { CSV, JSONL }
+
+    // Invoice creation date range, both ends inclusive; null means open
+    public record Filter(InvoiceStatus status, LocalDate from, LocalDate to) {
+    }
+
+    public static final String CSV_HEADER = "invoiceNumber,customerName,createdAt,dueDate,status," +
+            "invoiceSubtotal,invoiceTax,invoiceTotal,productName,quantity,price,lineTax,lineTotal";
+
+    private static final String[] JSON_FIELDS = CSV_HEADER.split(",");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final boolean mysqlStreaming;
+
+    public InvoiceExportService(JdbcTemplate jdbcTemplate,
+                                @Value("${invoice.export.fetch-size:1000}") int fetchSize,
+                                @Value("${invoice.export.mysql-streaming:true}") boolean mysqlStreaming) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.mysqlStreaming = mysqlStreaming;
+    }
+
+    // -------------------------
+    // EXPORT
+    // -------------------------
+
+    // Returns the number of rows written
+    public long export(Long userId, Filter filter, Format format, OutputStream out) {
+
+        StringBuilder sql = new StringBuilder(
+                "select i.invoice_number, i.customer_name, i.created_at, i.due_date, i.status, " +
+                "i.subtotal_minor, i.tax_minor, i.total_amount_minor, " +
+                "p.name, it.quantity, it.price_minor, it.tax_minor, it.total_minor " +
+                "from invoice i " +
+                "left join invoice_item it on it.invoice_id = i.id " +
+                "left join product p on p.id = it.product_id " +
+                "where i.user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+
+        if (filter.status() != null) {
+            sql.append(" and i.status = ?");
+            args.add(filter.status().name());
+        }
+        if (filter.from() != null) {
+            sql.append(" and i.created_at >= ?");
+            args.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" and i.created_at < ?");
+            args.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+        // Walks idx_invoice_user_created; an invoice's items stay together
+        sql.append(" order by i.created_at, i.id, it.id");
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long[] rows = {0};
+
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            jdbcTemplate.query(connection -> prepare(connection, sql.toString(), args), rs -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, rs);
+                    } else {
+                        writeJson(writer, rs);
+                    }
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows[0];
+    }
+
+    // MySQL Connector/J only streams with Integer.MIN_VALUE (or with
+    // useCursorFetch=true); anywhere else a positive fetch size does it
+    private PreparedStatement prepare(Connection connection, String sql, List<Object> args)
+            throws SQLException {
+
+        PreparedStatement ps = connection.prepareStatement(
+                sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+        boolean mysql = connection.getMetaData().getDatabaseProductName().startsWith("MySQL");
+        ps.setFetchSize(mysql && mysqlStreaming ? Integer.MIN_VALUE : fetchSize);
+
+        for (int i = 0; i < args.size(); i++) {
+            ps.setObject(i + 1, args.get(i));
+        }
+        return ps;
+    }
+
+    // -------------------------
+    // ROW WRITERS
+    // -------------------------
+    private static void writeCsv(Writer w, ResultSet rs) throws SQLException, IOException {
+
+        for (int column = 1; column <= JSON_FIELDS.length; column++) {
+            if (column > 1) {
+                w.write(',');
+            }
+            String value = value(rs, column);
+            if (value != null) {
+                csvField(w, value);
+            }
+        }
+        w.write('\n');
+    }
+
+    private static void writeJson(Writer w, ResultSet rs) throws SQLException, IOException {
+
+        w.write('{');
+        for (int column = 1; column <= JSON_FIELDS.length; column++) {
+            if (column > 1) {
+                w.write(',');
+            }
+            w.write('"');
+            w.write(JSON_FIELDS[column - 1]);
+            w.write("\":");
+
+            String value = value(rs, column);
+            if (value == null) {
+                w.write("null");
+            } else if (isNumeric(column)) {
+                w.write(value);
+            } else {
+                jsonString(w, value);
+            }
+        }
+        w.write("}\n");
+    }
+
+    // Columns 6-8 and 10-13 are amounts and quantities
+    private static boolean isNumeric(int column) {
+        return (column >= 6 && column <= 8) || column >= 10;
+    }
+
+    private static String value(ResultSet rs, int column) throws SQLException {
+
+        switch (column) {
+            case 3 -> {
+                Timestamp createdAt = rs.getTimestamp(column);
+                return createdAt != null ? createdAt.toLocalDateTime().toString() : null;
+            }
+            case 4 -> {
+                java.sql.Date dueDate = rs.getDate(column);
+                return dueDate != null ? dueDate.toLocalDate().toString() : null;
+            }
+            case 6, 7, 8, 11, 12, 13 -> {
+                long minor = rs.getLong(column);
+                return rs.wasNull() ? null : Money.toPlainString(minor);
+            }
+            default -> {
+                return rs.getString(column);
+            }
+        }
+    }
+
+    private static void csvField(Writer w, String value) throws IOException {
+
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    private static void jsonString(Writer w, String value) throws IOException {
+
+        w.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> w.write("\\\"");
+                case '\\' -> w.write("\\\\");
+                case '\n' -> w.write("\\n");
+                case '\r' -> w.write("\\r");
+                case '\t' -> w.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        w.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        w.write(c);
+                    }
+                }
+            }
+        }
+        w.write('"');
+    }
+}
@@ -0,0 +1,53 @@
+package com.invoiceGen.demo.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+// Reserves blocks of the invoice_number_sequence table (InvoiceNumberSequence)
+// on the dedicated invoiceNumberDataSource, never on the caller's connection
+@Service
+public class InvoiceNumberBlockService {
+
+    private static final String LOCK_ROW =
+            "select next_value from invoice_number_sequence " +
+            "where user_id = ? and invoice_year = ? for update";
+
+    private static final String INSERT_ROW =
+            "insert into invoice_number_sequence (user_id, invoice_year, next_value) " +
+            "values (?, ?, ?)";
+
+    private static final String BUMP_ROW =
+            "update invoice_number_sequence set next_value = ? " +
+            "where user_id = ? and invoice_year = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public InvoiceNumberBlockService(@Qualifier("invoiceNumberDataSource") DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    // Own short transaction: the row lock is held only while the block is bumped,
+    // never for the lifetime of the invoice being created. A duplicate key on
+    // the first block of a tenant-year surfaces as DataIntegrityViolationException.
+    public long reserveBlock(long userId, int year, int size) {
+
+        return transactionTemplate.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(LOCK_ROW, Long.class, userId, year);
+            if (current.isEmpty()) {
+                jdbcTemplate.update(INSERT_ROW, userId, year, 1L + size);
+                return 1L;
+            }
+            long start = current.get(0);
+            jdbcTemplate.update(BUMP_ROW, start + size, userId, year);
+            return start;
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.util.InvoiceNumberAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+// Per-tenant, per-year sequential invoice numbers: INV-2026-000042
+@Service
+public class InvoiceNumberService {
+
+    private final InvoiceNumberBlockService blockService;
+    private final InvoiceNumberAllocator allocator;
+
+    public InvoiceNumberService(InvoiceNumberBlockService blockService,
+                                @Value("${invoice.number.block-size:100}") int blockSize) {
+        this.blockService = blockService;
+        this.allocator = new InvoiceNumberAllocator(this::reserveBlock, blockSize);
+    }
+
+    public String nextInvoiceNumber(Long userId) {
+        int year = LocalDate.now().getYear();
+        long number = allocator.next(userId, year);
+        return "INV-" + year + "-" + String.format("%06d", number);
+    }
+
+    private long reserveBlock(long userId, int year, int size) {
+        try {
+            return blockService.reserveBlock(userId, year, size);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the tenant-year row first; it exists now
+            return blockService.reserveBlock(userId, year, size);
+        }
+    }
+}
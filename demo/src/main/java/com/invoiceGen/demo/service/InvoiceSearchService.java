@@ -0,0 +1,207 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.dto.InvoiceResponseDTO;
+import com.invoiceGen.demo.dto.InvoiceSearchResultDTO;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.repository.InvoiceSummary;
+import com.invoiceGen.demo.util.InvoiceSearchIndex;
+import com.invoiceGen.demo.util.MemoryBudget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Type-ahead search over invoice numbers and customer names, one in-memory
+// index per tenant. An index is built from the database on the tenant's
+// first search and then kept current by committed creates and status
+// changes. When the indexes together outgrow the memory budget, the
+// least recently searched tenants are dropped and rebuilt on their next search.
+//
+// Only commits made in this JVM reach an index. Invoices written through
+// other nodes show up when the index is rebuilt, at the latest
+// invoice.search.max-age-seconds after it was loaded (0 keeps it until it is
+// evicted, which is only correct on a single node).
+@Service
+public class InvoiceSearchService {
+
+    public record Stats(long tenants, long invoices, long estimatedBytes,
+                        long hits, long loads, long evictions) {
+    }
+
+    private static final class Tenant {
+        final InvoiceSearchIndex index = new InvoiceSearchIndex();
+        volatile boolean loaded;
+        volatile long loadedAt;
+        volatile long lastUsed;
+    }
+
+    private final InvoiceRepository invoiceRepository;
+    private final ConcurrentHashMap<Long, Tenant> tenants = new ConcurrentHashMap<>();
+    private final long memoryBudgetBytes;
+    private final long maxAgeMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public InvoiceSearchService(InvoiceRepository invoiceRepository,
+                                @Value("${invoice.search.memory-budget-mb:64}") long memoryBudgetMb,
+                                @Value("${invoice.search.max-age-seconds:120}") long maxAgeSeconds) {
+        this.invoiceRepository = invoiceRepository;
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.maxAgeMs = maxAgeSeconds * 1000;
+    }
+
+    // -------------------------
+    // SEARCH
+    // -------------------------
+    public InvoiceSearchResultDTO search(User user, String query, int limit) {
+
+        Tenant tenant = tenants.computeIfAbsent(user.getId(), id -> new Tenant());
+        long now = System.currentTimeMillis();
+
+        // The index only grows, so a stale one is replaced, not reloaded in place
+        if (tenant.loaded && maxAgeMs > 0 && now - tenant.loadedAt > maxAgeMs) {
+            Tenant fresh = new Tenant();
+            tenant = tenants.replace(user.getId(), tenant, fresh)
+                    ? fresh
+                    : tenants.computeIfAbsent(user.getId(), id -> new Tenant());
+        }
+        tenant.lastUsed = now;
+
+        if (tenant.loaded) {
+            hits.increment();
+        } else {
+            load(user.getId(), tenant);
+        }
+
+        InvoiceSearchIndex.Result result = tenant.index.search(query, limit);
+
+        List<InvoiceResponseDTO> invoices = new ArrayList<>(result.invoices().size());
+        for (InvoiceSearchIndex.Hit hit : result.invoices()) {
+            InvoiceResponseDTO dto = new InvoiceResponseDTO();
+            dto.setId(hit.id());
+            dto.setInvoiceNumber(hit.invoiceNumber());
+            dto.setCustomerName(hit.customerName());
+            dto.setTotalAmountMinor(hit.totalAmountMinor());
+            dto.setStatus(hit.status());
+            dto.setCreatedAt(hit.createdAt());
+            invoices.add(dto);
+        }
+
+        InvoiceSearchResultDTO dto = new InvoiceSearchResultDTO();
+        dto.setInvoices(invoices);
+        dto.setCustomers(result.customers());
+        return dto;
+    }
+
+    // Concurrent first searches of one tenant share a single load. Invoices
+    // committed meanwhile are added directly and skipped by the load.
+    private void load(Long userId, Tenant tenant) {
+
+        synchronized (tenant) {
+            if (tenant.loaded) {
+                return;
+            }
+            for (InvoiceSummary row : invoiceRepository.findAllSummariesByUserId(userId)) {
+                tenant.index.add(row.getId(), row.getInvoiceNumber(), row.getCustomerName(),
+                        row.getTotalAmountMinor(), row.getCreatedAt(), row.getStatus());
+            }
+            tenant.loadedAt = System.currentTimeMillis();
+            tenant.loaded = true;
+            loads.increment();
+        }
+        enforceBudget();
+    }
+
+    // -------------------------
+    // INCREMENTAL UPDATES
+    // -------------------------
+
+    // Called inside the creating transaction; applied only once it commits.
+    // Tenants without an index are skipped, their next search loads it.
+    public void invoiceCreated(Invoice invoice) {
+
+        Long userId = invoice.getUser().getId();
+        Long id = invoice.getId();
+        String invoiceNumber = invoice.getInvoiceNumber();
+        String customerName = invoice.getCustomerName();
+        long totalAmountMinor = invoice.getTotalAmountMinor();
+        LocalDateTime createdAt = invoice.getCreatedAt();
+        InvoiceStatus status = invoice.getStatus();
+
+        afterCommit(() -> {
+            Tenant tenant = tenants.get(userId);
+            if (tenant != null) {
+                tenant.index.add(id, invoiceNumber, customerName, totalAmountMinor, createdAt, status);
+            }
+        });
+    }
+
+    public void statusChanged(Invoice invoice) {
+
+        Long userId = invoice.getUser().getId();
+        Long id = invoice.getId();
+        InvoiceStatus status = invoice.getStatus();
+
+        afterCommit(() -> {
+            Tenant tenant = tenants.get(userId);
+            if (tenant != null) {
+                tenant.index.updateStatus(id, status);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // -------------------------
+    // MEMORY BUDGET
+    // -------------------------
+
+    // Indexes also grow between loads, so the budget is rechecked periodically
+    @Scheduled(fixedDelayString = "${invoice.search.budget-check-ms:10000}")
+    public synchronized void enforceBudget() {
+
+        int evicted = MemoryBudget.enforce(tenants.entrySet(), memoryBudgetBytes,
+                entry -> entry.getValue().index.estimatedBytes(),
+                entry -> entry.getValue().lastUsed,
+                entry -> tenants.remove(entry.getKey(), entry.getValue())
+                        ? entry.getValue().index.estimatedBytes()
+                        : 0);
+        evictions.add(evicted);
+    }
+
+    public Stats stats() {
+
+        long invoices = 0;
+        long bytes = 0;
+        for (Tenant tenant : tenants.values()) {
+            invoices += tenant.index.size();
+            bytes += tenant.index.estimatedBytes();
+        }
+        return new Stats(tenants.size(), invoices, bytes, hits.sum(), loads.sum(), evictions.sum());
+    }
+}
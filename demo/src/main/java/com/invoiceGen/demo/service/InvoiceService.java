@@ -1,147 +1,371 @@
 package com.invoiceGen.demo.service;
 
 
+import com.invoiceGen.demo.dto.BulkInvoiceResultDTO;
+import com.invoiceGen.demo.dto.InvoicePageDTO;
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
 import com.invoiceGen.demo.dto.InvoiceRequestDTO;
+import com.invoiceGen.demo.dto.InvoiceResponseDTO;
 import com.invoiceGen.demo.entity.*;
 import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
 import com.invoiceGen.demo.repository.*;
+import com.invoiceGen.demo.util.InvoiceCursor;
+import com.invoiceGen.demo.util.Money;
 
-import com.invoiceGen.demo.util.PdfRequest;
-import com.invoiceGen.demo.util.PdfResponse;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
-import java.time.LocalDate;
-
-import java.util.UUID;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 @Service
 public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
-    private final InvoiceItemRepository invoiceItemRepository;
     private final ProductRepository productRepository;
-    private final RestTemplate restTemplate;
-
-    private static final double TAX_RATE = 0.18; // 18% GST
+    private final PdfOutboxService pdfOutboxService;
+    private final InvoiceNumberService invoiceNumberService;
+    private final TaxEngine taxEngine;
+    private final StockReservationService stockReservationService;
+    private final InvoiceSearchService invoiceSearchService;
+    private final InvoiceAnalyticsService invoiceAnalyticsService;
+    private final CustomerPaymentStatsService customerPaymentStatsService;
+    private final RevenueRollupService revenueRollupService;
+    private final EntityManager entityManager;
+
+    @Value("${invoice.pdf.batch-chunk-size:200}")
+    private int pdfBatchChunkSize;
 
     public InvoiceService(
             InvoiceRepository invoiceRepository,
-            InvoiceItemRepository invoiceItemRepository,
             ProductRepository productRepository,
-            RestTemplate restTemplate
+            PdfOutboxService pdfOutboxService,
+            InvoiceNumberService invoiceNumberService,
+            TaxEngine taxEngine,
+            StockReservationService stockReservationService,
+            InvoiceSearchService invoiceSearchService,
+            InvoiceAnalyticsService invoiceAnalyticsService,
+            CustomerPaymentStatsService customerPaymentStatsService,
+            RevenueRollupService revenueRollupService,
+            EntityManager entityManager
     ) {
         this.invoiceRepository = invoiceRepository;
-        this.invoiceItemRepository = invoiceItemRepository;
         this.productRepository = productRepository;
-        this.restTemplate = restTemplate;
+        this.pdfOutboxService = pdfOutboxService;
+        this.invoiceNumberService = invoiceNumberService;
+        this.taxEngine = taxEngine;
+        this.stockReservationService = stockReservationService;
+        this.invoiceSearchService = invoiceSearchService;
+        this.invoiceAnalyticsService = invoiceAnalyticsService;
+        this.customerPaymentStatsService = customerPaymentStatsService;
+        this.revenueRollupService = revenueRollupService;
+        this.entityManager = entityManager;
     }
 
     // -------------------------
     // CREATE INVOICE (SECURE)
     // -------------------------
+    @Transactional
     public Invoice createInvoice(User user, InvoiceRequestDTO request) {
 
+        // 1. Load + ownership-check all products in one query
+        Map<Long, Product> products =
+                findOwnedProducts(user, productIds(itemsOf(request)));
+
+        // 2. Build header, items and totals in memory
+        Invoice invoice = buildInvoice(user, request, products);
+
+        // 3. Reserve stock; released again if this transaction rolls back
+        stockReservationService.reserve(invoice);
+
+        // 4. Single save: header + items cascade in one batched flush
+        invoice = invoiceRepository.save(invoice);
+
+        // 5. Queue PDF rendering in the same transaction
+        pdfOutboxService.enqueue(invoice);
+        invoiceSearchService.invoiceCreated(invoice);
+        customerPaymentStatsService.invoicesCreated(List.of(invoice));
+        revenueRollupService.invoicesCreated(List.of(invoice));
+
+        return invoice;
+    }
+
+    // -------------------------
+    // BULK CREATE (ONE TRANSACTION PER BATCH)
+    // -------------------------
+    @Transactional
+    public List<BulkInvoiceResultDTO> createInvoiceBatch(User user,
+                                                         List<InvoiceRequestDTO> requests) {
+
+        // One product query for the whole batch
+        Set<Long> productIds = new HashSet<>();
+        for (InvoiceRequestDTO request : requests) {
+            productIds.addAll(productIds(itemsOf(request)));
+        }
+        Map<Long, Product> products = findOwnedProducts(user, productIds);
+
+        // Bad records are reported, not allowed to roll back the batch
+        Invoice[] built = new Invoice[requests.size()];
+        String[] errors = new String[requests.size()];
+        List<Invoice> invoices = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                Invoice invoice = buildInvoice(user, requests.get(i), products);
+                stockReservationService.reserve(invoice);
+                built[i] = invoice;
+                invoices.add(invoice);
+            } catch (RuntimeException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+
+        invoiceRepository.saveAll(invoices);
+        invoices.forEach(pdfOutboxService::enqueue);
+        invoices.forEach(invoiceSearchService::invoiceCreated);
+        customerPaymentStatsService.invoicesCreated(invoices);
+        revenueRollupService.invoicesCreated(invoices);
+
+        // Keep the persistence context from growing across batches
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BulkInvoiceResultDTO> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BulkInvoiceResultDTO result = new BulkInvoiceResultDTO();
+            if (built[i] != null) {
+                result.setStatus(BulkInvoiceResultDTO.CREATED);
+                result.setInvoiceId(built[i].getId());
+                result.setInvoiceNumber(built[i].getInvoiceNumber());
+            } else {
+                result.setStatus(BulkInvoiceResultDTO.FAILED);
+                result.setError(errors[i]);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    // -------------------------
+    // BUILD (NO DATABASE WRITES)
+    // -------------------------
+    private Invoice buildInvoice(User user, InvoiceRequestDTO request,
+                                 Map<Long, Product> products) {
+
         InvoiceStatus status =
                 request.getStatus() != null
                         ? request.getStatus()
                         : InvoiceStatus.UNPAID;
-        // 1. Create invoice header
+
+        if (status == InvoiceStatus.CANCELLED) {
+            throw new RuntimeException("Invalid status");
+        }
+
+        List<InvoiceRequestDTO.Item> itemDtos = itemsOf(request);
+
         Invoice invoice = Invoice.builder()
                 .user(user)
-                .invoiceNumber(generateInvoiceNumber())
+                .invoiceNumber(invoiceNumberService.nextInvoiceNumber(user.getId()))
                 .customerName(request.getCustomerName())
                 .dueDate(request.getDueDate())
                 .status(status) // always controlled by backend
+                .paidAt(status == InvoiceStatus.PAID ? LocalDateTime.now() : null)
+                .pdfStatus(PdfStatus.PENDING)
                 .build();
 
-        invoice = invoiceRepository.save(invoice);
+        boolean interState = Boolean.TRUE.equals(request.getInterState());
 
-        double subtotal = 0.0;
+        List<InvoiceItem> items = new ArrayList<>(itemDtos.size());
+        TaxEngine.Totals totals = new TaxEngine.Totals();
 
-        // 2. Create invoice items
-        for (InvoiceRequestDTO.Item itemDto : request.getItems()) {
+        for (InvoiceRequestDTO.Item itemDto : itemDtos) {
 
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            Product product = ownedProduct(products, itemDto.getProductId());
 
-            // 🔐 SECURITY CHECK: product must belong to user
-            if (!product.getUser().getId().equals(user.getId())) {
-                throw new RuntimeException("Unauthorized product access");
+            if (itemDto.getQuantity() == null || itemDto.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity");
             }
 
-            double price = product.getPrice(); // always from DB
+            long price = product.getPriceMinor(); // always from DB
             int quantity = itemDto.getQuantity();
-            double lineTotal = price * quantity;
-
-            subtotal += lineTotal;
+            long lineTotal = Money.times(price, quantity);
+            long lineTax = taxEngine.addLine(totals, lineTotal, product.getTaxSlab(), interState);
 
             InvoiceItem invoiceItem = new InvoiceItem();
             invoiceItem.setInvoice(invoice);
             invoiceItem.setProduct(product);
             invoiceItem.setQuantity(quantity);
-            invoiceItem.setPrice(price);
-            invoiceItem.setTotal(lineTotal);
+            invoiceItem.setPriceMinor(price);
+            invoiceItem.setTotalMinor(lineTotal);
+            invoiceItem.setTaxMinor(lineTax);
+            invoiceItem.setTaxRateBasisPoints(taxEngine.rateBasisPoints(product.getTaxSlab()));
 
-            invoiceItemRepository.save(invoiceItem);
+            items.add(invoiceItem);
         }
 
-        // 3. Calculate totals (backend is source of truth)
-        double tax = subtotal * TAX_RATE;
-        double totalAmount = subtotal + tax;
+        // Backend is source of truth for totals
+        invoice.setSubtotalMinor(totals.subtotal());
+        invoice.setCgstMinor(totals.cgst());
+        invoice.setSgstMinor(totals.sgst());
+        invoice.setIgstMinor(totals.igst());
+        invoice.setTaxMinor(totals.tax());
+        invoice.setTotalAmountMinor(totals.total());
+        invoice.setItems(items);
 
-        invoice.setSubtotal(subtotal);
-        invoice.setTax(tax);
-        invoice.setTotalAmount(totalAmount);
+        return invoice;
+    }
 
-        invoice = invoiceRepository.save(invoice);
+    private List<InvoiceRequestDTO.Item> itemsOf(InvoiceRequestDTO request) {
+        return request.getItems() != null ? request.getItems() : List.of();
+    }
 
-        // 4. Generate invoice PDF
-        String pdfUrl = generateInvoicePdf(invoice);
+    private Set<Long> productIds(List<InvoiceRequestDTO.Item> itemDtos) {
+        Set<Long> productIds = new HashSet<>();
+        for (InvoiceRequestDTO.Item itemDto : itemDtos) {
+            if (itemDto.getProductId() != null) {
+                productIds.add(itemDto.getProductId().longValue());
+            }
+        }
+        return productIds;
+    }
+
+    private Map<Long, Product> findOwnedProducts(User user, Set<Long> productIds) {
+
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findOwnedByIds(productIds, user.getId())) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    private Product ownedProduct(Map<Long, Product> products, Integer productId) {
 
-        invoice.setPdfUrl(pdfUrl);
+        Product product = productId != null ? products.get(productId.longValue()) : null;
+        if (product != null) {
+            return product;
+        }
 
-        return invoiceRepository.save(invoice);
+        // Missing is either unknown or owned by someone else
+        // 🔐 SECURITY CHECK: product must belong to user
+        if (productId != null && productRepository.existsById(productId)) {
+            throw new RuntimeException("Unauthorized product access");
+        }
+        throw new RuntimeException("Product not found");
     }
 
     // -------------------------
-    // PYTHON INVOICE GENERATOR
+    // LISTING (KEYSET PAGINATION)
     // -------------------------
-    private String generateInvoicePdf(Invoice invoice) {
+    @Transactional(readOnly = true)
+    public InvoicePageDTO listInvoices(User user, InvoiceListFilter filter,
+                                       String cursor, int limit) {
+
+        InvoiceListFilter.Order order = filter.order();
+        InvoiceCursor after = cursor != null ? InvoiceCursor.decode(cursor, order) : null;
+
+        // One extra row tells whether another page exists
+        List<InvoiceListRow> rows = invoiceRepository.findPage(user.getId(), filter, after, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
 
-        String pythonServiceUrl = "http://localhost:5000/generate-invoice";
+        List<InvoiceResponseDTO> items = new ArrayList<>(rows.size());
+        for (InvoiceListRow row : rows) {
+            InvoiceResponseDTO dto = new InvoiceResponseDTO();
+            dto.setId(row.getId());
+            dto.setInvoiceNumber(row.getInvoiceNumber());
+            dto.setCustomerName(row.getCustomerName());
+            dto.setTotalAmountMinor(row.getTotalAmountMinor());
+            dto.setStatus(row.getStatus());
+            dto.setCreatedAt(row.getCreatedAt());
+            dto.setDueDate(row.getDueDate());
+            items.add(dto);
+        }
+
+        InvoicePageDTO page = new InvoicePageDTO();
+        page.setItems(items);
+        page.setSort(order.sort());
+        if (hasMore) {
+            page.setNextCursor(InvoiceCursor.after(order, rows.get(rows.size() - 1)).encode());
+        }
+        return page;
+    }
 
-        PdfRequest payload = new PdfRequest(invoice.getId());
+    // -------------------------
+    // STATUS
+    // -------------------------
+    @Transactional
+    public Invoice updateStatus(Long id, InvoiceStatus status) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (status == null) {
+            throw new RuntimeException("Invalid status");
+        }
 
-        HttpEntity<PdfRequest> requestEntity =
-                new HttpEntity<>(payload, headers);
+        Invoice invoice = invoiceRepository.findWithItemsById(id)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
-        PdfResponse response = restTemplate.postForObject(
-                pythonServiceUrl,
-                requestEntity,
-                PdfResponse.class
-        );
+        InvoiceStatus current = invoice.getStatus();
+        if (current == status) {
+            return invoice;
+        }
+        if (current == InvoiceStatus.CANCELLED) {
+            throw new RuntimeException("Cancelled invoices cannot be reopened");
+        }
 
-        if (response == null || response.getPdfUrl() == null) {
-            throw new RuntimeException("Failed to generate invoice PDF");
+        // Conditional update: of two concurrent cancels only one releases stock
+        LocalDateTime paidBefore = invoice.getPaidAt();
+        LocalDateTime paidAt = status == InvoiceStatus.PAID ? LocalDateTime.now() : null;
+        if (invoiceRepository.compareAndSetStatus(id, current, status, paidAt) == 0) {
+            throw new RuntimeException("Invoice was modified concurrently");
         }
+        invoice.setStatus(status);
+        invoice.setPaidAt(paidAt);
 
-        return response.getPdfUrl();
+        if (status == InvoiceStatus.CANCELLED) {
+            stockReservationService.release(invoice);
+        }
+        customerPaymentStatsService.statusChanged(invoice, current, paidBefore);
+        revenueRollupService.statusChanged(invoice, current, paidBefore);
+        invoiceSearchService.statusChanged(invoice);
+        invoiceAnalyticsService.invalidate(id);
+        return invoice;
     }
 
     // -------------------------
-    // INVOICE NUMBER GENERATOR
+    // PDF DATA
     // -------------------------
-    private String generateInvoiceNumber() {
-        return "INV-" + LocalDate.now().getYear() + "-" +
-                UUID.randomUUID()
-                        .toString()
-                        .substring(0, 6)
-                        .toUpperCase();
+    @Transactional(readOnly = true)
+    public InvoicePdfDTO getInvoicePdfData(Long id) {
+
+        List<InvoicePdfDTO> found = invoiceRepository.findPdfData(List.of(id));
+        if (found.isEmpty()) {
+            throw new RuntimeException("Invoice not found");
+        }
+        return found.get(0);
+    }
+
+    // Batch variant for re-render and migration jobs: one statement per
+    // chunk, each chunk handed on before the next is read. Not one
+    // transaction, so a long stream holds no connection between chunks.
+    public void forEachInvoicePdfData(List<Long> ids, Consumer<InvoicePdfDTO> consumer) {
+
+        for (int from = 0; from < ids.size(); from += pdfBatchChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + pdfBatchChunkSize, ids.size()));
+            invoiceRepository.findPdfData(chunk).forEach(consumer);
+        }
     }
 }
@@ -0,0 +1,153 @@
+package com.invoiceGen.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// BCrypt runs on its own small pool. A request thread only waits while its
+// hash is queued or running, and at most workers + queue-capacity requests
+// can be waiting; everything beyond that is rejected at once with
+// BusyException (503), so a login storm cannot drain the Tomcat pool that
+// invoice traffic also uses.
+@Service
+public class PasswordHashingService {
+
+    public static class BusyException extends RuntimeException {
+        public BusyException() {
+            super("Authentication is busy, please retry");
+        }
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public PasswordHashingService(BCryptPasswordEncoder encoder,
+                                  @Value("${auth.bcrypt.workers:0}") int workers,
+                                  @Value("${auth.bcrypt.queue-capacity:32}") int queueCapacity,
+                                  @Value("${auth.bcrypt.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = encoder;
+        this.timeoutMs = timeoutMs;
+
+        // Default: half the cores, leaving the rest for request handling
+        int threads = workers > 0
+                ? workers
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public String encode(String rawPassword) {
+        return await(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // Bulk path (onboarding). At most `workers` hashes are in flight, so the
+    // queue keeps room for interactive logins while a batch is hashed.
+    public List<String> encodeAll(List<String> rawPasswords) {
+
+        Semaphore inFlight = new Semaphore(executor.getCorePoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+
+        try {
+            for (String rawPassword : rawPasswords) {
+                inFlight.acquireUninterruptibly();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return encoder.encode(rawPassword);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw new BusyException();
+                }
+            }
+
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    // Stored hash has a lower cost than the current configuration
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Background rehash; skipped under load and retried on a later login
+    public void rehashLater(String rawPassword, Consumer<String> store) {
+        try {
+            executor.execute(() -> store.accept(encoder.encode(rawPassword)));
+        } catch (RejectedExecutionException ignored) {
+            // pool is saturated; not worth a 503
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new BusyException();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,142 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.PdfRenderTask;
+import com.invoiceGen.demo.enums.OutboxStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.repository.PdfRenderTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class PdfOutboxService {
+
+    private final PdfRenderTaskRepository taskRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    @Value("${pdf.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${pdf.outbox.backoff-base-ms:2000}")
+    private long backoffBaseMs;
+
+    @Value("${pdf.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${pdf.outbox.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    public PdfOutboxService(PdfRenderTaskRepository taskRepository,
+                            InvoiceRepository invoiceRepository) {
+        this.taskRepository = taskRepository;
+        this.invoiceRepository = invoiceRepository;
+    }
+
+    // -------------------------
+    // ENQUEUE (CALLER'S TRANSACTION)
+    // -------------------------
+    @Transactional
+    public void enqueue(Invoice invoice) {
+        taskRepository.save(PdfRenderTask.builder()
+                .invoiceId(invoice.getId())
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    // Re-enqueue an invoice whose render gave up earlier. Only the caller
+    // that moves it from FAILED to PENDING queues a task, replacing the
+    // failed one(s), so repeated or concurrent retries queue one render.
+    // False when the invoice's PDF had not failed.
+    @Transactional
+    public boolean retry(Invoice invoice) {
+        if (invoiceRepository.compareAndSetPdfStatus(
+                invoice.getId(), PdfStatus.FAILED, PdfStatus.PENDING) == 0) {
+            return false;
+        }
+        taskRepository.deleteFailed(invoice.getId());
+        enqueue(invoice);
+        return true;
+    }
+
+    // -------------------------
+    // WORKER SIDE
+    // -------------------------
+    public List<PdfRenderTask> findDue(int limit) {
+        return taskRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public boolean claim(Long taskId) {
+        return taskRepository.claim(taskId, LocalDateTime.now()) == 1;
+    }
+
+    @Transactional
+    public int requeueStale() {
+        return taskRepository.requeueStale(
+                LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000));
+    }
+
+    @Transactional
+    public void markDone(PdfRenderTask task, String pdfHash) {
+        String pdfUrl = "/api/invoices/" + task.getInvoiceId() + "/pdf";
+        invoiceRepository.updatePdf(task.getInvoiceId(), pdfUrl, pdfHash, PdfStatus.READY);
+        taskRepository.deleteById(task.getId());
+    }
+
+    @Transactional
+    public void markAttemptFailed(Long taskId, String error) {
+
+        PdfRenderTask task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) {
+            return;
+        }
+
+        int attempts = task.getAttempts() + 1;
+        task.setAttempts(attempts);
+        task.setLockedAt(null);
+        task.setLastError(truncate(error));
+
+        if (attempts >= maxAttempts) {
+            task.setStatus(OutboxStatus.FAILED);
+            invoiceRepository.updatePdf(task.getInvoiceId(), null, null, PdfStatus.FAILED);
+        } else {
+            task.setStatus(OutboxStatus.PENDING);
+            task.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000));
+        }
+
+        taskRepository.save(task);
+    }
+
+    // Handing a claimed task back without counting an attempt
+    @Transactional
+    public void release(Long taskId) {
+        taskRepository.findById(taskId).ifPresent(task -> {
+            task.setStatus(OutboxStatus.PENDING);
+            task.setLockedAt(null);
+            taskRepository.save(task);
+        });
+    }
+
+    // Exponential backoff with up to 20% jitter
+    private long backoffMs(int attempts) {
+        long delay = backoffBaseMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, backoffMaxMs);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,95 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.PdfRenderTask;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains the PDF outbox on a bounded pool, off the request threads
+@Component
+public class PdfOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfOutboxWorker.class);
+
+    private final PdfOutboxService outboxService;
+    private final PdfRenderService renderService;
+    private final ThreadPoolExecutor executor;
+
+    public PdfOutboxWorker(PdfOutboxService outboxService,
+                           PdfRenderService renderService,
+                           @Value("${pdf.outbox.workers:4}") int workers,
+                           @Value("${pdf.outbox.queue-capacity:64}") int queueCapacity) {
+        this.outboxService = outboxService;
+        this.renderService = renderService;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // -------------------------
+    // POLL OUTBOX
+    // -------------------------
+    @Scheduled(fixedDelayString = "${pdf.outbox.poll-interval-ms:500}")
+    public void drain() {
+
+        int requeued = outboxService.requeueStale();
+        if (requeued > 0) {
+            logger.warn("Requeued {} stale PDF render tasks", requeued);
+        }
+
+        // Only pull as much as the pool can actually accept
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        for (PdfRenderTask task : outboxService.findDue(capacity)) {
+
+            if (!outboxService.claim(task.getId())) {
+                continue; // another worker got it
+            }
+
+            try {
+                executor.execute(() -> process(task));
+            } catch (RejectedExecutionException e) {
+                outboxService.release(task.getId());
+                return;
+            }
+        }
+    }
+
+    private void process(PdfRenderTask task) {
+        try {
+            String pdfHash = renderService.renderPdf(task.getInvoiceId());
+            outboxService.markDone(task, pdfHash);
+        } catch (Exception e) {
+            logger.warn("PDF render failed for invoice {} (attempt {}): {}",
+                    task.getInvoiceId(), task.getAttempts() + 1, e.getMessage());
+            outboxService.markAttemptFailed(task.getId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,146 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.pdf.JavaPdfRenderer;
+import com.invoiceGen.demo.pdf.PdfContentHash;
+import com.invoiceGen.demo.pdf.PdfRenderCache;
+import com.invoiceGen.demo.pdf.PdfRenderer;
+import com.invoiceGen.demo.pdf.PythonPdfRenderer;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Service
+public class PdfRenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfRenderService.class);
+
+    private final InvoiceService invoiceService;
+    private final InvoiceRepository invoiceRepository;
+    private final PdfRenderCache renderCache;
+    private final PdfRenderer primary;
+    private final PdfRenderer fallback;
+
+    public PdfRenderService(InvoiceService invoiceService,
+                            InvoiceRepository invoiceRepository,
+                            PdfRenderCache renderCache,
+                            JavaPdfRenderer javaPdfRenderer,
+                            PythonPdfRenderer pythonPdfRenderer,
+                            @Value("${pdf.renderer:java}") String renderer,
+                            @Value("${pdf.python-fallback:true}") boolean pythonFallback) {
+        this.invoiceService = invoiceService;
+        this.invoiceRepository = invoiceRepository;
+        this.renderCache = renderCache;
+        boolean python = "python".equalsIgnoreCase(renderer);
+        this.primary = python ? pythonPdfRenderer : javaPdfRenderer;
+        this.fallback = !python && pythonFallback ? pythonPdfRenderer : null;
+    }
+
+    // -------------------------
+    // RENDER (OUTBOX WORKER)
+    // -------------------------
+
+    // Returns the content hash; unchanged content is served from the cache
+    public String renderPdf(Long invoiceId) {
+
+        InvoicePdfDTO invoice = invoiceService.getInvoicePdfData(invoiceId);
+        String hash = PdfContentHash.of(invoice);
+
+        render(hash, invoice);
+        return hash;
+    }
+
+    // -------------------------
+    // SERVE (DOWNLOAD ENDPOINT)
+    // -------------------------
+    public record PdfFile(String hash, Path file) {
+    }
+
+    public PdfFile getPdfFile(Invoice invoice) {
+
+        if (invoice.getPdfHash() != null) {
+            Path file = renderCache.getFile(invoice.getPdfHash());
+            if (file != null) {
+                return new PdfFile(invoice.getPdfHash(), file);
+            }
+        }
+
+        // Evicted, or rendered before the cache existed
+        InvoicePdfDTO data = invoiceService.getInvoicePdfData(invoice.getId());
+        String hash = PdfContentHash.of(data);
+
+        try {
+            Path file = renderCache.getOrRenderFile(hash, data, this::renderWithFallback);
+
+            // Next request can answer If-None-Match without rebuilding the DTO
+            if (!hash.equals(invoice.getPdfHash())) {
+                invoiceRepository.updatePdf(invoice.getId(),
+                        "/api/invoices/" + invoice.getId() + "/pdf", hash, PdfStatus.READY);
+            }
+            return new PdfFile(hash, file);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render invoice PDF", e);
+        }
+    }
+
+    public record PdfBytes(String hash, byte[] bytes) {
+    }
+
+    // For a PdfFile whose file went away before it was opened: the cached
+    // bytes if still held, else a fresh render of the current content
+    public PdfBytes getPdfBytes(Invoice invoice, String hash) {
+
+        byte[] cached = renderCache.get(hash);
+        if (cached != null) {
+            return new PdfBytes(hash, cached);
+        }
+
+        InvoicePdfDTO data = invoiceService.getInvoicePdfData(invoice.getId());
+        String current = PdfContentHash.of(data);
+        try {
+            return new PdfBytes(current,
+                    renderCache.getOrRender(current, data, this::renderWithFallback));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render invoice PDF", e);
+        }
+    }
+
+    private void render(String hash, InvoicePdfDTO invoice) {
+        try {
+            renderCache.getOrRender(hash, invoice, this::renderWithFallback);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render invoice PDF", e);
+        }
+    }
+
+    private void renderWithFallback(InvoicePdfDTO invoice, OutputStream out) throws IOException {
+
+        if (fallback == null) {
+            primary.render(invoice, out);
+            return;
+        }
+
+        // Buffer so a half-written primary render never leaks into the output
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        try {
+            primary.render(invoice, buffer);
+        } catch (Exception e) {
+            logger.warn("Java PDF render failed for invoice {}, using Python service: {}",
+                    invoice.getInvoiceId(), e.getMessage());
+            buffer.reset();
+            fallback.render(invoice, buffer);
+        }
+        buffer.writeTo(out);
+    }
+}
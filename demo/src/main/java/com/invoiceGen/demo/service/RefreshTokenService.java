@@ -0,0 +1,126 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.RefreshToken;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.repository.RefreshTokenRepository;
+import com.invoiceGen.demo.repository.UserRepository;
+import com.invoiceGen.demo.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Long-lived opaque refresh tokens that rotate on every use. Presenting a
+// token that was already rotated means it leaked, so the whole family is
+// revoked and the client has to log in again.
+@Service
+public class RefreshTokenService {
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final long ttlDays;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtUtil jwtUtil,
+                               @Value("${auth.refresh-token.ttl-days:30}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.ttlDays = ttlDays;
+    }
+
+    // -------------------------
+    // ISSUE (LOGIN)
+    // -------------------------
+    @Transactional
+    public TokenPair issue(User user) {
+        return issue(user, random.nextLong());
+    }
+
+    // -------------------------
+    // ROTATE (REFRESH)
+    // -------------------------
+
+    // Empty when the token is unknown, expired, revoked or reused
+    @Transactional
+    public Optional<TokenPair> rotate(String refreshToken) {
+
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElse(null);
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        if (current.isRevoked()) {
+            // Reuse of a rotated token: assume it was stolen
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+
+        User user = userRepository.findById(current.getUserId().intValue()).orElse(null);
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        current.setRevoked(true);
+        return Optional.of(issue(user, current.getFamilyId()));
+    }
+
+    // -------------------------
+    // REVOKE (LOGOUT)
+    // -------------------------
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    @Scheduled(cron = "${auth.refresh-token.cleanup-cron:0 30 3 * * *}")
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private TokenPair issue(User user, long familyId) {
+
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(user.getId())
+                .tokenHash(hash(refreshToken))
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusDays(ttlDays))
+                .build());
+
+        return new TokenPair(jwtUtil.generateToken(user), refreshToken);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
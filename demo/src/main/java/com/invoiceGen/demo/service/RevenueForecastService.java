@@ -0,0 +1,275 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.dto.RevenueForecastDTO;
+import com.invoiceGen.demo.util.HoltWinters;
+import com.invoiceGen.demo.util.Money;
+import com.invoiceGen.demo.util.RevenueSeries;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Revenue and collection forecasts per tenant: one Holt-Winters model over
+// monthly invoiced totals and one over monthly paid totals, with a yearly
+// season. Only completed months are folded in, each exactly once, so a
+// forecast stays valid (and cached) until the next month closes or an
+// already folded month is revised, e.g. by cancelling an old invoice. A
+// revision drops the tenant's models and the next forecast refits them.
+// Revisions are only announced for commits in this JVM, so a forecast is
+// also refitted once it is revenue.forecast.max-age-seconds old, picking up
+// revisions made through other nodes (0 turns that off: single node only).
+@Service
+public class RevenueForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueForecastService.class);
+
+    private static final int SEASON_MONTHS = 12;
+
+    // Tenants per fork/join leaf
+    private static final int TENANTS_PER_TASK = 16;
+
+    public record Stats(long tenants, long forecasts, long cacheHits, long refits,
+                        boolean running, long lastRunTenants, long lastRunFailed,
+                        long lastRunMs) {
+    }
+
+    // Guarded by its own monitor
+    private static final class TenantModel {
+        HoltWinters invoiced;
+        HoltWinters collected;
+        YearMonth foldedThrough;     // last month folded in, null before the first fit
+        RevenueForecastDTO forecast; // for foldedThrough
+        long fittedAt;               // when the models were last refitted from scratch
+    }
+
+    private final RevenueRollupService revenueRollupService;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int horizonMonths;
+    private final long maxAgeMs;
+    private final ForkJoinPool pool;
+
+    private final ConcurrentHashMap<Long, TenantModel> models = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder forecasts = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder refits = new LongAdder();
+    private volatile long lastRunTenants;
+    private volatile long lastRunFailed;
+    private volatile long lastRunMs;
+
+    public RevenueForecastService(RevenueRollupService revenueRollupService,
+                                  @Value("${revenue.forecast.alpha:0.3}") double alpha,
+                                  @Value("${revenue.forecast.beta:0.1}") double beta,
+                                  @Value("${revenue.forecast.gamma:0.2}") double gamma,
+                                  @Value("${revenue.forecast.horizon-months:6}") int horizonMonths,
+                                  @Value("${revenue.forecast.max-age-seconds:600}") long maxAgeSeconds,
+                                  @Value("${revenue.forecast.parallelism:4}") int parallelism) {
+        this.revenueRollupService = revenueRollupService;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.horizonMonths = horizonMonths;
+        this.maxAgeMs = maxAgeSeconds * 1000;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    // -------------------------
+    // FORECAST (ONE TENANT)
+    // -------------------------
+    public RevenueForecastDTO forecast(Long userId) {
+        return forecast(userId, YearMonth.now().minusMonths(1));
+    }
+
+    // Folds in the months completed since the last call, then forecasts
+    // from the month after lastCompleted
+    private RevenueForecastDTO forecast(Long userId, YearMonth lastCompleted) {
+
+        TenantModel model = models.computeIfAbsent(userId, id -> new TenantModel());
+        synchronized (model) {
+            long now = System.currentTimeMillis();
+            if (maxAgeMs > 0 && now - model.fittedAt > maxAgeMs) {
+                model.foldedThrough = null;
+            }
+            if (model.forecast != null && lastCompleted.equals(model.foldedThrough)) {
+                cacheHits.increment();
+                return model.forecast;
+            }
+
+            YearMonth from;
+            if (model.foldedThrough == null) {
+                model.invoiced = new HoltWinters(alpha, beta, gamma, SEASON_MONTHS);
+                model.collected = new HoltWinters(alpha, beta, gamma, SEASON_MONTHS);
+                model.fittedAt = now;
+                from = revenueRollupService.firstMonth(userId);
+                refits.increment();
+            } else if (model.invoiced.observed() == 0) {
+                // No leading empty months before the tenant's first invoice
+                from = revenueRollupService.firstMonth(userId);
+            } else {
+                from = model.foldedThrough.plusMonths(1);
+            }
+
+            try {
+                if (from != null && !from.isAfter(lastCompleted)) {
+                    for (RevenueSeries.Bucket month : revenueRollupService.months(userId, from, lastCompleted)) {
+                        model.invoiced.observe(month.invoicedMinor());
+                        model.collected.observe(month.paidMinor());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Nothing tells how far the fold got: refit next time
+                model.foldedThrough = null;
+                model.forecast = null;
+                throw e;
+            }
+            model.foldedThrough = lastCompleted;
+            model.forecast = toDto(model, lastCompleted);
+            forecasts.increment();
+            return model.forecast;
+        }
+    }
+
+    private RevenueForecastDTO toDto(TenantModel model, YearMonth lastCompleted) {
+
+        List<RevenueForecastDTO.Month> months = new ArrayList<>(horizonMonths);
+        for (int step = 1; step <= horizonMonths; step++) {
+            RevenueForecastDTO.Month month = new RevenueForecastDTO.Month();
+            month.setMonth(lastCompleted.plusMonths(step).toString());
+            // Negative revenue is not a forecast anyone can use
+            month.setInvoiced(Money.toMajor(Math.max(0, Math.round(model.invoiced.forecast(step)))));
+            month.setCollected(Money.toMajor(Math.max(0, Math.round(model.collected.forecast(step)))));
+            months.add(month);
+        }
+
+        RevenueForecastDTO dto = new RevenueForecastDTO();
+        dto.setBasedOnMonthsThrough(lastCompleted.toString());
+        dto.setMonthsObserved(model.invoiced.observed());
+        dto.setSeasonal(model.invoiced.observed() >= SEASON_MONTHS);
+        dto.setMonths(months);
+        dto.setGeneratedAt(LocalDateTime.now());
+        return dto;
+    }
+
+    // -------------------------
+    // INVALIDATION
+    // -------------------------
+
+    // Changes in the open month are folded in once it closes; changes to a
+    // folded month need a refit
+    @EventListener
+    public void rollupChanged(RevenueRollupService.Changed changed) {
+
+        TenantModel model = models.get(changed.userId());
+        if (model == null) {
+            return;
+        }
+        synchronized (model) {
+            if (model.foldedThrough != null
+                    && !YearMonth.from(changed.firstDay()).isAfter(model.foldedThrough)) {
+                model.invoiced = null;
+                model.collected = null;
+                model.foldedThrough = null;
+                model.forecast = null;
+            }
+        }
+    }
+
+    // -------------------------
+    // ALL TENANTS (FORK/JOIN)
+    // -------------------------
+
+    // Right after month end, so dashboards find the new month folded in
+    @Scheduled(cron = "${revenue.forecast.cron:0 30 1 1 * *}")
+    public void forecastAll() {
+
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            YearMonth lastCompleted = YearMonth.now().minusMonths(1);
+            List<Long> userIds = revenueRollupService.tenantIds();
+
+            LongAdder failed = new LongAdder();
+            pool.invoke(new ForecastTask(userIds, 0, userIds.size(), lastCompleted, failed));
+
+            lastRunTenants = userIds.size();
+            lastRunFailed = failed.sum();
+            lastRunMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            logger.info("Revenue forecasts through {}: {} tenants, {} failed, {} ms",
+                    lastCompleted, lastRunTenants, lastRunFailed, lastRunMs);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Halves the tenant range until it is small enough to run. Leaves block
+    // on the database only when a tenant's rollups are not in memory.
+    private final class ForecastTask extends RecursiveAction {
+
+        private final List<Long> userIds;
+        private final int from;
+        private final int to;
+        private final YearMonth lastCompleted;
+        private final LongAdder failed;
+
+        ForecastTask(List<Long> userIds, int from, int to, YearMonth lastCompleted, LongAdder failed) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.lastCompleted = lastCompleted;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= TENANTS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        forecast(userIds.get(i), lastCompleted);
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                        logger.warn("Revenue forecast for tenant {} failed: {}",
+                                userIds.get(i), e.getMessage());
+                    }
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForecastTask(userIds, from, middle, lastCompleted, failed),
+                    new ForecastTask(userIds, middle, to, lastCompleted, failed));
+        }
+    }
+
+    // -------------------------
+    // METRICS
+    // -------------------------
+    public Stats stats() {
+        return new Stats(models.size(), forecasts.sum(), cacheHits.sum(), refits.sum(),
+                running.get(), lastRunTenants, lastRunFailed, lastRunMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,433 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.dto.RevenueDashboardDTO;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.RevenueRollup;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.repository.RevenueRollupRepository;
+import com.invoiceGen.demo.util.MemoryBudget;
+import com.invoiceGen.demo.util.Money;
+import com.invoiceGen.demo.util.RevenueSeries;
+import com.invoiceGen.demo.util.TenantRebuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Revenue and cash-flow rollups for dashboards. Every invoice write adds
+// its per-day difference to revenue_rollup in the invoice's transaction
+// and, once committed, to the tenant's in-memory RevenueSeries. A series is
+// loaded from revenue_rollup on the tenant's first dashboard query, so no
+// query reads invoice rows; the least recently used series are dropped
+// when they outgrow the memory budget.
+//
+// Only commits made in this JVM reach a cached series. Writes through other
+// nodes show up when the series is reloaded, at the latest
+// revenue.rollup.max-age-seconds after it was loaded (0 keeps it until it
+// is evicted, which is only correct on a single node).
+@Service
+public class RevenueRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    private static final String UPSERT =
+            "insert into revenue_rollup (user_id, rollup_date, invoiced_minor, tax_minor, " +
+            "paid_minor, updated_at) values (?, ?, ?, ?, ?, ?) " +
+            "on duplicate key update " +
+            "invoiced_minor = invoiced_minor + values(invoiced_minor), " +
+            "tax_minor = tax_minor + values(tax_minor), " +
+            "paid_minor = paid_minor + values(paid_minor), " +
+            "updated_at = values(updated_at)";
+
+    // Same attribution as contribute(): invoiced on the creation day, paid
+    // on the payment day (creation day for invoices paid before paidAt existed)
+    private static final String REBUILD_INVOICED =
+            "insert into revenue_rollup (user_id, rollup_date, invoiced_minor, tax_minor, " +
+            "paid_minor, updated_at) " +
+            "select user_id, date(created_at), sum(total_amount_minor), sum(tax_minor), 0, ? " +
+            "from invoice where user_id = ? and status <> 'CANCELLED' " +
+            "group by user_id, date(created_at)";
+
+    private static final String REBUILD_PAID =
+            "insert into revenue_rollup (user_id, rollup_date, invoiced_minor, tax_minor, " +
+            "paid_minor, updated_at) " +
+            "select user_id, date(coalesce(paid_at, created_at)), 0, 0, sum(total_amount_minor), ? " +
+            "from invoice where user_id = ? and status = 'PAID' " +
+            "group by user_id, date(coalesce(paid_at, created_at)) " +
+            "on duplicate key update paid_minor = values(paid_minor), " +
+            "updated_at = values(updated_at)";
+
+    public record Stats(long tenants, long loadedTenants, long days, long estimatedBytes,
+                        long hits, long loads, long evictions) {
+    }
+
+    public record RebuildResult(int tenants, long days, long elapsedMs) {
+    }
+
+    // Published after a tenant's rollups changed from firstDay on
+    public record Changed(Long userId, LocalDate firstDay) {
+    }
+
+    // series and pending are written under the tenant's monitor. pending counts
+    // writes between their row change and their commit: a series loaded
+    // while one is in flight may or may not include it, so it is used for
+    // that query only and not cached.
+    private static final class Tenant {
+        volatile RevenueSeries series;
+        volatile long loadedAt;
+        int pending;
+        volatile long lastUsed;
+    }
+
+    private final RevenueRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long memoryBudgetBytes;
+    private final long maxAgeMs;
+    private final int maxRangeDays;
+    private final TenantRebuilder rebuilder;
+
+    // Entries are never removed (a few dozen bytes each); eviction only
+    // drops their series
+    private final ConcurrentHashMap<Long, Tenant> tenants = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RevenueRollupService(RevenueRollupRepository rollupRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${revenue.rollup.memory-budget-mb:32}") long memoryBudgetMb,
+                                @Value("${revenue.rollup.max-age-seconds:60}") long maxAgeSeconds,
+                                @Value("${revenue.dashboard.max-range-days:3660}") int maxRangeDays,
+                                @Value("${revenue.rollup.rebuild.threads:4}") int rebuildThreads) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.maxAgeMs = maxAgeSeconds * 1000;
+        this.maxRangeDays = maxRangeDays;
+        this.rebuilder = new TenantRebuilder("revenue-rollup", rebuildThreads);
+    }
+
+    // -------------------------
+    // DASHBOARD
+    // -------------------------
+    public RevenueDashboardDTO dashboard(Long userId, LocalDate from, LocalDate to,
+                                         RevenueSeries.Granularity granularity) {
+
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new RuntimeException("Date range is longer than " + maxRangeDays + " days");
+        }
+
+        List<RevenueSeries.Bucket> buckets = series(userId).query(from, to, granularity);
+
+        List<RevenueDashboardDTO.Bucket> dtos = new ArrayList<>(buckets.size());
+        long invoiced = 0;
+        long tax = 0;
+        long paid = 0;
+        for (RevenueSeries.Bucket bucket : buckets) {
+            RevenueDashboardDTO.Bucket dto = new RevenueDashboardDTO.Bucket();
+            dto.setStart(bucket.start());
+            dto.setInvoiced(Money.toMajor(bucket.invoicedMinor()));
+            dto.setTax(Money.toMajor(bucket.taxMinor()));
+            dto.setPaid(Money.toMajor(bucket.paidMinor()));
+            dto.setOutstanding(Money.toMajor(bucket.outstandingMinor()));
+            dtos.add(dto);
+
+            invoiced += bucket.invoicedMinor();
+            tax += bucket.taxMinor();
+            paid += bucket.paidMinor();
+        }
+
+        RevenueDashboardDTO dashboard = new RevenueDashboardDTO();
+        dashboard.setGranularity(granularity.name());
+        dashboard.setFrom(from);
+        dashboard.setTo(to);
+        dashboard.setBuckets(dtos);
+        dashboard.setTotalInvoiced(Money.toMajor(invoiced));
+        dashboard.setTotalTax(Money.toMajor(tax));
+        dashboard.setTotalPaid(Money.toMajor(paid));
+        dashboard.setOutstanding(buckets.isEmpty() ? 0.0
+                : Money.toMajor(buckets.get(buckets.size() - 1).outstandingMinor()));
+        return dashboard;
+    }
+
+    // Monthly buckets for the forecaster; empty months included
+    public List<RevenueSeries.Bucket> months(Long userId, YearMonth from, YearMonth to) {
+        return series(userId).query(from.atDay(1), to.atEndOfMonth(), RevenueSeries.Granularity.MONTH);
+    }
+
+    // Month of the tenant's first rollup, null without any
+    public YearMonth firstMonth(Long userId) {
+        LocalDate firstDay = series(userId).firstDay();
+        return firstDay == null ? null : YearMonth.from(firstDay);
+    }
+
+    public List<Long> tenantIds() {
+        return jdbcTemplate.queryForList("select distinct user_id from revenue_rollup", Long.class);
+    }
+
+    private RevenueSeries series(Long userId) {
+
+        Tenant tenant = tenants.computeIfAbsent(userId, id -> new Tenant());
+        long now = System.currentTimeMillis();
+        tenant.lastUsed = now;
+
+        RevenueSeries series = tenant.series;
+        if (series != null && !expired(tenant, now)) {
+            hits.increment();
+            return series;
+        }
+
+        boolean cached;
+        synchronized (tenant) {
+            // Concurrent first queries share one load
+            if (tenant.series != null && !expired(tenant, now)) {
+                hits.increment();
+                return tenant.series;
+            }
+
+            series = new RevenueSeries();
+            for (RevenueRollup row : rollupRepository.findByUserIdOrderByRollupDate(userId)) {
+                series.add(row.getRollupDate(), row.getInvoicedMinor(),
+                        row.getTaxMinor(), row.getPaidMinor());
+            }
+            loads.increment();
+
+            // Writers need this monitor to start, so none can begin mid-load
+            cached = tenant.pending == 0;
+            if (cached) {
+                tenant.series = series;
+                tenant.loadedAt = now;
+            }
+        }
+        if (cached) {
+            enforceBudget();
+        }
+        return series;
+    }
+
+    // Loaded long enough ago that other nodes' writes may be missing
+    private boolean expired(Tenant tenant, long now) {
+        return maxAgeMs > 0 && now - tenant.loadedAt > maxAgeMs;
+    }
+
+    // -------------------------
+    // INCREMENTAL UPDATES (CALLER'S TRANSACTION)
+    // -------------------------
+    public void invoicesCreated(List<Invoice> invoices) {
+
+        Map<Long, NavigableMap<LocalDate, long[]>> byTenant = new HashMap<>();
+        for (Invoice invoice : invoices) {
+            contribute(byTenant.computeIfAbsent(invoice.getUser().getId(), id -> new TreeMap<>()),
+                    1, invoice, invoice.getStatus(), invoice.getPaidAt());
+        }
+        byTenant.forEach(this::record);
+    }
+
+    // The invoice already carries its new status and paidAt
+    public void statusChanged(Invoice invoice, InvoiceStatus previousStatus,
+                              LocalDateTime previousPaidAt) {
+
+        NavigableMap<LocalDate, long[]> days = new TreeMap<>();
+        contribute(days, -1, invoice, previousStatus, previousPaidAt);
+        contribute(days, 1, invoice, invoice.getStatus(), invoice.getPaidAt());
+        record(invoice.getUser().getId(), days);
+    }
+
+    // What the invoice adds to each day in the given state, times sign:
+    // {invoiced, tax, paid}. Cancelled invoices add nothing.
+    private static void contribute(Map<LocalDate, long[]> days, int sign, Invoice invoice,
+                                   InvoiceStatus status, LocalDateTime paidAt) {
+
+        if (status == null || status == InvoiceStatus.CANCELLED || invoice.getCreatedAt() == null) {
+            return;
+        }
+        long[] created = days.computeIfAbsent(invoice.getCreatedAt().toLocalDate(), day -> new long[3]);
+        created[0] += sign * invoice.getTotalAmountMinor();
+        created[1] += sign * invoice.getTaxMinor();
+
+        if (status == InvoiceStatus.PAID) {
+            LocalDateTime paidOn = paidAt != null ? paidAt : invoice.getCreatedAt();
+            days.computeIfAbsent(paidOn.toLocalDate(), day -> new long[3])[2]
+                    += sign * invoice.getTotalAmountMinor();
+        }
+    }
+
+    // Days are sorted, so concurrent writers lock rows in the same order
+    private void record(Long userId, NavigableMap<LocalDate, long[]> days) {
+
+        days.values().removeIf(day -> day[0] == 0 && day[1] == 0 && day[2] == 0);
+        if (days.isEmpty()) {
+            return;
+        }
+
+        Tenant tenant = tenants.computeIfAbsent(userId, id -> new Tenant());
+        synchronized (tenant) {
+            tenant.pending++;
+        }
+
+        boolean registered = false;
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(days.size());
+            days.forEach((day, amounts) -> rows.add(new Object[]{
+                    userId, Date.valueOf(day), amounts[0], amounts[1], amounts[2], now}));
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+
+            afterCompletion(committed -> {
+                synchronized (tenant) {
+                    tenant.pending--;
+                    if (committed && tenant.series != null) {
+                        days.forEach((day, amounts) ->
+                                tenant.series.add(day, amounts[0], amounts[1], amounts[2]));
+                    }
+                }
+                if (committed) {
+                    eventPublisher.publishEvent(new Changed(userId, days.firstKey()));
+                }
+            });
+            registered = true;
+        } finally {
+            if (!registered) {
+                synchronized (tenant) {
+                    tenant.pending--;
+                }
+            }
+        }
+    }
+
+    private void afterCompletion(Consumer<Boolean> action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // -------------------------
+    // REBUILD (FROM SCRATCH)
+    // -------------------------
+
+    // Recomputes revenue_rollup from the invoice table, rebuildThreads
+    // tenants at a time, one transaction per tenant. Null when a rebuild
+    // is already running.
+    public RebuildResult rebuild() {
+
+        TenantRebuilder.Result run = rebuilder.run(
+                () -> jdbcTemplate.queryForList("select distinct user_id from invoice", Long.class),
+                this::rebuildTenant);
+        if (run == null) {
+            return null;
+        }
+
+        RebuildResult result = new RebuildResult(run.tenants(), run.rows(), run.elapsedMs());
+        logger.info("Revenue rollups rebuilt: {} tenants, {} days in {} ms",
+                result.tenants(), result.days(), result.elapsedMs());
+        return result;
+    }
+
+    // Counts as a write while it runs; the cached series is dropped after
+    private long rebuildTenant(Long userId) {
+
+        Tenant tenant = tenants.computeIfAbsent(userId, id -> new Tenant());
+        synchronized (tenant) {
+            tenant.pending++;
+        }
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Integer days = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("delete from revenue_rollup where user_id = ?", userId);
+                jdbcTemplate.update(REBUILD_INVOICED, now, userId);
+                jdbcTemplate.update(REBUILD_PAID, now, userId);
+                return jdbcTemplate.queryForObject(
+                        "select count(*) from revenue_rollup where user_id = ?", Integer.class, userId);
+            });
+            return days == null ? 0 : days;
+        } finally {
+            synchronized (tenant) {
+                tenant.pending--;
+                tenant.series = null;
+            }
+            eventPublisher.publishEvent(new Changed(userId, LocalDate.MIN));
+        }
+    }
+
+    // -------------------------
+    // MEMORY BUDGET
+    // -------------------------
+    @Scheduled(fixedDelayString = "${revenue.rollup.budget-check-ms:10000}")
+    public synchronized void enforceBudget() {
+
+        // Tenant entries stay; only their series are dropped
+        int evicted = MemoryBudget.enforce(tenants.values(), memoryBudgetBytes,
+                tenant -> {
+                    RevenueSeries series = tenant.series;
+                    return series == null ? 0 : series.estimatedBytes();
+                },
+                tenant -> tenant.lastUsed,
+                tenant -> {
+                    synchronized (tenant) {
+                        RevenueSeries series = tenant.series;
+                        tenant.series = null;
+                        return series == null ? 0 : series.estimatedBytes();
+                    }
+                });
+        evictions.add(evicted);
+    }
+
+    public Stats stats() {
+
+        long loaded = 0;
+        long days = 0;
+        long bytes = 0;
+        for (Tenant tenant : tenants.values()) {
+            RevenueSeries series = tenant.series;
+            if (series != null) {
+                loaded++;
+                days += series.days();
+                bytes += series.estimatedBytes();
+            }
+        }
+        return new Stats(tenants.size(), loaded, days, bytes,
+                hits.sum(), loads.sum(), evictions.sum());
+    }
+}
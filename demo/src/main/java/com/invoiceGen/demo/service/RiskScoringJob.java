@@ -0,0 +1,340 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.RiskScoringCheckpoint;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.repository.AnalysisInput;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.repository.RiskScoringCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Nightly risk scoring of every open (UNPAID / OVERDUE) invoice. Invoices
+// are read tenant by tenant in keyset pages of scalar rows; the ones without
+// a fresh analysis are scored a page at a time by the in-JVM model, or, with
+// ai.batch.narratives=true, sent to the Python service for an LLM narrative
+// with at most `concurrency` calls in flight. Each page's results are stored in one transaction before
+// the checkpoint moves past the page, so a run resumed after a crash at
+// worst revisits one page and finds its analyses already fresh. Every node
+// fires the cron, but only the one holding the checkpoint's lease runs.
+@Service
+public class RiskScoringJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScoringJob.class);
+
+    private static final String JOB_NAME = "nightly-risk-scoring";
+    private static final List<InvoiceStatus> OPEN = List.of(InvoiceStatus.UNPAID, InvoiceStatus.OVERDUE);
+
+    public record Stats(boolean running, LocalDate runDate, boolean completed,
+                        long processed, long scored, long skipped, long failed,
+                        long lastUserId, long lastInvoiceId,
+                        long elapsedMs, double invoicesPerSecond) {
+    }
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceAnalyticsService analyticsService;
+    private final RiskScoringCheckpointRepository checkpointRepository;
+    private final int pageSize;
+    private final boolean narratives;
+    private final Duration lease;
+
+    // Lease owner id; unique per process, so a restarted node waits out
+    // the lease it held before like any other node
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName()
+            + "/" + UUID.randomUUID();
+
+    // Java 17: a fixed pool stands in for virtual threads. The semaphore
+    // makes the page loop wait for a free slot instead of queueing the page.
+    private final ExecutorService pool;
+    private final Semaphore inFlight;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RiskScoringCheckpoint progress;
+    private volatile long runStartNanos;
+    private volatile long runEndNanos;
+    private volatile long processedAtStart;
+
+    public RiskScoringJob(InvoiceRepository invoiceRepository,
+                          InvoiceAnalyticsService analyticsService,
+                          RiskScoringCheckpointRepository checkpointRepository,
+                          @Value("${ai.batch.concurrency:8}") int concurrency,
+                          @Value("${ai.batch.page-size:200}") int pageSize,
+                          @Value("${ai.batch.narratives:false}") boolean narratives,
+                          @Value("${ai.batch.lease-minutes:10}") long leaseMinutes) {
+        this.invoiceRepository = invoiceRepository;
+        this.analyticsService = analyticsService;
+        this.checkpointRepository = checkpointRepository;
+        this.pageSize = pageSize;
+        this.narratives = narratives;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "risk-scoring-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.inFlight = new Semaphore(concurrency);
+    }
+
+    // -------------------------
+    // TRIGGERS
+    // -------------------------
+    @Scheduled(cron = "${ai.batch.cron:0 0 2 * * *}")
+    public void runNightly() {
+        run(LocalDate.now());
+    }
+
+    // A run interrupted by a crash or deploy continues where it stopped:
+    // on this node's start, or on any node once the dead runner's lease
+    // has expired
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ai.batch.resume-check-ms:300000}",
+            initialDelayString = "${ai.batch.resume-check-ms:300000}")
+    public void resumeInterruptedRun() {
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> !checkpoint.isCompleted() && checkpoint.getRunDate().equals(today))
+                .filter(checkpoint -> checkpoint.getOwner() == null || checkpoint.getLeaseUntil().isBefore(now))
+                .filter(checkpoint -> !running.get())
+                .ifPresent(checkpoint -> {
+                    Thread resume = new Thread(() -> run(today), "risk-scoring-resume");
+                    resume.setDaemon(true);
+                    resume.start();
+                });
+    }
+
+    // -------------------------
+    // RUN
+    // -------------------------
+
+    // False when a run is already in progress, in this instance or on
+    // another node that holds the lease
+    public boolean run(LocalDate runDate) {
+
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        boolean claimed = false;
+        try {
+            ensureCheckpointRow(runDate);
+            LocalDateTime leaseUntil = claimLease();
+            if (leaseUntil == null) {
+                logger.info("Risk scoring for {} skipped: another node holds the run", runDate);
+                return false;
+            }
+            claimed = true;
+
+            RiskScoringCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                    .filter(existing -> existing.getRunDate().equals(runDate))
+                    .orElseGet(() -> RiskScoringCheckpoint.builder()
+                            .jobName(JOB_NAME)
+                            .runDate(runDate)
+                            .startedAt(LocalDateTime.now())
+                            .owner(nodeId)
+                            .leaseUntil(leaseUntil)
+                            .build());
+            if (checkpoint.isCompleted()) {
+                return true;
+            }
+
+            progress = checkpoint;
+            runStartNanos = System.nanoTime();
+            runEndNanos = 0;
+            processedAtStart = checkpoint.getProcessed();
+            if (checkpoint.getProcessed() > 0) {
+                logger.info("Resuming risk scoring for {} after {} invoices",
+                        runDate, checkpoint.getProcessed());
+            }
+
+            List<AnalysisInput> page;
+            while (!(page = invoiceRepository.findOpenAfter(OPEN,
+                    checkpoint.getLastUserId(), checkpoint.getLastInvoiceId(),
+                    PageRequest.of(0, pageSize))).isEmpty()) {
+
+                List<AnalysisInput> stale = analyticsService.needingAnalysis(page, narratives);
+                List<InvoiceAnalyticsService.Scored> scored = narratives
+                        ? scoreAll(stale)
+                        : analyticsService.scoreWithModel(stale);
+
+                // Renewed before anything is stored: once the lease has gone
+                // to another node, this one must not write the page
+                leaseUntil = claimLease();
+                if (leaseUntil == null) {
+                    logger.warn("Risk scoring for {} stopped: the lease expired and another node took over",
+                            runDate);
+                    return true;
+                }
+                analyticsService.storeAll(scored);
+
+                AnalysisInput last = page.get(page.size() - 1);
+                checkpoint.setLastUserId(last.getUserId());
+                checkpoint.setLastInvoiceId(last.getId());
+                checkpoint.setProcessed(checkpoint.getProcessed() + page.size());
+                checkpoint.setScored(checkpoint.getScored() + scored.size());
+                checkpoint.setSkipped(checkpoint.getSkipped() + page.size() - stale.size());
+                checkpoint.setFailed(checkpoint.getFailed() + stale.size() - scored.size());
+                checkpoint.setOwner(nodeId);
+                checkpoint.setLeaseUntil(leaseUntil);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpoint = checkpointRepository.save(checkpoint);
+                progress = checkpoint;
+            }
+
+            checkpoint.setCompleted(true);
+            checkpoint.setOwner(null);
+            checkpoint.setLeaseUntil(null);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            progress = checkpointRepository.save(checkpoint);
+
+            Stats stats = stats();
+            logger.info("Risk scoring for {} done: {} open invoices, {} scored, {} fresh, " +
+                            "{} failed, {} invoices/s", runDate, stats.processed(), stats.scored(),
+                    stats.skipped(), stats.failed(), Math.round(stats.invoicesPerSecond()));
+            return true;
+
+        } catch (RuntimeException e) {
+            // The checkpoint of the last finished page stays for the next run
+            logger.error("Risk scoring for {} stopped: {}", runDate, e.getMessage(), e);
+            return true;
+        } finally {
+            if (claimed) {
+                releaseLease();
+            }
+            runEndNanos = System.nanoTime();
+            running.set(false);
+        }
+    }
+
+    // -------------------------
+    // LEASE
+    // -------------------------
+
+    // The lease lives on the checkpoint row, so the row has to exist first
+    private void ensureCheckpointRow(LocalDate runDate) {
+
+        if (checkpointRepository.existsById(JOB_NAME)) {
+            return;
+        }
+        try {
+            checkpointRepository.save(RiskScoringCheckpoint.builder()
+                    .jobName(JOB_NAME)
+                    .runDate(runDate)
+                    .startedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+
+    // New expiry of the lease, or null when another node holds it
+    private LocalDateTime claimLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lease);
+        return checkpointRepository.claim(JOB_NAME, nodeId, now, until) == 1 ? until : null;
+    }
+
+    private void releaseLease() {
+        try {
+            checkpointRepository.release(JOB_NAME, nodeId);
+        } catch (RuntimeException e) {
+            // Expires on its own
+            logger.warn("Could not release the risk scoring lease: {}", e.getMessage());
+        }
+    }
+
+    // Narrative mode only. A failed call, or the service's fallback reply,
+    // is left for the next run or the next view.
+    private List<InvoiceAnalyticsService.Scored> scoreAll(List<AnalysisInput> inputs) {
+
+        List<Future<InvoiceAnalyticsService.Scored>> calls = new ArrayList<>(inputs.size());
+        for (AnalysisInput input : inputs) {
+            inFlight.acquireUninterruptibly();
+            try {
+                calls.add(pool.submit(() -> {
+                    try {
+                        return new InvoiceAnalyticsService.Scored(
+                                input, analyticsService.analyzeUncached(input), true);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        List<InvoiceAnalyticsService.Scored> scored = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            try {
+                InvoiceAnalyticsService.Scored result = calls.get(i).get();
+                if (result.response() != null && !analyticsService.isFallback(result.response())) {
+                    scored.add(result);
+                }
+            } catch (ExecutionException e) {
+                logger.warn("Risk scoring of invoice {} failed: {}",
+                        inputs.get(i).getId(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Risk scoring interrupted", e);
+            }
+        }
+        return scored;
+    }
+
+    // -------------------------
+    // METRICS
+    // -------------------------
+    public Stats stats() {
+
+        RiskScoringCheckpoint checkpoint = progress;
+        if (checkpoint == null) {
+            checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        }
+        if (checkpoint == null) {
+            return new Stats(running.get(), null, false, 0, 0, 0, 0, 0, 0, 0, 0.0);
+        }
+
+        // Throughput of this process's run only, not of a run it resumed
+        long end = runEndNanos != 0 ? runEndNanos : System.nanoTime();
+        long elapsedMs = runStartNanos == 0 ? 0
+                : Duration.ofNanos(end - runStartNanos).toMillis();
+        long processedHere = checkpoint.getProcessed() - processedAtStart;
+        double perSecond = elapsedMs == 0 ? 0.0 : processedHere * 1000.0 / elapsedMs;
+
+        return new Stats(running.get(), checkpoint.getRunDate(), checkpoint.isCompleted(),
+                checkpoint.getProcessed(), checkpoint.getScored(), checkpoint.getSkipped(),
+                checkpoint.getFailed(), checkpoint.getLastUserId(), checkpoint.getLastInvoiceId(),
+                elapsedMs, perSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,154 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.InvoiceItem;
+import com.invoiceGen.demo.entity.Product;
+import com.invoiceGen.demo.util.StockLedger;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reserves Product.stock for invoices without taking row locks. The ledger
+// is authoritative in this JVM; the database column catches up on each flush.
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockLedger ledger = new StockLedger();
+
+    public StockReservationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // -------------------------
+    // RESERVE (ON CREATE)
+    // -------------------------
+    public void reserve(Invoice invoice) {
+
+        Lines lines = Lines.of(invoice);
+
+        int failed = ledger.reserve(lines.productIds, lines.quantities, lines::stock);
+        if (failed >= 0) {
+            throw new RuntimeException(
+                    "Insufficient stock for " + lines.products[failed].getName());
+        }
+
+        // Usage only counts once the invoice is committed
+        afterCompletion(
+                () -> ledger.confirm(lines.productIds, lines.quantities),
+                () -> ledger.abort(lines.productIds, lines.quantities));
+    }
+
+    // -------------------------
+    // RELEASE (ON CANCEL)
+    // -------------------------
+    public void release(Invoice invoice) {
+
+        Lines lines = Lines.of(invoice);
+
+        afterCompletion(
+                () -> ledger.release(lines.productIds, lines.quantities, lines::stock),
+                () -> { });
+    }
+
+    private void afterCompletion(Runnable onCommit, Runnable onRollback) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    // -------------------------
+    // FLUSH TO DATABASE
+    // -------------------------
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval-ms:1000}")
+    public void flush() {
+
+        List<StockLedger.Delta> deltas = ledger.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // One batched statement per flush, however many invoices hit a product
+        try {
+            jdbcTemplate.batchUpdate(
+                    "update product set stock = stock - ? where id = ?",
+                    deltas, deltas.size(),
+                    (ps, delta) -> {
+                        ps.setLong(1, delta.quantity());
+                        ps.setLong(2, delta.productId());
+                    });
+        } catch (RuntimeException e) {
+            logger.warn("Stock flush failed, retrying next cycle: {}", e.getMessage());
+            ledger.restore(deltas);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public long available(long productId) {
+        return ledger.available(productId);
+    }
+
+    // Invoice lines merged per product, in a stable order
+    private record Lines(long[] productIds, int[] quantities, Product[] products) {
+
+        static Lines of(Invoice invoice) {
+
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            Map<Long, Product> products = new LinkedHashMap<>();
+            for (InvoiceItem item : invoice.getItems()) {
+                Product product = item.getProduct();
+                quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+                products.putIfAbsent(product.getId(), product);
+            }
+
+            Lines lines = new Lines(new long[quantities.size()],
+                    new int[quantities.size()], new Product[quantities.size()]);
+            int i = 0;
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                lines.productIds[i] = entry.getKey();
+                lines.quantities[i] = entry.getValue();
+                lines.products[i] = products.get(entry.getKey());
+                i++;
+            }
+            return lines;
+        }
+
+        long stock(long productId) {
+            for (int i = 0; i < productIds.length; i++) {
+                if (productIds[i] == productId) {
+                    Integer stock = products[i].getStock();
+                    return stock != null ? stock : 0;
+                }
+            }
+            throw new IllegalStateException("Product " + productId + " not on invoice");
+        }
+    }
+}
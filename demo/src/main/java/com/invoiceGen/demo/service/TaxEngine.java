@@ -0,0 +1,78 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.enums.GstSlab;
+import com.invoiceGen.demo.util.Money;
+import org.springframework.stereotype.Component;
+
+// GST calculation on long minor units. Rates are compiled into primitive
+// tables indexed by slab ordinal, so a line costs a few multiplies and no
+// allocation. Intra-state supply splits into CGST + SGST, inter-state is IGST.
+@Component
+public class TaxEngine {
+
+    private static final GstSlab[] SLABS = GstSlab.values();
+    private static final int[] IGST_BP = new int[SLABS.length];
+    private static final int[] HALF_BP = new int[SLABS.length];
+
+    static {
+        for (GstSlab slab : SLABS) {
+            IGST_BP[slab.ordinal()] = slab.getBasisPoints();
+            HALF_BP[slab.ordinal()] = slab.getBasisPoints() / 2;
+        }
+    }
+
+    // Running totals for one invoice; reused across all its lines
+    public static final class Totals {
+        private long subtotal;
+        private long cgst;
+        private long sgst;
+        private long igst;
+
+        public long subtotal() {
+            return subtotal;
+        }
+
+        public long cgst() {
+            return cgst;
+        }
+
+        public long sgst() {
+            return sgst;
+        }
+
+        public long igst() {
+            return igst;
+        }
+
+        public long tax() {
+            return cgst + sgst + igst;
+        }
+
+        public long total() {
+            return subtotal + tax();
+        }
+    }
+
+    public int rateBasisPoints(GstSlab slab) {
+        return IGST_BP[(slab != null ? slab : GstSlab.DEFAULT).ordinal()];
+    }
+
+    // Adds one line to the totals and returns that line's tax
+    public long addLine(Totals totals, long lineTotal, GstSlab slab, boolean interState) {
+
+        int index = (slab != null ? slab : GstSlab.DEFAULT).ordinal();
+        totals.subtotal += lineTotal;
+
+        if (interState) {
+            long igst = Money.percentOf(lineTotal, IGST_BP[index]);
+            totals.igst += igst;
+            return igst;
+        }
+
+        // Each half is rounded on its own, as it is printed on its own
+        long half = Money.percentOf(lineTotal, HALF_BP[index]);
+        totals.cgst += half;
+        totals.sgst += half;
+        return half * 2;
+    }
+}
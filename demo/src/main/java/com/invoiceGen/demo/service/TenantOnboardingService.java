@@ -0,0 +1,139 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.config.OnboardingProperties;
+import com.invoiceGen.demo.dto.BulkTenantResultDTO;
+import com.invoiceGen.demo.dto.TenantOnboardingRequestDTO;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Bulk onboarding (e.g. a reseller's sub-accounts). Each batch is validated
+// with one email query, hashed on the BCrypt pool and written in one
+// transaction; a failing batch does not undo the batches before it.
+@Service
+public class TenantOnboardingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantOnboardingService.class);
+
+    private final UserRepository userRepository;
+    private final TenantProvisioningService tenantProvisioningService;
+    private final PasswordHashingService passwordHashingService;
+    private final OnboardingProperties onboardingProperties;
+
+    public TenantOnboardingService(UserRepository userRepository,
+                                   TenantProvisioningService tenantProvisioningService,
+                                   PasswordHashingService passwordHashingService,
+                                   OnboardingProperties onboardingProperties) {
+        this.userRepository = userRepository;
+        this.tenantProvisioningService = tenantProvisioningService;
+        this.passwordHashingService = passwordHashingService;
+        this.onboardingProperties = onboardingProperties;
+    }
+
+    public List<BulkTenantResultDTO> onboard(List<TenantOnboardingRequestDTO> requests) {
+
+        long start = System.nanoTime();
+        int batchSize = Math.max(1, onboardingProperties.getBatchSize());
+
+        List<BulkTenantResultDTO> results = new ArrayList<>(requests.size());
+        Set<String> seen = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<TenantOnboardingRequestDTO> batch =
+                    requests.subList(from, Math.min(from + batchSize, requests.size()));
+            results.addAll(onboardBatch(batch, seen));
+        }
+
+        long created = results.stream()
+                .filter(r -> BulkTenantResultDTO.CREATED.equals(r.getStatus()))
+                .count();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Onboarded {} of {} tenants in {} s ({} tenants/s)", created, requests.size(),
+                String.format("%.2f", seconds), String.format("%.1f", created / Math.max(seconds, 1e-9)));
+
+        return results;
+    }
+
+    private List<BulkTenantResultDTO> onboardBatch(List<TenantOnboardingRequestDTO> batch,
+                                                   Set<String> seen) {
+
+        List<BulkTenantResultDTO> results = new ArrayList<>(batch.size());
+
+        // One query for every email of the batch
+        Set<String> emails = new HashSet<>();
+        for (TenantOnboardingRequestDTO request : batch) {
+            if (request.getEmail() != null) {
+                emails.add(request.getEmail());
+            }
+        }
+        Set<String> taken = emails.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        // Validate in memory; bad records are reported, not fatal
+        List<User> users = new ArrayList<>(batch.size());
+        List<BulkTenantResultDTO> pending = new ArrayList<>(batch.size());
+
+        for (TenantOnboardingRequestDTO request : batch) {
+            BulkTenantResultDTO result = new BulkTenantResultDTO();
+            result.setEmail(request.getEmail());
+            results.add(result);
+
+            try {
+                if (request.getEmail() == null || request.getPassword() == null) {
+                    throw new RuntimeException("Email and password are required");
+                }
+                if (taken.contains(request.getEmail()) || !seen.add(request.getEmail())) {
+                    throw new RuntimeException("Email already registered");
+                }
+
+                String plan = tenantProvisioningService.planOf(request.getPlan());
+                tenantProvisioningService.checkPlan(plan);
+
+                users.add(User.builder()
+                        .name(request.getName())
+                        .email(request.getEmail())
+                        .password(request.getPassword())
+                        .plan(plan)
+                        .build());
+                pending.add(result);
+            } catch (RuntimeException e) {
+                result.setStatus(BulkTenantResultDTO.FAILED);
+                result.setError(e.getMessage());
+            }
+        }
+
+        if (users.isEmpty()) {
+            return results;
+        }
+
+        try {
+            // BCrypt dominates the cost; spread it over the hashing pool
+            List<String> hashes = passwordHashingService.encodeAll(
+                    users.stream().map(User::getPassword).toList());
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setPassword(hashes.get(i));
+            }
+
+            tenantProvisioningService.provisionAll(users);
+
+            for (int i = 0; i < users.size(); i++) {
+                pending.get(i).setStatus(BulkTenantResultDTO.CREATED);
+                pending.get(i).setUserId(users.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            // e.g. an email registered concurrently: the whole batch rolled back
+            for (BulkTenantResultDTO result : pending) {
+                result.setStatus(BulkTenantResultDTO.FAILED);
+                result.setError(e.getMessage());
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,116 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.config.OnboardingProperties;
+import com.invoiceGen.demo.entity.Product;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.UserRole;
+import com.invoiceGen.demo.repository.ProductRepository;
+import com.invoiceGen.demo.repository.UserRepository;
+import com.invoiceGen.demo.util.DefaultProducts;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes a tenant and its plan's starter products atomically. Passwords
+// arrive already hashed so no transaction is held open across BCrypt.
+@Service
+public class TenantProvisioningService {
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final OnboardingProperties onboardingProperties;
+    private final EntityManager entityManager;
+
+    public TenantProvisioningService(UserRepository userRepository,
+                                     ProductRepository productRepository,
+                                     OnboardingProperties onboardingProperties,
+                                     EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.onboardingProperties = onboardingProperties;
+        this.entityManager = entityManager;
+    }
+
+    // -------------------------
+    // SINGLE TENANT
+    // -------------------------
+    @Transactional
+    public User provision(User user) {
+
+        // Always an insert, never a merge into an existing row; the user is
+        // bound from the request body, so its role is never taken from it
+        user.setId(null);
+        user.setRole(UserRole.USER);
+
+        User savedUser = userRepository.save(user);
+        productRepository.saveAll(productsFor(savedUser));
+        return savedUser;
+    }
+
+    // -------------------------
+    // BATCH (ONE TRANSACTION)
+    // -------------------------
+    @Transactional
+    public void provisionAll(List<User> users) {
+
+        List<Product> products = new ArrayList<>();
+        for (User user : users) {
+            user.setId(null);
+            user.setRole(UserRole.USER);
+            products.addAll(productsFor(user));
+        }
+
+        userRepository.saveAll(users);
+        productRepository.saveAll(products);
+
+        // Keep the persistence context from growing across batches
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // -------------------------
+    // PLAN TEMPLATES
+    // -------------------------
+    public String planOf(String requested) {
+        return requested != null && !requested.isBlank()
+                ? requested
+                : onboardingProperties.getDefaultPlan();
+    }
+
+    public void checkPlan(String plan) {
+        if (!onboardingProperties.getPlans().containsKey(plan)
+                && !plan.equals(onboardingProperties.getDefaultPlan())) {
+            throw new RuntimeException("Unknown plan: " + plan);
+        }
+    }
+
+    private List<Product> productsFor(User user) {
+
+        checkPlan(user.getPlan());
+
+        List<OnboardingProperties.ProductTemplate> templates =
+                onboardingProperties.getPlans().get(user.getPlan());
+
+        // Default plan without configured templates keeps the built-in set
+        List<Product> products;
+        if (templates == null) {
+            products = DefaultProducts.getDefaultProducts();
+        } else {
+            products = new ArrayList<>(templates.size());
+            for (OnboardingProperties.ProductTemplate template : templates) {
+                Product product = new Product(template.getName(),
+                        template.getPriceMinor(), template.getStock());
+                if (template.getTaxSlab() != null) {
+                    product.setTaxSlab(template.getTaxSlab());
+                }
+                products.add(product);
+            }
+        }
+
+        products.forEach(product -> product.setUser(user));
+        return products;
+    }
+}
@@ -0,0 +1,71 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.entity.RevokedToken;
+import com.invoiceGen.demo.repository.RevokedTokenRepository;
+import com.invoiceGen.demo.util.RevokedTokenSet;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+// Revoked access tokens. The table is the source of truth; the in-memory
+// set answers the per-request check and is rebuilt from the table at
+// startup and on a fixed delay, which also drops expired ids and picks up
+// revocations made by other instances.
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private volatile RevokedTokenSet revoked = new RevokedTokenSet();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    // Hot path: no locking, no allocation
+    public boolean isRevoked(long tokenId) {
+        return revoked.contains(tokenId);
+    }
+
+    public synchronized void revoke(long tokenId, Date expiresAt) {
+        if (tokenId == 0L || expiresAt == null) {
+            return; // token predates jti; it will expire on its own
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                .build());
+        revoked.add(tokenId);
+    }
+
+    // -------------------------
+    // REBUILD FROM DATABASE
+    // -------------------------
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval-ms:60000}",
+            initialDelayString = "${auth.revocation.rebuild-interval-ms:60000}")
+    public synchronized void rebuild() {
+
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        List<Long> active = revokedTokenRepository.findActiveTokenIds(now);
+        RevokedTokenSet rebuilt = new RevokedTokenSet(active.size());
+        for (Long tokenId : active) {
+            rebuilt.add(tokenId);
+        }
+        revoked = rebuilt;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -9,11 +9,11 @@ public class DefaultProducts {
 
     public static List<Product> getDefaultProducts() {
         return List.of(
-                new Product("Product 1", 1000.0, 100),
-                new Product("Product 2", 2000.0, 100),
-                new Product("Product 3", 3000.0, 100),
-                new Product("Product 4", 4000.0, 100),
-                new Product("Product 5", 5000.0, 100)
+                new Product("Product 1", 100_000L, 100),
+                new Product("Product 2", 200_000L, 100),
+                new Product("Product 3", 300_000L, 100),
+                new Product("Product 4", 400_000L, 100),
+                new Product("Product 5", 500_000L, 100)
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.invoiceGen.demo.util;
+
+// Additive Holt-Winters (level + trend + seasonal) over one value per
+// period step, e.g. a month's revenue with a yearly season of 12. State is
+// folded forward one observation at a time, so new data never means a
+// refit of the history.
+//
+// During the first season there is nothing to estimate seasonality from:
+// the model runs as Holt's linear trend and keeps the raw values. Once a
+// full season is in, the seasonal model starts from a line fitted through
+// that season.
+public class HoltWinters {
+
+    private final double alpha;   // level smoothing
+    private final double beta;    // trend smoothing
+    private final double gamma;   // seasonal smoothing
+    private final int period;
+
+    private double level;
+    private double trend;
+    private final double[] season;
+    private int observed;
+
+    public HoltWinters(double alpha, double beta, double gamma, int period) {
+        if (period < 2) {
+            throw new IllegalArgumentException("period must be at least 2");
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.period = period;
+        this.season = new double[period];
+    }
+
+    // -------------------------
+    // UPDATE
+    // -------------------------
+    public void observe(double value) {
+
+        int slot = observed % period;
+
+        if (observed < period) {
+            if (observed == 0) {
+                level = value;
+            } else {
+                double previousLevel = level;
+                level = alpha * value + (1 - alpha) * (level + trend);
+                trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            }
+            season[slot] = value;   // raw until the season is complete
+            if (++observed == period) {
+                initSeason();
+            }
+            return;
+        }
+
+        double offset = season[slot];
+        double previousLevel = level;
+        level = alpha * (value - offset) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        season[slot] = gamma * (value - level) + (1 - gamma) * offset;
+        observed++;
+    }
+
+    // Level and trend restart from a least-squares line through the first
+    // season (Holt's trend has barely moved from zero by then); the offsets
+    // are the values' distances from that line
+    private void initSeason() {
+
+        double mean = 0;
+        for (double value : season) {
+            mean += value;
+        }
+        mean /= period;
+
+        double middle = (period - 1) / 2.0;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < period; i++) {
+            covariance += (i - middle) * (season[i] - mean);
+            variance += (i - middle) * (i - middle);
+        }
+        trend = covariance / variance;
+
+        for (int i = 0; i < period; i++) {
+            season[i] -= mean + trend * (i - middle);
+        }
+        level = mean + trend * middle;
+    }
+
+    // -------------------------
+    // FORECAST
+    // -------------------------
+
+    // Value expected `steps` observations after the last one (steps >= 1)
+    public double forecast(int steps) {
+
+        if (observed == 0) {
+            return 0.0;
+        }
+        double value = level + steps * trend;
+        if (observed >= period) {
+            value += season[(observed + steps - 1) % period];
+        }
+        return value;
+    }
+
+    public int observed() {
+        return observed;
+    }
+}
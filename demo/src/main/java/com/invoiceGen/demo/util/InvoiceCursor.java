@@ -0,0 +1,66 @@
+package com.invoiceGen.demo.util;
+
+import com.invoiceGen.demo.repository.InvoiceListFilter;
+import com.invoiceGen.demo.repository.InvoiceListRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position for invoice listings: the sort key and id of the
+// last row of a page, in the listing's order. Clients only pass it back;
+// they never parse it.
+public record InvoiceCursor(InvoiceListFilter.Order order, String key, Long id) {
+
+    public static InvoiceCursor after(InvoiceListFilter.Order order, InvoiceListRow row) {
+        String key = switch (order) {
+            case CREATED_DESC -> row.getCreatedAt().toString();
+            case DUE_DATE_ASC -> row.getDueDate().toString();
+            case CUSTOMER_ASC -> row.getCustomerName();
+        };
+        return new InvoiceCursor(order, key, row.getId());
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    public LocalDate dueDate() {
+        return LocalDate.parse(key);
+    }
+
+    // Key last: a customer name may contain the separator
+    public String encode() {
+        String raw = order.ordinal() + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The cursor must come from a listing in the same order: one taken
+    // before the filters changed would skip or repeat rows
+    public static InvoiceCursor decode(String cursor, InvoiceListFilter.Order expected) {
+        InvoiceCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int second = raw.indexOf('|', first + 1);
+            decoded = new InvoiceCursor(
+                    InvoiceListFilter.Order.values()[Integer.parseInt(raw.substring(0, first))],
+                    raw.substring(second + 1),
+                    Long.parseLong(raw.substring(first + 1, second)));
+            // Parse the key now rather than halfway into the query
+            switch (decoded.order()) {
+                case CREATED_DESC -> decoded.createdAt();
+                case DUE_DATE_ASC -> decoded.dueDate();
+                case CUSTOMER_ASC -> { }
+            }
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (decoded.order() != expected) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,71 @@
+package com.invoiceGen.demo.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hi/lo invoice numbering: blocks of numbers are reserved from a BlockSource
+// (the database in production) and handed out from memory with a single
+// atomic increment. Unused numbers in a block are lost on restart, so the
+// sequence is gap-tolerant but never repeats.
+public class InvoiceNumberAllocator {
+
+    @FunctionalInterface
+    public interface BlockSource {
+        // Reserves [start, start + size) and returns start
+        long reserve(long tenantId, int year, int size);
+    }
+
+    private record Key(long tenantId, int year) {
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    private static final class Counter {
+        private volatile Block block;
+    }
+
+    private final BlockSource source;
+    private final int blockSize;
+    private final ConcurrentHashMap<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    public InvoiceNumberAllocator(BlockSource source, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+    }
+
+    public long next(long tenantId, int year) {
+
+        Counter counter = counters.computeIfAbsent(new Key(tenantId, year), k -> new Counter());
+
+        while (true) {
+            Block block = counter.block;
+
+            // Fast path: lock-free
+            if (block != null) {
+                long number = block.next.getAndIncrement();
+                if (number < block.end) {
+                    return number;
+                }
+            }
+
+            // Block exhausted: one thread per tenant-year fetches the next one
+            synchronized (counter) {
+                if (counter.block == block) {
+                    long start = source.reserve(tenantId, year, blockSize);
+                    counter.block = new Block(start, start + blockSize);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.invoiceGen.demo.util;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Substring search over one tenant's invoice numbers and customer names.
+// Every lower-cased trigram of either field maps to the ids of the invoices
+// containing it. A query walks the posting list of its rarest trigram,
+// newest first, and confirms each candidate with a plain contains(); queries
+// shorter than a trigram scan every document, newest first.
+//
+// Invoice numbers and customer names never change after creation, so the
+// index only grows; a status change just updates the stored document.
+public class InvoiceSearchIndex {
+
+    public record Hit(Long id, String invoiceNumber, String customerName,
+                      long totalAmountMinor, LocalDateTime createdAt, InvoiceStatus status) {
+    }
+
+    public record Result(List<Hit> invoices, List<String> customers) {
+    }
+
+    private static final int GRAM = 3;
+
+    // Rough per-object sizes for the memory budget, not exact accounting
+    private static final long DOC_BYTES = 144;
+    private static final long POSTING_LIST_BYTES = 64;
+    private static final long POSTING_BYTES = 8;
+
+    private static final class Doc {
+        final Long id;
+        final String invoiceNumber;
+        final String customerName;
+        final String numberKey;
+        final String customerKey;
+        final long totalAmountMinor;
+        final LocalDateTime createdAt;
+        volatile InvoiceStatus status;
+
+        Doc(Long id, String invoiceNumber, String customerName,
+            long totalAmountMinor, LocalDateTime createdAt, InvoiceStatus status) {
+            this.id = id;
+            this.invoiceNumber = invoiceNumber;
+            this.customerName = customerName;
+            this.numberKey = normalize(invoiceNumber);
+            this.customerKey = normalize(customerName);
+            this.totalAmountMinor = totalAmountMinor;
+            this.createdAt = createdAt;
+            this.status = status;
+        }
+
+        Hit toHit() {
+            return new Hit(id, invoiceNumber, customerName, totalAmountMinor, createdAt, status);
+        }
+    }
+
+    // Growable array of invoice ids, appended in creation order
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;   // both fields share the trigram
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Postings all = new Postings();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long estimatedBytes;
+
+    // -------------------------
+    // WRITE
+    // -------------------------
+    public void add(Long id, String invoiceNumber, String customerName,
+                    long totalAmountMinor, LocalDateTime createdAt, InvoiceStatus status) {
+
+        lock.writeLock().lock();
+        try {
+            if (docs.containsKey(id)) {
+                return;
+            }
+            Doc doc = new Doc(id, invoiceNumber, customerName, totalAmountMinor, createdAt, status);
+            docs.put(id, doc);
+            all.add(id);
+
+            long bytes = DOC_BYTES + POSTING_BYTES
+                    + 2L * (doc.numberKey.length() + doc.customerKey.length());
+            bytes += index(id, doc.numberKey);
+            bytes += index(id, doc.customerKey);
+            estimatedBytes += bytes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStatus(Long id, InvoiceStatus status) {
+        lock.readLock().lock();
+        try {
+            Doc doc = docs.get(id);
+            if (doc != null) {
+                doc.status = status;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long index(long id, String key) {
+        long bytes = 0;
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            Postings list = postings.get(gram(key, i));
+            if (list == null) {
+                list = new Postings();
+                postings.put(gram(key, i), list);
+                bytes += POSTING_LIST_BYTES;
+            }
+            int before = list.size;
+            list.add(id);
+            bytes += (list.size - before) * POSTING_BYTES;
+        }
+        return bytes;
+    }
+
+    // -------------------------
+    // SEARCH
+    // -------------------------
+    public Result search(String query, int limit) {
+
+        String key = normalize(query);
+        List<Hit> invoices = new ArrayList<>();
+        Set<String> customers = new LinkedHashSet<>();
+        if (key.isEmpty() || limit <= 0) {
+            return new Result(invoices, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings rarest = key.length() < GRAM ? all : null;
+            for (int i = 0; i + GRAM <= key.length(); i++) {
+                Postings list = postings.get(gram(key, i));
+                if (list == null) {
+                    return new Result(invoices, List.of());
+                }
+                if (rarest == null || list.size < rarest.size) {
+                    rarest = list;
+                }
+            }
+
+            for (int i = rarest.size - 1; i >= 0; i--) {
+                Doc doc = docs.get(rarest.ids[i]);
+                if (doc != null && collect(doc, key, invoices, customers, limit)) {
+                    break;
+                }
+            }
+            return new Result(invoices, List.copyOf(customers));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True once both lists are full
+    private static boolean collect(Doc doc, String key, List<Hit> invoices,
+                                   Set<String> customers, int limit) {
+
+        boolean numberMatch = doc.numberKey.contains(key);
+        boolean customerMatch = doc.customerKey.contains(key);
+
+        if ((numberMatch || customerMatch) && invoices.size() < limit) {
+            invoices.add(doc.toHit());
+        }
+        if (customerMatch && customers.size() < limit) {
+            customers.add(doc.customerName);
+        }
+        return invoices.size() >= limit && customers.size() >= limit;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // Three UTF-16 chars packed into one key
+    private static long gram(String key, int at) {
+        return ((long) key.charAt(at) << 32) | ((long) key.charAt(at + 1) << 16) | key.charAt(at + 2);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
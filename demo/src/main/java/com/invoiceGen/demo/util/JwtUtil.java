@@ -1,6 +1,8 @@
 package com.invoiceGen.demo.util;
 
+import com.invoiceGen.demo.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,6 +14,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.util.Date;
 import java.util.function.Function;
 
@@ -20,13 +24,25 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    private static final String USER_ID_CLAIM = "uid";
+
+    private final SecureRandom random = new SecureRandom();
+
     @Value("${jwt.secret}")
     private String secretKey;
 
-    @Value("${jwt.expiration:3600000}") // default 1 hour
+    @Value("${jwt.expiration:900000}") // default 15 minutes; clients renew via /api/auth/refresh
     private long jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.ttl-ms:60000}")
+    private long verifiedCacheTtlMs;
+
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
     private SecretKey key;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
 
     // -------------------------
     // INITIALIZE SECRET KEY
@@ -35,6 +51,10 @@ public class JwtUtil {
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(key) // ✅ JJWT 0.12.x
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheTtlMs, verifiedCacheMaxEntries);
         logger.info("JWT Secret Key initialized");
     }
 
@@ -43,16 +63,19 @@ public class JwtUtil {
     }
 
     // -------------------------
-    // GENERATE TOKEN (EMAIL)
+    // GENERATE TOKEN (EMAIL + USER ID)
     // -------------------------
-    public String generateToken(String email) {
+    public String generateToken(User user) {
+        String email = user.getEmail();
         logger.info("Generating JWT for user: {}", email);
 
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
+                .id(Long.toHexString(newTokenId()))
                 .subject(email)
+                .claim(USER_ID_CLAIM, user.getId())
                 .issuedAt(now)
                 .expiration(expiry)
                 .signWith(getSecretKey()) // ✅ JJWT 0.12.x
@@ -66,6 +89,58 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    // -------------------------
+    // VERIFY (ONCE PER TTL WINDOW)
+    // -------------------------
+
+    // Signature and expiry are checked on the first sight of a token; later
+    // requests with the same token reuse the claims until the cache entry,
+    // which never outlives "exp", runs out. Throws JwtException if invalid.
+    public Claims verify(String token) {
+
+        long now = System.currentTimeMillis();
+        ByteBuffer cacheKey = VerifiedTokenCache.keyOf(token);
+
+        Claims claims = verifiedTokens.get(cacheKey, now);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(cacheKey, claims, now);
+        }
+        return claims;
+    }
+
+    public VerifiedTokenCache.Stats verifiedCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    // Lets the filter resolve the principal by primary key; null for
+    // tokens issued before the claim was added
+    public Long extractUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    // 64-bit jti used by the revocation set; 0 when absent (older tokens)
+    public long extractTokenId(Claims claims) {
+        String id = claims.getId();
+        if (id == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseUnsignedLong(id, 16);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private long newTokenId() {
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0L);
+        return id;
+    }
+
     // -------------------------
     // VALIDATE TOKEN
     // -------------------------
@@ -99,15 +174,7 @@ public class JwtUtil {
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey()) // ✅ JJWT 0.12.x
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
 }
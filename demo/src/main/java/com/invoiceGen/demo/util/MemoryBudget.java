@@ -0,0 +1,52 @@
+package com.invoiceGen.demo.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Least-recently-used eviction for per-tenant in-memory caches. Callers
+// say how big and how recently used an entry is and how to drop it; entries
+// reporting 0 bytes hold nothing and are skipped.
+public final class MemoryBudget {
+
+    private MemoryBudget() {
+    }
+
+    // Drops the coldest entries until the total fits the budget. evict
+    // returns the bytes it freed, 0 if the entry was dropped concurrently.
+    // Returns how many entries were dropped.
+    public static <T> int enforce(Collection<T> entries, long budgetBytes,
+                                  ToLongFunction<T> estimatedBytes,
+                                  ToLongFunction<T> lastUsed,
+                                  ToLongFunction<T> evict) {
+
+        long total = 0;
+        List<T> held = new ArrayList<>();
+        for (T entry : entries) {
+            long bytes = estimatedBytes.applyAsLong(entry);
+            if (bytes > 0) {
+                total += bytes;
+                held.add(entry);
+            }
+        }
+        if (total <= budgetBytes) {
+            return 0;
+        }
+
+        held.sort(Comparator.comparingLong(lastUsed));
+        int evicted = 0;
+        for (T entry : held) {
+            if (total <= budgetBytes) {
+                break;
+            }
+            long freed = evict.applyAsLong(entry);
+            if (freed > 0) {
+                total -= freed;
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+}
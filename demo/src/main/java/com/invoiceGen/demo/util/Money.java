@@ -0,0 +1,37 @@
+package com.invoiceGen.demo.util;
+
+// Money is carried as a primitive long of minor units (paise) everywhere
+// inside the backend; doubles only appear at the JSON edges for display.
+public final class Money {
+
+    public static final int MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    public static long ofMajor(double major) {
+        return Math.round(major * MINOR_PER_MAJOR);
+    }
+
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    // Exact decimal text for exports, e.g. 123450 -> "1234.50"
+    public static String toPlainString(long minor) {
+        long abs = Math.abs(minor);
+        long fraction = abs % MINOR_PER_MAJOR;
+        return (minor < 0 ? "-" : "") + abs / MINOR_PER_MAJOR
+                + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    public static long times(long unitMinor, int quantity) {
+        return Math.multiplyExact(unitMinor, quantity);
+    }
+
+    // amount * basisPoints / 10000, rounded half-up (away from zero)
+    public static long percentOf(long minor, int basisPoints) {
+        long scaled = Math.multiplyExact(minor, basisPoints);
+        return scaled >= 0 ? (scaled + 5_000) / 10_000 : (scaled - 5_000) / 10_000;
+    }
+}
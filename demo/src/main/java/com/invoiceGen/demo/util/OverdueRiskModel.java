@@ -0,0 +1,62 @@
+package com.invoiceGen.demo.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Overdue probability as a logistic function of days overdue, payment
+// history score and previous overdue count: the same model the Python
+// service evaluates with numpy, so a score no longer needs a round trip.
+// Scoring works on primitives only and never allocates.
+public final class OverdueRiskModel {
+
+    private final double daysWeight;
+    private final double historyWeight;
+    private final double previousWeight;
+    private final double bias;
+
+    public OverdueRiskModel(double daysWeight, double historyWeight,
+                            double previousWeight, double bias) {
+        this.daysWeight = daysWeight;
+        this.historyWeight = historyWeight;
+        this.previousWeight = previousWeight;
+        this.bias = bias;
+    }
+
+    public double score(int daysOverdue, int paymentHistoryScore, int previousOverdueCount) {
+        return probability(bias
+                + daysWeight * daysOverdue
+                + historyWeight * paymentHistoryScore
+                + previousWeight * previousOverdueCount);
+    }
+
+    // Scores the first `count` invoices into `out`. The linear pass is a
+    // plain loop over arrays that the JIT can vectorize; exp() is not, so
+    // the sigmoid runs as a second pass.
+    public void scoreAll(int[] daysOverdue, int[] paymentHistoryScore,
+                         int[] previousOverdueCount, double[] out, int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[i] = bias
+                    + daysWeight * daysOverdue[i]
+                    + historyWeight * paymentHistoryScore[i]
+                    + previousWeight * previousOverdueCount[i];
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = probability(out[i]);
+        }
+    }
+
+    // Whole days past due, never negative; an invoice without a due date
+    // is not overdue
+    public static int daysOverdue(LocalDate dueDate, LocalDate today) {
+        if (dueDate == null) {
+            return 0;
+        }
+        return (int) Math.max(ChronoUnit.DAYS.between(dueDate, today), 0);
+    }
+
+    // Two decimals, as the Python service returns it
+    private static double probability(double z) {
+        return Math.round(100.0 / (1.0 + Math.exp(-z))) / 100.0;
+    }
+}
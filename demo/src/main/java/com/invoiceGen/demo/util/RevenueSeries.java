@@ -0,0 +1,201 @@
+package com.invoiceGen.demo.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Daily invoiced, tax and paid amounts of one tenant, in minor units. Three
+// parallel long arrays indexed by days since the first day with data; the
+// outstanding balance at a day is everything invoiced minus everything paid
+// up to and including it. Weeks (ISO, from Monday) and months are summed
+// from the days when queried, so a ten-year range walks ~3,650 slots.
+public class RevenueSeries {
+
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    // start is the aligned start of the period; the first and last buckets
+    // only sum the days inside the queried range
+    public record Bucket(LocalDate start, long invoicedMinor, long taxMinor,
+                         long paidMinor, long outstandingMinor) {
+    }
+
+    private static final int INITIAL_DAYS = 64;
+
+    private long firstDay;          // epoch day of slot 0
+    private int days;               // slots in use
+    private long[] invoiced = new long[0];
+    private long[] tax = new long[0];
+    private long[] paid = new long[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // -------------------------
+    // WRITE
+    // -------------------------
+
+    // Adds (or, with negative amounts, removes) one day's amounts
+    public void add(LocalDate day, long invoicedMinor, long taxMinor, long paidMinor) {
+
+        lock.writeLock().lock();
+        try {
+            int slot = slot(day.toEpochDay());
+            invoiced[slot] += invoicedMinor;
+            tax[slot] += taxMinor;
+            paid[slot] += paidMinor;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Makes room for the day and returns its slot
+    private int slot(long epochDay) {
+
+        if (days == 0) {
+            ensureCapacity(INITIAL_DAYS, 0);
+            firstDay = epochDay;
+            days = 1;
+            return 0;
+        }
+
+        if (epochDay < firstDay) {
+            // Earlier than anything so far: shift everything right
+            int shift = Math.toIntExact(firstDay - epochDay);
+            ensureCapacity(days + shift, shift);
+            firstDay = epochDay;
+            days += shift;
+            return 0;
+        }
+
+        int slot = Math.toIntExact(epochDay - firstDay);
+        if (slot >= days) {
+            ensureCapacity(slot + 1, 0);
+            days = slot + 1;
+        }
+        return slot;
+    }
+
+    private void ensureCapacity(int needed, int shift) {
+
+        int capacity = invoiced.length;
+        if (needed > capacity) {
+            capacity = Math.max(needed, capacity * 2);
+        } else if (shift == 0) {
+            return;
+        }
+        invoiced = grow(invoiced, capacity, shift);
+        tax = grow(tax, capacity, shift);
+        paid = grow(paid, capacity, shift);
+    }
+
+    private long[] grow(long[] values, int capacity, int shift) {
+        long[] grown = new long[capacity];
+        System.arraycopy(values, 0, grown, shift, days);
+        return grown;
+    }
+
+    // -------------------------
+    // QUERY
+    // -------------------------
+
+    // Every period between from and to (inclusive), empty ones included
+    public List<Bucket> query(LocalDate from, LocalDate to, Granularity granularity) {
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from is after to");
+        }
+
+        lock.readLock().lock();
+        try {
+            long start = from.toEpochDay();
+            long end = to.toEpochDay();
+
+            // Balance carried in from before the range
+            long outstanding = 0;
+            long before = Math.min(start, firstDay + days) - firstDay;
+            for (int i = 0; i < before; i++) {
+                outstanding += invoiced[i] - paid[i];
+            }
+
+            List<Bucket> buckets = new ArrayList<>();
+            LocalDate periodStart = align(from, granularity);
+            long day = start;
+
+            while (day <= end) {
+                long next = Math.min(end + 1, nextPeriod(periodStart, granularity).toEpochDay());
+                long bucketInvoiced = 0;
+                long bucketTax = 0;
+                long bucketPaid = 0;
+
+                // Only the part of the period that holds data is read
+                long lo = Math.max(day, firstDay);
+                long hi = Math.min(next, firstDay + days);
+                for (long d = lo; d < hi; d++) {
+                    int slot = (int) (d - firstDay);
+                    bucketInvoiced += invoiced[slot];
+                    bucketTax += tax[slot];
+                    bucketPaid += paid[slot];
+                }
+                outstanding += bucketInvoiced - bucketPaid;
+
+                buckets.add(new Bucket(periodStart, bucketInvoiced, bucketTax, bucketPaid, outstanding));
+                day = next;
+                periodStart = nextPeriod(periodStart, granularity);
+            }
+            return buckets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static LocalDate align(LocalDate day, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextPeriod(LocalDate periodStart, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    // -------------------------
+    // SIZE
+    // -------------------------
+
+    // Null while empty
+    public LocalDate firstDay() {
+        lock.readLock().lock();
+        try {
+            return days == 0 ? null : LocalDate.ofEpochDay(firstDay);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int days() {
+        lock.readLock().lock();
+        try {
+            return days;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return 64 + 3L * (16 + 8L * invoiced.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.invoiceGen.demo.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Set of revoked access-token ids (the 64-bit "jti"), checked on every
+// authenticated request. Open addressing over a primitive array: a lookup
+// is a hash, a few volatile reads and no allocation. Writers (logout,
+// compromise) are rare and serialize on the set; a full table is copied into
+// a larger one and published with a single volatile write.
+//
+// Expired ids are not removed one by one; the owner rebuilds the set from
+// the database periodically instead.
+public class RevokedTokenSet {
+
+    private static final long EMPTY = 0L;   // token ids are never 0
+    private static final int MIN_CAPACITY = 1024;
+
+    private volatile AtomicLongArray table;
+    private int size;
+
+    public RevokedTokenSet() {
+        this(0);
+    }
+
+    public RevokedTokenSet(int expectedSize) {
+        this.table = new AtomicLongArray(capacityFor(expectedSize));
+    }
+
+    public boolean contains(long tokenId) {
+        if (tokenId == EMPTY) {
+            return false;
+        }
+        AtomicLongArray t = table;
+        int mask = t.length() - 1;
+        for (int i = mix(tokenId) & mask; ; i = (i + 1) & mask) {
+            long slot = t.get(i);
+            if (slot == tokenId) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    public synchronized void add(long tokenId) {
+        if (tokenId == EMPTY) {
+            throw new IllegalArgumentException("token id must be non-zero");
+        }
+        // Keep the load factor at or below one half so probes stay short
+        if ((size + 1) * 2 > table.length()) {
+            table = copyInto(new AtomicLongArray(table.length() * 2), table);
+        }
+        if (insert(table, tokenId)) {
+            size++;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static AtomicLongArray copyInto(AtomicLongArray target, AtomicLongArray source) {
+        for (int i = 0; i < source.length(); i++) {
+            long tokenId = source.get(i);
+            if (tokenId != EMPTY) {
+                insert(target, tokenId);
+            }
+        }
+        return target;
+    }
+
+    private static boolean insert(AtomicLongArray t, long tokenId) {
+        int mask = t.length() - 1;
+        for (int i = mix(tokenId) & mask; ; i = (i + 1) & mask) {
+            long slot = t.get(i);
+            if (slot == tokenId) {
+                return false;
+            }
+            if (slot == EMPTY) {
+                t.set(i, tokenId);
+                return true;
+            }
+        }
+    }
+
+    // Token ids are random, but mixing keeps clustering low for any input
+    private static int mix(long tokenId) {
+        long h = tokenId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,132 @@
+package com.invoiceGen.demo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory stock reservations. Each product has an atomic "available"
+// counter that is checked and decremented with a CAS, so invoices for the
+// same hot product never wait on a database row lock. Committed usage is
+// accumulated in a striped LongAdder and drained to the database in batches.
+//
+// Lifecycle of a reservation:
+//   reserve  -> available -= qty            (fails if not enough stock)
+//   confirm  -> pending   += qty            (invoice committed)
+//   abort    -> available += qty            (invoice rolled back)
+//   release  -> available += qty, pending -= qty   (invoice cancelled)
+public class StockLedger {
+
+    @FunctionalInterface
+    public interface StockSource {
+        // Current database stock, read the first time a product is touched
+        long stock(long productId);
+    }
+
+    public record Delta(long productId, long quantity) {
+    }
+
+    private static final class Counter {
+        private final AtomicLong available;
+        private final LongAdder pending = new LongAdder();
+
+        Counter(long available) {
+            this.available = new AtomicLong(available);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    // -------------------------
+    // RESERVE (ALL OR NOTHING)
+    // -------------------------
+
+    // Returns -1 on success, otherwise the index of the first line that did
+    // not fit; in that case nothing stays reserved.
+    public int reserve(long[] productIds, int[] quantities, StockSource source) {
+
+        for (int i = 0; i < productIds.length; i++) {
+            if (quantities[i] <= 0) {
+                throw new IllegalArgumentException("quantity must be positive");
+            }
+
+            long productId = productIds[i];
+            Counter counter = counters.computeIfAbsent(productId,
+                    id -> new Counter(source.stock(id)));
+
+            if (!tryTake(counter.available, quantities[i])) {
+                // Undo what this call already took
+                for (int j = 0; j < i; j++) {
+                    counters.get(productIds[j]).available.addAndGet(quantities[j]);
+                }
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean tryTake(AtomicLong available, int quantity) {
+        while (true) {
+            long current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    public void confirm(long[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            counters.get(productIds[i]).pending.add(quantities[i]);
+        }
+    }
+
+    public void abort(long[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            counters.get(productIds[i]).available.addAndGet(quantities[i]);
+        }
+    }
+
+    // Gives committed stock back; the product may not have been touched
+    // since startup, in which case only the database needs crediting
+    public void release(long[] productIds, int[] quantities, StockSource source) {
+        for (int i = 0; i < productIds.length; i++) {
+            Counter counter = counters.computeIfAbsent(productIds[i],
+                    id -> new Counter(source.stock(id)));
+            counter.available.addAndGet(quantities[i]);
+            counter.pending.add(-quantities[i]);
+        }
+    }
+
+    public long available(long productId) {
+        Counter counter = counters.get(productId);
+        return counter != null ? counter.available.get() : -1;
+    }
+
+    // -------------------------
+    // FLUSH
+    // -------------------------
+
+    // Takes the committed usage accumulated since the last drain
+    public List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            long quantity = entry.getValue().pending.sumThenReset();
+            if (quantity != 0) {
+                deltas.add(new Delta(entry.getKey(), quantity));
+            }
+        }
+        return deltas;
+    }
+
+    // Puts back deltas whose database write failed
+    public void restore(List<Delta> deltas) {
+        for (Delta delta : deltas) {
+            counters.get(delta.productId()).pending.add(delta.quantity());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.invoiceGen.demo.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// Runs a from-scratch rebuild of per-tenant derived data: one task per
+// tenant, `threads` tenants at a time on daemon threads, at most one
+// rebuild at a time per instance. The first failed tenant fails the run.
+public class TenantRebuilder {
+
+    public record Result(int tenants, long rows, long elapsedMs) {
+    }
+
+    private final String name;
+    private final int threads;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // name shows up in thread names ("<name>-rebuild-N") and error messages
+    public TenantRebuilder(String name, int threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    // Sums what rebuildTenant returns over the listed tenants. Null when a
+    // rebuild is already running.
+    public Result run(Supplier<List<Long>> tenantIds, ToLongFunction<Long> rebuildTenant) {
+
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-rebuild-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Long> userIds = tenantIds.get();
+
+            List<Future<Long>> tasks = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                tasks.add(pool.submit(() -> rebuildTenant.applyAsLong(userId)));
+            }
+
+            long rows = 0;
+            for (Future<Long> task : tasks) {
+                rows += task.get();
+            }
+
+            return new Result(userIds.size(), rows,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+        } catch (ExecutionException e) {
+            throw new RuntimeException(name + " rebuild failed: "
+                    + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(name + " rebuild interrupted", e);
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+    }
+}
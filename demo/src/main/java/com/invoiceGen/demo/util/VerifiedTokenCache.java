@@ -0,0 +1,104 @@
+package com.invoiceGen.demo.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Claims of tokens whose signature has already been checked, keyed by the
+// SHA-256 of the token so raw bearer tokens are never held in memory.
+// An entry lives until the earlier of the token's own expiry and the TTL,
+// so a cached token can never outlive its "exp" claim.
+public class VerifiedTokenCache {
+
+    public record Stats(long size, long hits, long misses, long evictions) {
+    }
+
+    private record Entry(Claims claims, long validUntil) {
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ConcurrentHashMap<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(long ttlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public static ByteBuffer keyOf(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    // Cached claims, or null when the token has to be verified
+    public Claims get(ByteBuffer key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.validUntil() <= now) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(ByteBuffer key, Claims claims, long now) {
+
+        long validUntil = now + ttlMs;
+        if (claims.getExpiration() != null) {
+            validUntil = Math.min(validUntil, claims.getExpiration().getTime());
+        }
+        if (validUntil <= now || maxEntries <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, new Entry(claims, validUntil));
+    }
+
+    public void invalidate(String token) {
+        entries.remove(keyOf(token));
+    }
+
+    // Expired entries first; if the cache is still full, drop an arbitrary
+    // quarter rather than tracking recency on every hit
+    private void evict(long now) {
+
+        entries.values().removeIf(entry -> entry.validUntil() <= now);
+
+        int excess = entries.size() - maxEntries * 3 / 4;
+        Iterator<ByteBuffer> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+}
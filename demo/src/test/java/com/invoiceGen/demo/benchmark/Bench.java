@@ -0,0 +1,30 @@
+package com.invoiceGen.demo.benchmark;
+
+import java.util.function.IntConsumer;
+
+// Timing for the *Benchmark mains in this package. They are not tests, so
+// the build never runs them and no timing can fail it; run one from the
+// IDE or with `mvn test-compile exec:java -Dexec.classpathScope=test
+// -Dexec.mainClass=com.invoiceGen.demo.benchmark.RevenueSeriesBenchmark`.
+// Benchmarks that need the JPA layer are @DataJpaTest classes on H2 instead;
+// surefire skips them by name, so run one with
+// `mvn test -Dtest=InvoiceWriteBenchmark`.
+final class Bench {
+
+    private Bench() {
+    }
+
+    // Runs the body `warmup` times untimed, then `rounds` times timed;
+    // returns nanoseconds per timed round. The body gets the round number.
+    static double nanosPerRound(int warmup, int rounds, IntConsumer body) {
+
+        for (int i = 0; i < warmup; i++) {
+            body.accept(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            body.accept(i);
+        }
+        return (double) (System.nanoTime() - start) / rounds;
+    }
+}
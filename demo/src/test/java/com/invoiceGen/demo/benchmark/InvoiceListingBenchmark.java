@@ -0,0 +1,144 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.repository.InvoiceListFilter;
+import com.invoiceGen.demo.repository.InvoiceListRow;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.util.InvoiceCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Latency of listing page N for one tenant with 500k invoices, under each
+// filter shape of GET /api/invoices. Keyset pages come from
+// InvoiceRepository.findPage with the cursor of the page before; the
+// unfiltered listing is also read with OFFSET for comparison. Medians of
+// 20 reads, on H2 with the entity's composite indexes.
+@DataJpaTest(properties = {
+        // "user" is a reserved word in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        // As in persistence.properties, which the JPA slice does not load
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class InvoiceListingBenchmark {
+
+    private static final int INVOICES = 500_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int[] DEPTHS = {1, 10, 100, 1_000, 5_000};
+    private static final int REPEATS = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Test
+    void deepPageLatency() {
+
+        Long userId = generate();
+
+        report("unfiltered", userId, new InvoiceListFilter(null, null, null, null), true);
+        report("status UNPAID", userId,
+                new InvoiceListFilter(InvoiceStatus.UNPAID, null, null, null), false);
+        report("due in 2026", userId,
+                new InvoiceListFilter(null,
+                        LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31), null), false);
+        report("customer prefix", userId,
+                new InvoiceListFilter(null, null, null, "Customer 1"), false);
+    }
+
+    private void report(String label, Long userId, InvoiceListFilter filter, boolean withOffset) {
+
+        // Walk the listing once, keeping the cursor in front of each measured page
+        Map<Integer, InvoiceCursor> cursors = new LinkedHashMap<>();
+        InvoiceCursor after = null;
+        for (int page = 1, next = 0; next < DEPTHS.length; page++) {
+            if (page == DEPTHS[next]) {
+                cursors.put(page, after);
+                next++;
+            }
+            List<InvoiceListRow> rows = invoiceRepository.findPage(userId, filter, after, PAGE_SIZE);
+            if (rows.size() < PAGE_SIZE) {
+                break;
+            }
+            after = InvoiceCursor.after(filter.order(), rows.get(rows.size() - 1));
+        }
+
+        System.out.println(label + " (" + filter.order().sort() + ")");
+        for (Map.Entry<Integer, InvoiceCursor> entry : cursors.entrySet()) {
+            int page = entry.getKey();
+            InvoiceCursor cursor = entry.getValue();
+
+            String line = String.format("  page %5d: keyset %.2f ms", page,
+                    medianMs(() -> invoiceRepository.findPage(userId, filter, cursor, PAGE_SIZE)));
+            if (withOffset) {
+                line += String.format(", offset %.2f ms", medianMs(() -> offsetPage(userId, page)));
+            }
+            System.out.println(line);
+        }
+    }
+
+    // The same columns and order as the unfiltered keyset page
+    private List<Object[]> offsetPage(Long userId, int page) {
+        return entityManager.createQuery(
+                        "select i.id, i.invoiceNumber, i.customerName, i.totalAmountMinor, " +
+                        "i.status, i.createdAt, i.dueDate from Invoice i " +
+                        "where i.user.id = :userId order by i.createdAt desc, i.id desc", Object[].class)
+                .setParameter("userId", userId)
+                .setFirstResult((page - 1) * PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    private static double medianMs(Runnable read) {
+        read.run();
+        long[] nanos = new long[REPEATS];
+        for (int i = 0; i < REPEATS; i++) {
+            long start = System.nanoTime();
+            read.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[REPEATS / 2] / 1e6;
+    }
+
+    // Two years of due dates, 10,000 customers, a third paid; createdAt
+    // follows insertion order as it does in production
+    private Long generate() {
+
+        User user = User.builder().name("Acme").email("acme@example.com").password("x").build();
+        entityManager.persist(user);
+
+        for (int n = 0; n < INVOICES; n++) {
+            entityManager.persist(Invoice.builder()
+                    .user(user)
+                    .invoiceNumber("INV-" + n)
+                    .customerName(String.format("Customer %04d", (long) n * 7_919 % 10_000))
+                    .dueDate(LocalDate.of(2025, 1, 1).plusDays(n % 730))
+                    .status(n % 3 == 0 ? InvoiceStatus.PAID : InvoiceStatus.UNPAID)
+                    .pdfStatus(PdfStatus.PENDING)
+                    .totalAmountMinor(11_800L * (n % 100 + 1))
+                    .build());
+
+            if ((n + 1) % 5_000 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return user.getId();
+    }
+}
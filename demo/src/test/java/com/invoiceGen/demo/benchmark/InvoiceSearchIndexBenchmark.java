@@ -0,0 +1,29 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.util.InvoiceSearchIndex;
+
+import java.time.LocalDateTime;
+
+// Type-ahead latency over one large tenant (target: well under 1 ms)
+public class InvoiceSearchIndexBenchmark {
+
+    private static final int INVOICES = 100_000;
+
+    public static void main(String[] args) {
+
+        InvoiceSearchIndex index = new InvoiceSearchIndex();
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int n = 1; n <= INVOICES; n++) {
+            index.add((long) n, String.format("INV-2026-%06d", n),
+                    "Customer " + (n % 5_000), n * 100L, created, InvoiceStatus.UNPAID);
+        }
+
+        String[] queries = {"inv-2026-0421", "customer 42", "99", "mer 4999"};
+        double nanos = Bench.nanosPerRound(2_000, 10_000,
+                i -> index.search(queries[i % queries.length], 10));
+
+        System.out.printf("%d invoices, ~%d KB index: %.1f us per query%n",
+                INVOICES, index.estimatedBytes() / 1024, nanos / 1_000);
+    }
+}
@@ -0,0 +1,191 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.dto.InvoiceRequestDTO;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.InvoiceItem;
+import com.invoiceGen.demo.entity.Product;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.repository.InvoiceItemRepository;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.repository.ProductRepository;
+import com.invoiceGen.demo.service.CustomerPaymentStatsService;
+import com.invoiceGen.demo.service.InvoiceAnalyticsService;
+import com.invoiceGen.demo.service.InvoiceNumberService;
+import com.invoiceGen.demo.service.InvoiceSearchService;
+import com.invoiceGen.demo.service.InvoiceService;
+import com.invoiceGen.demo.service.PdfOutboxService;
+import com.invoiceGen.demo.service.RevenueRollupService;
+import com.invoiceGen.demo.service.StockReservationService;
+import com.invoiceGen.demo.service.TaxEngine;
+import com.invoiceGen.demo.util.Money;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Statements and latency for one 200-line invoice: InvoiceService.createInvoice
+// against the per-item path it replaced (header insert, then a product
+// lookup and an item insert per line, then a header update). The old ids
+// were IDENTITY, so every save went out at once; saveAndFlush reproduces that.
+// The PDF outbox, search, stats and rollup hooks are mocks, so the figures
+// cover products, header and items only. Runs on H2: compare the two lines
+// with each other, not with MySQL.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // "user" is a reserved word in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        // As in persistence.properties, which the JPA slice does not load
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class InvoiceWriteBenchmark {
+
+    private static final int LINES = 200;
+    private static final int WARMUP = 50;
+    private static final int ROUNDS = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceItemRepository invoiceItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final TaxEngine taxEngine = new TaxEngine();
+    private final InvoiceNumberService invoiceNumberService = mock(InvoiceNumberService.class);
+
+    @Test
+    void statementsAndLatencyPerInvoice() {
+
+        AtomicLong number = new AtomicLong();
+        when(invoiceNumberService.nextInvoiceNumber(any()))
+                .thenAnswer(call -> "INV-BENCH-" + number.incrementAndGet());
+
+        User user = User.builder().name("Acme").email("acme@example.com").password("x").build();
+        entityManager.persist(user);
+
+        InvoiceRequestDTO request = new InvoiceRequestDTO();
+        request.setCustomerName("Zenith");
+        request.setDueDate(LocalDate.of(2026, 3, 31));
+        request.setItems(new ArrayList<>());
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product("Product " + i, 10_000L + i, 1_000_000);
+            product.setUser(user);
+            entityManager.persist(product);
+
+            InvoiceRequestDTO.Item item = new InvoiceRequestDTO.Item();
+            item.setProductId(product.getId().intValue());
+            item.setQuantity(1 + i % 3);
+            request.getItems().add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        InvoiceService invoiceService = new InvoiceService(
+                invoiceRepository, productRepository, mock(PdfOutboxService.class),
+                invoiceNumberService, taxEngine, mock(StockReservationService.class),
+                mock(InvoiceSearchService.class), mock(InvoiceAnalyticsService.class),
+                mock(CustomerPaymentStatsService.class), mock(RevenueRollupService.class),
+                entityManager);
+
+        measure("per-item path", () -> createPerItem(user, request));
+        measure("createInvoice", () -> invoiceService.createInvoice(user, request));
+    }
+
+    // Each round is one invoice written and flushed from an empty persistence
+    // context, as in a fresh request
+    private void measure(String label, Runnable write) {
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        long[] nanos = new long[ROUNDS];
+        long statements = 0;
+
+        for (int round = -WARMUP; round < ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            write.run();
+            entityManager.flush();
+            long elapsed = System.nanoTime() - start;
+            entityManager.clear();
+
+            if (round >= 0) {
+                nanos[round] = elapsed;
+                statements += statistics.getPrepareStatementCount();
+            }
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("%-14s %d lines: %.1f statements per invoice, p50 %.2f ms, p99 %.2f ms%n",
+                label, LINES, (double) statements / ROUNDS,
+                nanos[ROUNDS / 2] / 1e6, nanos[(int) Math.ceil(ROUNDS * 0.99) - 1] / 1e6);
+    }
+
+    // The write pattern createInvoice had before it was batched; totals go
+    // through the TaxEngine so only the round trips differ
+    private void createPerItem(User user, InvoiceRequestDTO request) {
+
+        Invoice invoice = Invoice.builder()
+                .user(user)
+                .invoiceNumber(invoiceNumberService.nextInvoiceNumber(user.getId()))
+                .customerName(request.getCustomerName())
+                .dueDate(request.getDueDate())
+                .status(InvoiceStatus.UNPAID)
+                .pdfStatus(PdfStatus.PENDING)
+                .build();
+        invoice = invoiceRepository.saveAndFlush(invoice);
+
+        TaxEngine.Totals totals = new TaxEngine.Totals();
+        List<InvoiceItem> items = new ArrayList<>();
+
+        for (InvoiceRequestDTO.Item itemDto : request.getItems()) {
+
+            Product product = productRepository.findById(itemDto.getProductId())
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
+            if (!product.getUser().getId().equals(user.getId())) {
+                throw new RuntimeException("Unauthorized product access");
+            }
+
+            long lineTotal = Money.times(product.getPriceMinor(), itemDto.getQuantity());
+
+            InvoiceItem invoiceItem = new InvoiceItem();
+            invoiceItem.setInvoice(invoice);
+            invoiceItem.setProduct(product);
+            invoiceItem.setQuantity(itemDto.getQuantity());
+            invoiceItem.setPriceMinor(product.getPriceMinor());
+            invoiceItem.setTotalMinor(lineTotal);
+            invoiceItem.setTaxMinor(taxEngine.addLine(totals, lineTotal, product.getTaxSlab(), false));
+
+            items.add(invoiceItemRepository.saveAndFlush(invoiceItem));
+        }
+
+        invoice.setSubtotalMinor(totals.subtotal());
+        invoice.setCgstMinor(totals.cgst());
+        invoice.setSgstMinor(totals.sgst());
+        invoice.setTaxMinor(totals.tax());
+        invoice.setTotalAmountMinor(totals.total());
+        invoice.setItems(items);
+        invoiceRepository.save(invoice);
+    }
+}
@@ -0,0 +1,174 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.pdf.JavaPdfRenderer;
+import com.invoiceGen.demo.service.PasswordHashingService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Invoice latency during a login storm. A 200-thread pool stands in for
+// Tomcat's request threads (its queue for the accept backlog), and an
+// invoice request renders a ten-line PDF: real CPU work, no database.
+// The storm is 400 clients logging in back to back, first with BCrypt on
+// the request threads as before, then through PasswordHashingService,
+// where a 503 sends the client away for the Retry-After second.
+public class LoginStormBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+    private static final int STORM_CLIENTS = 400;
+    private static final int INVOICE_CLIENTS = 4;
+    private static final int BCRYPT_STRENGTH = 10;
+    private static final long WARMUP_MS = 3_000;
+    private static final long MEASURE_MS = 10_000;
+    private static final long RETRY_AFTER_MS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        String hash = encoder.encode("secret");
+
+        run("no logins", null);
+        run("storm, BCrypt on request threads", () -> encoder.matches("secret", hash));
+
+        PasswordHashingService hashing = new PasswordHashingService(encoder, 0, 32, 5_000);
+        run("storm, bounded BCrypt pool", () -> hashing.matches("secret", hash));
+        hashing.shutdown();
+    }
+
+    private static void run(String label, BooleanSupplier login) throws Exception {
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean measuring = new AtomicBoolean(false);
+        LongAdder logins = new LongAdder();
+        LongAdder rejected = new LongAdder();
+
+        List<Thread> clients = new ArrayList<>();
+
+        for (int c = 0; login != null && c < STORM_CLIENTS; c++) {
+            clients.add(client(() -> {
+                try {
+                    requestThreads.submit(login::getAsBoolean).get();
+                    if (measuring.get()) {
+                        logins.increment();
+                    }
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof PasswordHashingService.BusyException)) {
+                        throw new IllegalStateException(e.getCause());
+                    }
+                    if (measuring.get()) {
+                        rejected.increment();
+                    }
+                    Thread.sleep(RETRY_AFTER_MS);
+                }
+            }, running));
+        }
+
+        JavaPdfRenderer renderer = new JavaPdfRenderer();
+        InvoicePdfDTO invoice = invoice();
+        List<Long> latencies = new ArrayList<>();
+
+        for (int c = 0; c < INVOICE_CLIENTS; c++) {
+            clients.add(client(() -> {
+                long start = System.nanoTime();
+                requestThreads.submit(() -> render(renderer, invoice)).get();
+                long elapsed = System.nanoTime() - start;
+                if (measuring.get()) {
+                    synchronized (latencies) {
+                        latencies.add(elapsed);
+                    }
+                }
+            }, running));
+        }
+
+        clients.forEach(Thread::start);
+        Thread.sleep(WARMUP_MS);
+        measuring.set(true);
+        Thread.sleep(MEASURE_MS);
+        measuring.set(false);
+        running.set(false);
+        for (Thread client : clients) {
+            client.join();
+        }
+        requestThreads.shutdown();
+
+        long[] nanos;
+        synchronized (latencies) {
+            nanos = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        double seconds = MEASURE_MS / 1_000.0;
+
+        System.out.printf("%-34s invoice p50 %.2f ms, p99 %.2f ms (%d requests); " +
+                        "logins %.0f/s, 503s %.0f/s%n",
+                label, percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.99) / 1e6, nanos.length,
+                logins.sum() / seconds, rejected.sum() / seconds);
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    // A client repeats its request until the phase ends
+    private static Thread client(Step step, AtomicBoolean running) {
+        return new Thread(() -> {
+            try {
+                while (running.get()) {
+                    step.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * p) - 1];
+    }
+
+    private static void render(JavaPdfRenderer renderer, InvoicePdfDTO invoice) {
+        try {
+            renderer.render(invoice, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InvoicePdfDTO invoice() {
+
+        InvoicePdfDTO.Item[] items = new InvoicePdfDTO.Item[10];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new InvoicePdfDTO.Item();
+            items[i].setProductName("Product " + i);
+            items[i].setQuantity(i + 1);
+            items[i].setPriceMinor(10_000);
+            items[i].setTotalMinor(10_000L * (i + 1));
+        }
+
+        InvoicePdfDTO invoice = new InvoicePdfDTO();
+        invoice.setInvoiceNumber("INV-2026-000042");
+        invoice.setCustomerName("Zenith Traders");
+        invoice.setDueDate(LocalDate.of(2026, 3, 31));
+        invoice.setItems(Arrays.asList(items));
+        invoice.setSubtotalMinor(550_000);
+        invoice.setCgstMinor(49_500);
+        invoice.setSgstMinor(49_500);
+        invoice.setTaxMinor(99_000);
+        invoice.setTotalAmountMinor(649_000);
+        return invoice;
+    }
+}
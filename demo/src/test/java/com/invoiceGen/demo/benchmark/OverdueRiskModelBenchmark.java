@@ -0,0 +1,30 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.util.OverdueRiskModel;
+
+// Batch scoring throughput of the in-JVM overdue model
+public class OverdueRiskModelBenchmark {
+
+    private static final int INVOICES = 1_000_000;
+
+    public static void main(String[] args) {
+
+        OverdueRiskModel model = new OverdueRiskModel(0.04, 0.6, 0.5, 0.0);
+
+        int[] days = new int[INVOICES];
+        int[] history = new int[INVOICES];
+        int[] previous = new int[INVOICES];
+        double[] out = new double[INVOICES];
+        for (int i = 0; i < INVOICES; i++) {
+            days[i] = i % 120;
+            history[i] = i % 6 - 3;
+            previous[i] = i % 4;
+        }
+
+        double nanos = Bench.nanosPerRound(5, 10,
+                i -> model.scoreAll(days, history, previous, out, INVOICES));
+
+        System.out.printf("%d invoices scored in %.1f ms (%d per second)%n",
+                INVOICES, nanos / 1_000_000, Math.round(INVOICES * 1_000_000_000.0 / nanos));
+    }
+}
@@ -0,0 +1,85 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.pdf.JavaPdfRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// JavaPdfRenderer throughput on one thread, so pages per second per core.
+// Output goes to a null stream: this is the render, not the disk write.
+public class PdfRenderBenchmark {
+
+    private static final int[] LINES = {10, 200};
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 50_000;
+
+    public static void main(String[] args) throws IOException {
+
+        JavaPdfRenderer renderer = new JavaPdfRenderer();
+        OutputStream sink = OutputStream.nullOutputStream();
+
+        for (int lines : LINES) {
+            InvoicePdfDTO invoice = invoice(lines);
+            int pages = pageCount(renderer, invoice);
+
+            double nanos = Bench.nanosPerRound(WARMUP, ROUNDS, i -> {
+                try {
+                    renderer.render(invoice, sink);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            System.out.printf("%d lines, %d page(s): %.1f us per invoice, %.0f pages/s per core%n",
+                    lines, pages, nanos / 1_000, pages * 1e9 / nanos);
+        }
+    }
+
+    // Read back from the page tree, so the figure follows any layout change
+    private static int pageCount(JavaPdfRenderer renderer, InvoicePdfDTO invoice) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(invoice, out);
+        Matcher count = Pattern.compile("/Type /Pages /Count (\\d+)")
+                .matcher(out.toString(StandardCharsets.ISO_8859_1));
+        if (!count.find()) {
+            throw new IllegalStateException("No page tree in the rendered PDF");
+        }
+        return Integer.parseInt(count.group(1));
+    }
+
+    private static InvoicePdfDTO invoice(int lines) {
+
+        List<InvoicePdfDTO.Item> items = new ArrayList<>(lines);
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            InvoicePdfDTO.Item item = new InvoicePdfDTO.Item();
+            item.setProductName("Product " + i + " (pack of " + (i % 12 + 1) + ")");
+            item.setQuantity(i % 5 + 1);
+            item.setPriceMinor(12_345 + i);
+            item.setTotalMinor((12_345L + i) * (i % 5 + 1));
+            subtotal += item.getTotalMinor();
+            items.add(item);
+        }
+
+        InvoicePdfDTO invoice = new InvoicePdfDTO();
+        invoice.setInvoiceNumber("INV-2026-000042");
+        invoice.setCustomerName("Zenith Traders");
+        invoice.setDueDate(LocalDate.of(2026, 3, 31));
+        invoice.setItems(items);
+        invoice.setSubtotalMinor(subtotal);
+        invoice.setCgstMinor(subtotal * 9 / 100);
+        invoice.setSgstMinor(subtotal * 9 / 100);
+        invoice.setTaxMinor(subtotal * 18 / 100);
+        invoice.setTotalAmountMinor(subtotal + subtotal * 18 / 100);
+        return invoice;
+    }
+}
@@ -0,0 +1,29 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.util.RevenueSeries;
+
+import java.time.LocalDate;
+
+// Ten-year dashboard query over one tenant's daily series (target: single-
+// digit milliseconds)
+public class RevenueSeriesBenchmark {
+
+    private static final int DAYS = 3_653;
+
+    public static void main(String[] args) {
+
+        RevenueSeries series = new RevenueSeries();
+        LocalDate first = LocalDate.of(2016, 1, 1);
+        for (int day = 0; day < DAYS; day++) {
+            series.add(first.plusDays(day), 100_000 + day, 18_000, 90_000);
+        }
+        LocalDate last = first.plusDays(DAYS - 1);
+
+        for (RevenueSeries.Granularity granularity : RevenueSeries.Granularity.values()) {
+            double nanos = Bench.nanosPerRound(500, 1_000,
+                    i -> series.query(first, last, granularity));
+            System.out.printf("%d days, ~%d KB, %s buckets: %.1f us per ten-year query%n",
+                    series.days(), series.estimatedBytes() / 1024, granularity, nanos / 1_000);
+        }
+    }
+}
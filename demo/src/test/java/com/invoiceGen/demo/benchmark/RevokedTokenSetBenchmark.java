@@ -0,0 +1,33 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.util.RevokedTokenSet;
+
+import java.util.SplittableRandom;
+
+// Cost of the per-request revocation probe, which nearly always misses
+public class RevokedTokenSetBenchmark {
+
+    private static final int REVOKED = 1_000_000;
+    private static final int LOOKUPS = 10_000_000;
+
+    public static void main(String[] args) {
+
+        RevokedTokenSet set = new RevokedTokenSet();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < REVOKED; i++) {
+            set.add(random.nextLong() | 1L);   // odd ids only
+        }
+
+        // Even ids were never added; counting hits keeps the JIT from
+        // dropping the lookups
+        long[] hits = new long[1];
+        double nanos = Bench.nanosPerRound(LOOKUPS, LOOKUPS, i -> {
+            if (set.contains(random.nextLong() & ~1L)) {
+                hits[0]++;
+            }
+        });
+
+        System.out.printf("%d lookups against %d revoked ids: %.1f ns each (%d false hits)%n",
+                LOOKUPS, REVOKED, nanos, hits[0]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.util.StockLedger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Reservation throughput when every thread fights over the same two products
+public class StockLedgerBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+
+        StockLedger ledger = new StockLedger();
+        long[] productIds = {1, 2};
+        int[] quantities = {3, 1};
+        long stock = (long) THREADS * ATTEMPTS_PER_THREAD;   // product 1 runs dry after a third
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Future<?>[] futures = new Future<?>[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            futures[t] = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (ledger.reserve(productIds, quantities, id -> stock) < 0) {
+                        ledger.confirm(productIds, quantities);
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        pool.shutdown();
+
+        long attempts = (long) THREADS * ATTEMPTS_PER_THREAD;
+        System.out.printf("%d reservation attempts on 2 hot products, %d threads: %d ms (%.1f M/s)%n",
+                attempts, THREADS, nanos / 1_000_000, attempts * 1_000.0 / nanos);
+    }
+}
@@ -0,0 +1,85 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.enums.GstSlab;
+import com.invoiceGen.demo.service.TaxEngine;
+import com.invoiceGen.demo.util.Money;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+// Totals for a 200-line invoice: TaxEngine on long paise against the boxed
+// Double arithmetic it replaced (price x quantity summed, then a flat 18%).
+// Prints time and heap allocated per invoice.
+public class TaxTotalsBenchmark {
+
+    private static final int LINES = 200;
+    private static final int WARMUP = 50_000;
+    private static final int ROUNDS = 200_000;
+    private static final double OLD_TAX_RATE = 0.18;
+
+    public static void main(String[] args) {
+
+        SplittableRandom random = new SplittableRandom(42);
+        GstSlab[] allSlabs = GstSlab.values();
+
+        long[] prices = new long[LINES];
+        Double[] boxedPrices = new Double[LINES];
+        int[] quantities = new int[LINES];
+        GstSlab[] slabs = new GstSlab[LINES];
+        for (int i = 0; i < LINES; i++) {
+            prices[i] = random.nextLong(100, 1_000_000);
+            boxedPrices[i] = Money.toMajor(prices[i]);
+            quantities[i] = random.nextInt(1, 20);
+            slabs[i] = allSlabs[random.nextInt(allSlabs.length)];
+        }
+
+        TaxEngine taxEngine = new TaxEngine();
+        long[] sink = new long[1];
+
+        // Alternating intra- and inter-state, so both splits are exercised
+        IntConsumer minorUnits = round -> {
+            TaxEngine.Totals totals = new TaxEngine.Totals();
+            boolean interState = (round & 1) == 1;
+            for (int i = 0; i < LINES; i++) {
+                taxEngine.addLine(totals, Money.times(prices[i], quantities[i]), slabs[i], interState);
+            }
+            sink[0] += totals.total();
+        };
+
+        IntConsumer boxedDoubles = round -> {
+            Double subtotal = 0.0;
+            for (int i = 0; i < LINES; i++) {
+                Double lineTotal = boxedPrices[i] * quantities[i];
+                subtotal += lineTotal;
+            }
+            Double tax = subtotal * OLD_TAX_RATE;
+            Double totalAmount = subtotal + tax;
+            sink[0] += totalAmount.longValue();
+        };
+
+        report("TaxEngine (long paise)", minorUnits);
+        report("boxed Double, flat 18%", boxedDoubles);
+
+        System.out.println("(checksum " + sink[0] + ")");
+    }
+
+    private static void report(String label, IntConsumer body) {
+
+        double nanos = Bench.nanosPerRound(WARMUP, ROUNDS, body);
+
+        long before = allocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            body.accept(i);
+        }
+        double bytes = (double) (allocatedBytes() - before) / ROUNDS;
+
+        System.out.printf("%-24s %d lines: %.0f ns per invoice (%.1f ns per line), %.0f bytes allocated%n",
+                label, LINES, nanos, nanos / LINES, bytes);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
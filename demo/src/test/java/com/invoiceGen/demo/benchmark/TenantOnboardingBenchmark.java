@@ -0,0 +1,162 @@
+package com.invoiceGen.demo.benchmark;
+
+import com.invoiceGen.demo.config.OnboardingProperties;
+import com.invoiceGen.demo.dto.BulkTenantResultDTO;
+import com.invoiceGen.demo.dto.TenantOnboardingRequestDTO;
+import com.invoiceGen.demo.entity.Product;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.repository.ProductRepository;
+import com.invoiceGen.demo.repository.UserRepository;
+import com.invoiceGen.demo.service.PasswordHashingService;
+import com.invoiceGen.demo.service.TenantOnboardingService;
+import com.invoiceGen.demo.service.TenantProvisioningService;
+import com.invoiceGen.demo.util.DefaultProducts;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Tenants per second through TenantOnboardingService.onboard, each tenant
+// with the default plan's five products. Three runs:
+// - one at a time, the way register wrote tenants before (user, then each
+//   product, every insert sent at once as under the old IDENTITY ids);
+// - bulk, with hashing stubbed out, for the database side alone;
+// - bulk with real BCrypt at cost 10 on the hashing pool.
+// H2, so compare the runs with each other, not with MySQL.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // "user" is a reserved word in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        // As in persistence.properties, which the JPA slice does not load
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class TenantOnboardingBenchmark {
+
+    private static final int TENANTS = 5_000;
+    private static final int HASHED_TENANTS = 500;
+    private static final int CLEAR_EVERY = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final OnboardingProperties onboardingProperties = new OnboardingProperties();
+
+    @Test
+    void tenantsPerSecond() {
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        // Warm-up on a few hundred tenants, not reported
+        onboardOneAtATime(requests("warm-a", CLEAR_EVERY));
+        bulk(stubbedHashing()).onboard(requests("warm-b", CLEAR_EVERY));
+
+        report("one at a time", statistics,
+                () -> onboardOneAtATime(requests("single", TENANTS)));
+
+        TenantOnboardingService stubbed = bulk(stubbedHashing());
+        report("bulk, hashing stubbed", statistics,
+                () -> created(stubbed.onboard(requests("bulk", TENANTS))));
+
+        PasswordHashingService hashing =
+                new PasswordHashingService(new BCryptPasswordEncoder(10), 0, 32, 60_000);
+        TenantOnboardingService hashed = bulk(hashing);
+        report("bulk, BCrypt cost 10", statistics,
+                () -> created(hashed.onboard(requests("hashed", HASHED_TENANTS))));
+        hashing.shutdown();
+    }
+
+    // Rates count created tenants only, so a failing batch cannot look fast
+    private void report(String label, Statistics statistics, LongSupplier onboard) {
+
+        statistics.clear();
+        long start = System.nanoTime();
+        long tenants = onboard.getAsLong();
+        entityManager.flush();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        entityManager.clear();
+
+        System.out.printf("%-22s %5d tenants: %.0f tenants/s, %.2f statements per tenant%n",
+                label, tenants, tenants / seconds,
+                (double) statistics.getPrepareStatementCount() / tenants);
+    }
+
+    private TenantOnboardingService bulk(PasswordHashingService hashing) {
+        TenantProvisioningService provisioning = new TenantProvisioningService(
+                userRepository, productRepository, onboardingProperties, entityManager);
+        return new TenantOnboardingService(userRepository, provisioning, hashing, onboardingProperties);
+    }
+
+    // Passwords pass through unchanged
+    private static PasswordHashingService stubbedHashing() {
+        PasswordHashingService hashing = mock(PasswordHashingService.class);
+        when(hashing.encodeAll(anyList()))
+                .thenAnswer(call -> new ArrayList<>(call.<List<String>>getArgument(0)));
+        return hashing;
+    }
+
+    // The per-tenant writes register made before it was batched, with the
+    // hash already done so only the database side is timed
+    private long onboardOneAtATime(List<TenantOnboardingRequestDTO> requests) {
+
+        for (int i = 0; i < requests.size(); i++) {
+            TenantOnboardingRequestDTO request = requests.get(i);
+            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+                throw new RuntimeException("Email already registered");
+            }
+
+            User user = userRepository.saveAndFlush(User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .password(request.getPassword())
+                    .plan(onboardingProperties.getDefaultPlan())
+                    .build());
+
+            for (Product product : DefaultProducts.getDefaultProducts()) {
+                product.setUser(user);
+                productRepository.saveAndFlush(product);
+            }
+
+            if ((i + 1) % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        return requests.size();
+    }
+
+    private static List<TenantOnboardingRequestDTO> requests(String prefix, int count) {
+
+        List<TenantOnboardingRequestDTO> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TenantOnboardingRequestDTO request = new TenantOnboardingRequestDTO();
+            request.setName("Tenant " + i);
+            request.setEmail(prefix + "-" + i + "@example.com");
+            request.setPassword("password-" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static long created(List<BulkTenantResultDTO> results) {
+        return results.stream().filter(r -> BulkTenantResultDTO.CREATED.equals(r.getStatus())).count();
+    }
+}
@@ -0,0 +1,184 @@
+package com.invoiceGen.demo.pdf;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavaPdfRendererTests {
+
+    private final JavaPdfRenderer renderer = new JavaPdfRenderer();
+
+    @Test
+    void literalStringsEscapeParenthesesAndBackslashes() throws IOException {
+
+        PdfBuffer buf = new PdfBuffer(4);
+        buf.appendText("a(b)c\\d");
+        assertEquals("a\\(b\\)c\\\\d", text(buf));
+
+        String pdf = render(invoice("INV-(1)", "Shah \\ Sons (Pvt)", 1));
+        assertTrue(pdf.contains("(Customer: Shah \\\\ Sons \\(Pvt\\)) Tj"), pdf);
+        assertTrue(pdf.contains("(Invoice No: INV-\\(1\\)) Tj"), pdf);
+        assertFalse(pdf.contains("Sons (Pvt)"));
+        assertXrefMatchesObjects(pdf);
+    }
+
+    @Test
+    void xrefOffsetsPointAtEachObject() throws IOException {
+
+        String pdf = render(invoice("INV-7", "Acme", 3));
+
+        assertXrefMatchesObjects(pdf);
+
+        // One page: catalog, pages, two fonts, resources, page and its content
+        assertTrue(pdf.contains("trailer\n<< /Size 8 /Root 1 0 R >>"), pdf);
+        assertTrue(pdf.endsWith("%%EOF\n"));
+
+        // The content stream holds exactly /Length bytes
+        Matcher stream = Pattern.compile("/Length (\\d+) >>\nstream\n").matcher(pdf);
+        assertTrue(stream.find());
+        int start = stream.end();
+        int length = Integer.parseInt(stream.group(1));
+        assertTrue(pdf.startsWith("\nendstream", start + length));
+    }
+
+    @Test
+    void longItemListOverflowsOntoFurtherPages() throws IOException {
+
+        int items = 100;
+        String pdf = render(invoice("INV-9", "Acme", items));
+        assertXrefMatchesObjects(pdf);
+
+        int[] starts = InvoicePdfLayout.paginate(items);
+        int pages = starts.length - 1;
+        assertTrue(pages > 1, "expected more than one page, got " + pages);
+        assertEquals(0, starts[0]);
+        assertEquals(items, starts[pages]);
+
+        assertTrue(pdf.contains("/Type /Pages /Count " + pages + " "), pdf);
+        assertEquals(pages, count(pdf, "/Type /Page /Parent"));
+        for (int p = 1; p <= pages; p++) {
+            assertEquals(1, count(pdf, "(Page " + p + " of " + pages + ")"), "footer of page " + p);
+        }
+
+        // Every row once, the title once, a continuation heading on every later page
+        for (int i = 0; i < items; i++) {
+            assertEquals(1, count(pdf, "(Item " + i + ")"), "row " + i);
+        }
+        assertEquals(1, count(pdf, "(INVOICE)"));
+        assertEquals(pages - 1, count(pdf, "(Invoice INV-9 \\(continued\\))"));
+        assertEquals(1, count(pdf, "(Total: "));
+
+        // A first page filled to capacity pushes the totals onto a page of their own
+        int[] fullFirstPage = InvoicePdfLayout.paginate(starts[1]);
+        assertEquals(3, fullFirstPage.length);
+        assertEquals(starts[1], fullFirstPage[1]);
+        assertEquals(starts[1], fullFirstPage[2]);
+    }
+
+    @Test
+    void nonAsciiNamesAreWrittenAsWinAnsiBytes() throws IOException {
+
+        byte[] pdf = renderBytes(invoice("INV-3", "José Müller", 1));
+        String latin1 = new String(pdf, StandardCharsets.ISO_8859_1);
+
+        // Latin-1 characters keep their single byte, as WinAnsiEncoding expects
+        assertTrue(latin1.contains("(Customer: José Müller) Tj"), latin1);
+        assertFalse(latin1.contains("Ã"), "no UTF-8 sequences");
+
+        // Characters outside Latin-1 are replaced one for one, not dropped or split
+        String devanagari = render(invoice("INV-4", "राज Traders", 1));
+        assertTrue(devanagari.contains("(Customer: ??? Traders) Tj"), devanagari);
+        assertXrefMatchesObjects(devanagari);
+        assertXrefMatchesObjects(latin1);
+    }
+
+    // -------------------------
+    // HELPERS
+    // -------------------------
+
+    // Each xref entry must be the byte offset of "<n> 0 obj", and startxref the offset of "xref"
+    private static void assertXrefMatchesObjects(String pdf) {
+
+        Matcher startxref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(pdf);
+        assertTrue(startxref.find(), "startxref");
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 ", xref), "xref at " + xref);
+
+        Matcher header = Pattern.compile("xref\n0 (\\d+)\n").matcher(pdf);
+        assertTrue(header.find(xref));
+        int size = Integer.parseInt(header.group(1));
+        int entry = header.end();
+        assertTrue(pdf.startsWith("0000000000 65535 f \n", entry));
+
+        for (int n = 1; n < size; n++) {
+            entry += 20;
+            String line = pdf.substring(entry, entry + 20);
+            assertTrue(line.endsWith(" 00000 n \n"), line);
+            int offset = Integer.parseInt(line.substring(0, 10));
+            assertTrue(pdf.startsWith(n + " 0 obj\n", offset), "object " + n + " at " + offset);
+        }
+    }
+
+    private String render(InvoicePdfDTO invoice) throws IOException {
+        return new String(renderBytes(invoice), StandardCharsets.ISO_8859_1);
+    }
+
+    private byte[] renderBytes(InvoicePdfDTO invoice) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(invoice, out);
+        return out.toByteArray();
+    }
+
+    private static String text(PdfBuffer buf) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buf.writeTo(out);
+        return out.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static int count(String haystack, String needle) {
+        int n = 0;
+        for (int i = haystack.indexOf(needle); i >= 0; i = haystack.indexOf(needle, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static InvoicePdfDTO invoice(String number, String customer, int itemCount) {
+
+        List<InvoicePdfDTO.Item> items = new ArrayList<>();
+        long subtotal = 0;
+        for (int i = 0; i < itemCount; i++) {
+            InvoicePdfDTO.Item item = new InvoicePdfDTO.Item();
+            item.setProductName("Item " + i);
+            item.setQuantity(2);
+            item.setPriceMinor(1_050);
+            item.setTotalMinor(2_100);
+            items.add(item);
+            subtotal += 2_100;
+        }
+
+        InvoicePdfDTO invoice = new InvoicePdfDTO();
+        invoice.setInvoiceNumber(number);
+        invoice.setCustomerName(customer);
+        invoice.setDueDate(LocalDate.of(2026, 3, 31));
+        invoice.setItems(items);
+        invoice.setSubtotalMinor(subtotal);
+        invoice.setCgstMinor(subtotal * 9 / 100);
+        invoice.setSgstMinor(subtotal * 9 / 100);
+        invoice.setTaxMinor(subtotal * 18 / 100);
+        invoice.setTotalAmountMinor(subtotal + subtotal * 18 / 100);
+        return invoice;
+    }
+}
@@ -0,0 +1,207 @@
+package com.invoiceGen.demo.repository;
+
+import com.invoiceGen.demo.dto.InvoicePdfDTO;
+import com.invoiceGen.demo.entity.Invoice;
+import com.invoiceGen.demo.entity.InvoiceItem;
+import com.invoiceGen.demo.entity.Product;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import com.invoiceGen.demo.enums.PdfStatus;
+import com.invoiceGen.demo.util.InvoiceCursor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // "user" is a reserved word in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+class InvoiceRepositoryTests {
+
+    private static final int INVOICES = 10;
+    private static final int ITEMS_PER_INVOICE = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long invoiceId;
+
+    @BeforeEach
+    void setUp() {
+
+        User user = User.builder().name("Acme").email("acme@example.com").password("x").build();
+        entityManager.persist(user);
+
+        Product product = new Product("Widget", 10_000L, 100);
+        product.setUser(user);
+        entityManager.persist(product);
+
+        for (int n = 0; n < INVOICES; n++) {
+            Invoice invoice = Invoice.builder()
+                    .user(user)
+                    .invoiceNumber("INV-2026-" + n)
+                    .customerName((n % 2 == 0 ? "Acme " : "Zenith ") + n)
+                    .dueDate(LocalDate.of(2026, 1, 1).plusDays(n))
+                    .status(InvoiceStatus.UNPAID)
+                    .pdfStatus(PdfStatus.PENDING)
+                    .totalAmountMinor(11_800L * (n + 1))
+                    .build();
+
+            List<InvoiceItem> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_INVOICE; i++) {
+                InvoiceItem item = new InvoiceItem();
+                item.setInvoice(invoice);
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPriceMinor(10_000L);
+                item.setTotalMinor(10_000L);
+                items.add(item);
+            }
+            invoice.setItems(items);
+            entityManager.persist(invoice);
+            invoiceId = invoice.getId();
+        }
+
+        userId = user.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void recentInvoicesIsOneScalarQuery() {
+
+        List<InvoiceSummary> recent =
+                invoiceRepository.findRecentByUserId(userId, PageRequest.of(0, 5));
+
+        assertEquals(5, recent.size());
+        for (int i = 1; i < recent.size(); i++) {
+            assertFalse(recent.get(i).getCreatedAt().isAfter(recent.get(i - 1).getCreatedAt()));
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "projection must not load entities");
+    }
+
+    @Test
+    void invoiceWithItemsAndProductsIsOneQuery() {
+
+        Invoice invoice = invoiceRepository.findWithItemsById(invoiceId).orElseThrow();
+
+        assertEquals(ITEMS_PER_INVOICE, invoice.getItems().size());
+        invoice.getItems().forEach(item -> assertEquals("Widget", item.getProduct().getName()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pdfDataForABatchIsOneFlatQuery() {
+
+        List<Long> ids = invoiceRepository.findAllSummariesByUserId(userId).stream()
+                .map(InvoiceSummary::getId).toList();
+        statistics.clear();
+
+        List<InvoicePdfDTO> pdfData = invoiceRepository.findPdfData(ids);
+
+        assertEquals(INVOICES, pdfData.size());
+        pdfData.forEach(dto -> {
+            assertEquals(ITEMS_PER_INVOICE, dto.getItems().size());
+            dto.getItems().forEach(item -> assertEquals("Widget", item.getProductName()));
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "projection must not load entities");
+    }
+
+    @Test
+    void keysetPagesCoverEveryRowOnceWithOneQueryEach() {
+
+        List<InvoiceListRow> rows = pageThrough(new InvoiceListFilter(null, null, null, null));
+
+        assertEquals(INVOICES, rows.size());
+        assertEquals(INVOICES, rows.stream().map(InvoiceSummary::getId).distinct().count());
+        // Four pages of three, plus the empty one that ends the listing
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filteredPagesFollowTheFilteredIndex() {
+
+        // Due range: n = 1..8 by due date
+        List<InvoiceListRow> due = pageThrough(new InvoiceListFilter(null,
+                LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 9), null));
+        assertEquals(8, due.size());
+        for (int i = 0; i < due.size(); i++) {
+            assertEquals(LocalDate.of(2026, 1, 2).plusDays(i), due.get(i).getDueDate());
+        }
+
+        // Customer prefix: by name, the due range (if any) checked per row
+        List<InvoiceListRow> acme = pageThrough(new InvoiceListFilter(null,
+                LocalDate.of(2026, 1, 2), null, "Acme"));
+        assertEquals(List.of("Acme 2", "Acme 4", "Acme 6", "Acme 8"),
+                acme.stream().map(InvoiceSummary::getCustomerName).toList());
+    }
+
+    @Test
+    void cursorOfAnotherOrderIsRejected() {
+
+        InvoiceListFilter none = new InvoiceListFilter(null, null, null, null);
+        InvoiceListRow last = invoiceRepository.findPage(userId, none, null, 1).get(0);
+        String cursor = InvoiceCursor.after(none.order(), last).encode();
+
+        assertThrows(RuntimeException.class, () -> InvoiceCursor.decode(cursor,
+                new InvoiceListFilter(null, null, null, "Acme").order()));
+        assertEquals(last.getId(), InvoiceCursor.decode(cursor, none.order()).id());
+    }
+
+    @Test
+    void keysetFiltersCombine() {
+
+        InvoiceListFilter filter = new InvoiceListFilter(InvoiceStatus.UNPAID,
+                LocalDate.of(2026, 1, 3), LocalDate.of(2026, 1, 8), "Acme");
+
+        List<InvoiceListRow> rows = invoiceRepository.findPage(userId, filter, null, 50);
+
+        // n = 2, 4, 6: even (Acme) and due between Jan 3 and Jan 8
+        assertEquals(3, rows.size());
+        rows.forEach(row -> assertTrue(row.getCustomerName().startsWith("Acme")));
+    }
+
+    // Every page of the listing, three rows at a time
+    private List<InvoiceListRow> pageThrough(InvoiceListFilter filter) {
+
+        List<InvoiceListRow> rows = new ArrayList<>();
+        InvoiceCursor after = null;
+        while (true) {
+            List<InvoiceListRow> page = invoiceRepository.findPage(userId, filter, after, 3);
+            if (page.isEmpty()) {
+                return rows;
+            }
+            rows.addAll(page);
+            after = InvoiceCursor.after(filter.order(), page.get(page.size() - 1));
+        }
+    }
+}
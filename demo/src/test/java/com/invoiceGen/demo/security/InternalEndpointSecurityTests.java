@@ -0,0 +1,92 @@
+package com.invoiceGen.demo.security;
+
+import com.invoiceGen.demo.controller.InvoiceController;
+import com.invoiceGen.demo.pdf.PdfDownloadWriter;
+import com.invoiceGen.demo.repository.InvoiceRepository;
+import com.invoiceGen.demo.service.BulkInvoiceImportService;
+import com.invoiceGen.demo.service.InvoiceExportService;
+import com.invoiceGen.demo.service.InvoiceSearchService;
+import com.invoiceGen.demo.service.InvoiceService;
+import com.invoiceGen.demo.service.PdfOutboxService;
+import com.invoiceGen.demo.service.PdfRenderService;
+import com.invoiceGen.demo.service.TokenRevocationService;
+import com.invoiceGen.demo.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(controllers = InvoiceController.class,
+        properties = "internal.service.token=test-service-token")
+@Import(SecurityConfig.class)
+class InternalEndpointSecurityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean private InvoiceService invoiceService;
+    @MockitoBean private InvoiceRepository invoiceRepository;
+    @MockitoBean private PdfOutboxService pdfOutboxService;
+    @MockitoBean private PdfRenderService pdfRenderService;
+    @MockitoBean private PdfDownloadWriter pdfDownloadWriter;
+    @MockitoBean private BulkInvoiceImportService bulkInvoiceImportService;
+    @MockitoBean private InvoiceSearchService invoiceSearchService;
+    @MockitoBean private InvoiceExportService invoiceExportService;
+    @MockitoBean private JwtUtil jwtUtil;
+    @MockitoBean private PrincipalCache principalCache;
+    @MockitoBean private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void anonymousBatchIsRejected() throws Exception {
+
+        MvcResult result = mockMvc.perform(post("/api/invoices/internal/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2,3]"))
+                .andReturn();
+
+        assertRejected(result);
+        verify(invoiceService, never()).forEachInvoicePdfData(any(), any());
+    }
+
+    @Test
+    void wrongTokenIsRejected() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/invoices/internal/1")
+                        .header(InternalServiceAuthFilter.HEADER, "guess"))
+                .andReturn();
+
+        assertRejected(result);
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void serviceTokenIsAccepted() throws Exception {
+
+        MvcResult result = mockMvc.perform(post("/api/invoices/internal/batch")
+                        .header(InternalServiceAuthFilter.HEADER, "test-service-token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2,1,2]"))
+                .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus());
+        verify(invoiceService).forEachInvoicePdfData(any(), any());
+    }
+
+    private static void assertRejected(MvcResult result) {
+        int status = result.getResponse().getStatus();
+        assertTrue(status == 401 || status == 403, "expected 401/403, got " + status);
+    }
+}
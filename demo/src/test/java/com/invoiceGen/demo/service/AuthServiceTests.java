@@ -0,0 +1,48 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.config.OnboardingProperties;
+import com.invoiceGen.demo.entity.User;
+import com.invoiceGen.demo.enums.UserRole;
+import com.invoiceGen.demo.repository.ProductRepository;
+import com.invoiceGen.demo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTests {
+
+    @Test
+    void registrationCannotPickItsOwnRole() {
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+
+        PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.encode("secret")).thenReturn("hashed");
+
+        TenantProvisioningService tenantProvisioningService = new TenantProvisioningService(
+                userRepository, mock(ProductRepository.class),
+                new OnboardingProperties(), mock(EntityManager.class));
+        AuthService authService =
+                new AuthService(userRepository, tenantProvisioningService, passwordHashingService);
+
+        // The body POST /api/auth/register binds
+        User request = new ObjectMapper().readValue(
+                "{\"name\":\"Mallory\",\"email\":\"m@example.com\"," +
+                "\"password\":\"secret\",\"role\":\"ADMIN\"}", User.class);
+        assertEquals(UserRole.ADMIN, request.getRole());
+
+        authService.register(request);
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertEquals(UserRole.USER, saved.getValue().getRole());
+    }
+}
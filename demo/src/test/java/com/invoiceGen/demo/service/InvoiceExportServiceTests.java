@@ -0,0 +1,132 @@
+package com.invoiceGen.demo.service;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Plain JDBC against H2 in MySQL mode, with tables shaped like the ones
+// Hibernate generates; the export never goes through JPA
+class InvoiceExportServiceTests {
+
+    private static final int INVOICES = 200_000;
+    private static final int ITEMS_PER_INVOICE = 5;
+    private static final int ROWS = INVOICES * ITEMS_PER_INVOICE;
+
+    private static InvoiceExportService exportService;
+
+    @BeforeAll
+    static void createData() {
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;" +
+                "LAZY_QUERY_EXECUTION=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.execute("create table product (id bigint primary key, name varchar(255))");
+        jdbc.execute("create table invoice (id bigint primary key, user_id bigint, " +
+                "invoice_number varchar(255), customer_name varchar(255), created_at timestamp, " +
+                "due_date date, status varchar(20), subtotal_minor bigint, tax_minor bigint, " +
+                "total_amount_minor bigint)");
+        jdbc.execute("create index idx_invoice_user_created on invoice (user_id, created_at)");
+        jdbc.execute("create table invoice_item (id bigint primary key, invoice_id bigint, " +
+                "product_id bigint, quantity int, price_minor bigint, tax_minor bigint, " +
+                "total_minor bigint)");
+        jdbc.execute("create index idx_item_invoice on invoice_item (invoice_id)");
+
+        jdbc.update("insert into product values (1, 'Widget')");
+        // One invoice a minute from Jan 1st; every tenth one is paid
+        jdbc.update("insert into invoice select x, 1, concat('INV-', x), " +
+                "concat('Customer, \"', x, '\"'), dateadd('MINUTE', x, timestamp '2026-01-01 00:00:00'), " +
+                "date '2026-03-01', case when mod(x, 10) = 0 then 'PAID' else 'UNPAID' end, " +
+                "100000, 18000, 118000 from system_range(1, " + INVOICES + ")");
+        jdbc.update("insert into invoice_item select x, (x - 1) / " + ITEMS_PER_INVOICE + " + 1, " +
+                "1, 2, 10000, 3600, 20000 from system_range(1, " + ROWS + ")");
+        // Another tenant's invoice must never show up
+        jdbc.update("insert into invoice values (" + (INVOICES + 1) + ", 2, 'INV-X', 'Other', " +
+                "timestamp '2026-01-01 00:30:00', null, 'UNPAID', 0, 0, 0)");
+
+        exportService = new InvoiceExportService(jdbc, 1000, true);
+    }
+
+    @Test
+    void csvHonoursTenantDateAndStatusFilters() {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Jan 1st holds invoices 1..1439, of which 143 are paid
+        long rows = exportService.export(1L,
+                new InvoiceExportService.Filter(InvoiceStatus.PAID,
+                        LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1)),
+                InvoiceExportService.Format.CSV, out);
+
+        assertEquals(143L * ITEMS_PER_INVOICE, rows);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(InvoiceExportService.CSV_HEADER, lines[0]);
+        assertEquals("INV-10,\"Customer, \"\"10\"\"\",2026-01-01T00:10,2026-03-01,PAID," +
+                "1000.00,180.00,1180.00,Widget,2,100.00,36.00,200.00", lines[1]);
+        assertEquals(rows + 1, lines.length);
+    }
+
+    @Test
+    void millionRowJsonExportKeepsAFlatHeap() {
+
+        HeapSamplingStream out = new HeapSamplingStream(ROWS / 10);
+
+        long rows = exportService.export(1L, new InvoiceExportService.Filter(null, null, null),
+                InvoiceExportService.Format.JSONL, out);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS, out.lines);
+
+        long growth = out.maxUsed - out.minUsed;
+
+        // Holding on to rows would retain hundreds of MB here
+        assertTrue(growth < 32L * 1024 * 1024, "heap grew by " + growth / 1024 + " KB");
+    }
+
+    // Discards output; every N lines records the heap still in use after a GC
+    private static final class HeapSamplingStream extends OutputStream {
+
+        private final long sampleEvery;
+        long lines;
+        long minUsed = Long.MAX_VALUE;
+        long maxUsed;
+
+        HeapSamplingStream(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % sampleEvery == 0) {
+                sample();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private void sample() {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            minUsed = Math.min(minUsed, used);
+            maxUsed = Math.max(maxUsed, used);
+        }
+    }
+}
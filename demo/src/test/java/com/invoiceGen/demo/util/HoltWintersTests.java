@@ -0,0 +1,44 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoltWintersTests {
+
+    // Growing monthly revenue with a December peak and a summer dip
+    private static double month(int index) {
+        double[] seasonal = {-20, -15, -5, 0, 5, -25, -30, -10, 5, 10, 30, 55};
+        return 1_000 + 8 * index + seasonal[index % 12];
+    }
+
+    @Test
+    void learnsTrendAndSeasonFromMonthlyTotals() {
+
+        HoltWinters model = new HoltWinters(0.3, 0.1, 0.2, 12);
+        for (int i = 0; i < 48; i++) {
+            model.observe(month(i));
+        }
+
+        for (int step = 1; step <= 12; step++) {
+            double expected = month(47 + step);
+            double forecast = model.forecast(step);
+            assertTrue(Math.abs(forecast - expected) < expected * 0.02,
+                    "step " + step + ": " + forecast + " vs " + expected);
+        }
+    }
+
+    @Test
+    void shortHistoriesFallBackToTheTrend() {
+
+        HoltWinters model = new HoltWinters(0.3, 0.1, 0.2, 12);
+        assertEquals(0.0, model.forecast(1), 0.0);
+
+        for (int i = 0; i < 6; i++) {
+            model.observe(500);
+        }
+        assertEquals(500.0, model.forecast(1), 1e-9);
+        assertEquals(500.0, model.forecast(12), 1e-9);
+    }
+}
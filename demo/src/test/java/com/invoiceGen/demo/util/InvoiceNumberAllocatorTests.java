@@ -0,0 +1,97 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceNumberAllocatorTests {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 500_000;
+    private static final int TENANTS = 4;
+
+    @Test
+    void concurrentAllocationNeverRepeatsANumber() throws Exception {
+
+        // In-memory stand-in for the sequence table
+        ConcurrentHashMap<String, AtomicLong> table = new ConcurrentHashMap<>();
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(
+                (tenantId, year, size) -> table
+                        .computeIfAbsent(tenantId + ":" + year, k -> new AtomicLong(1))
+                        .getAndAdd(size),
+                100);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Future<long[][]>[] futures = new Future[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            futures[t] = pool.submit(() -> {
+                long[][] numbers = new long[TENANTS][PER_THREAD / TENANTS];
+                start.await();
+                for (int i = 0; i < PER_THREAD; i++) {
+                    int tenant = i % TENANTS;
+                    numbers[tenant][i / TENANTS] = allocator.next(tenant, 2026);
+                }
+                return numbers;
+            });
+        }
+        start.countDown();
+
+        long[][] all = new long[TENANTS][THREADS * (PER_THREAD / TENANTS)];
+        for (int t = 0; t < THREADS; t++) {
+            long[][] numbers = futures[t].get();
+            for (int tenant = 0; tenant < TENANTS; tenant++) {
+                long[] seen = numbers[tenant];
+                // Each thread observes a strictly increasing sequence per tenant
+                for (int i = 1; i < seen.length; i++) {
+                    assertTrue(seen[i] > seen[i - 1], "numbers went backwards");
+                }
+                System.arraycopy(seen, 0, all[tenant], t * seen.length, seen.length);
+            }
+        }
+        pool.shutdown();
+
+        for (long[] tenantNumbers : all) {
+            Arrays.sort(tenantNumbers);
+            for (int i = 1; i < tenantNumbers.length; i++) {
+                assertTrue(tenantNumbers[i] != tenantNumbers[i - 1],
+                        "duplicate number " + tenantNumbers[i]);
+            }
+        }
+    }
+
+    @Test
+    void yearsAreNumberedIndependently() {
+
+        AtomicLong reserved = new AtomicLong();
+        ConcurrentHashMap<String, AtomicLong> table = new ConcurrentHashMap<>();
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(
+                (tenantId, year, size) -> {
+                    reserved.incrementAndGet();
+                    return table.computeIfAbsent(tenantId + ":" + year, k -> new AtomicLong(1))
+                            .getAndAdd(size);
+                },
+                10);
+
+        assertEquals(1, allocator.next(1, 2025));
+        assertEquals(2, allocator.next(1, 2025));
+        assertEquals(1, allocator.next(1, 2026));
+        assertEquals(1, allocator.next(2, 2026));
+
+        for (int i = 0; i < 20; i++) {
+            allocator.next(1, 2025);
+        }
+        assertEquals(23, allocator.next(1, 2025));
+        assertEquals(5, reserved.get());
+    }
+}
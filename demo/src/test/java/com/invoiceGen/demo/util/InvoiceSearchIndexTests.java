@@ -0,0 +1,64 @@
+package com.invoiceGen.demo.util;
+
+import com.invoiceGen.demo.enums.InvoiceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceSearchIndexTests {
+
+    private static final int INVOICES = 100_000;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 5, 9, 30);
+
+    @Test
+    void matchesSubstringsOfEitherFieldNewestFirst() {
+
+        InvoiceSearchIndex index = new InvoiceSearchIndex();
+        index.add(1L, "INV-2026-000001", "Acme Traders", 125_000, CREATED, InvoiceStatus.UNPAID);
+        index.add(2L, "INV-2026-000002", "Zenith Labs", 9_900, CREATED, InvoiceStatus.UNPAID);
+        index.add(3L, "INV-2026-000003", "acme corp", 50, CREATED, InvoiceStatus.PAID);
+
+        InvoiceSearchIndex.Result acme = index.search("ACME", 10);
+        assertEquals(List.of(3L, 1L), acme.invoices().stream().map(InvoiceSearchIndex.Hit::id).toList());
+        assertEquals(List.of("acme corp", "Acme Traders"), acme.customers());
+        assertEquals(125_000, acme.invoices().get(1).totalAmountMinor());
+        assertEquals(CREATED, acme.invoices().get(1).createdAt());
+
+        assertEquals(List.of(2L), index.search("000002", 10).invoices().stream()
+                .map(InvoiceSearchIndex.Hit::id).toList());
+        assertEquals(2, index.search("ac", 10).invoices().size());
+        assertTrue(index.search("acmx", 10).invoices().isEmpty());
+
+        // Adding the same invoice twice (load racing a commit) is harmless
+        index.add(1L, "INV-2026-000001", "Acme Traders", 125_000, CREATED, InvoiceStatus.UNPAID);
+        index.updateStatus(1L, InvoiceStatus.PAID);
+        assertEquals(3, index.size());
+        assertEquals(InvoiceStatus.PAID, index.search("traders", 10).invoices().get(0).status());
+    }
+
+    @Test
+    void largeIndexReturnsTheNewestMatchesUpToTheLimit() {
+
+        InvoiceSearchIndex index = new InvoiceSearchIndex();
+        for (int n = 1; n <= INVOICES; n++) {
+            index.add((long) n, String.format("INV-2026-%06d", n),
+                    "Customer " + (n % 5_000), n * 100L, CREATED, InvoiceStatus.UNPAID);
+        }
+        assertEquals(INVOICES, index.size());
+
+        // INV-2026-0421xx: one hundred numbers, newest ten come back
+        assertEquals(List.of(42199L, 42198L, 42197L, 42196L, 42195L,
+                        42194L, 42193L, 42192L, 42191L, 42190L),
+                index.search("inv-2026-0421", 10).invoices().stream()
+                        .map(InvoiceSearchIndex.Hit::id).toList());
+
+        InvoiceSearchIndex.Result customer = index.search("mer 4999", 10);
+        assertEquals(99_999L, customer.invoices().get(0).id());
+        assertEquals(99_999L * 100, customer.invoices().get(0).totalAmountMinor());
+        assertEquals(List.of("Customer 4999"), customer.customers());
+    }
+}
@@ -0,0 +1,50 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OverdueRiskModelTests {
+
+    private static final int INVOICES = 1_000_000;
+
+    // The Python service's weights
+    private final OverdueRiskModel model = new OverdueRiskModel(0.04, 0.6, 0.5, 0.0);
+
+    @Test
+    void matchesThePythonServiceToTwoDecimals() {
+
+        // 1 / (1 + exp(-(0.04 d + 0.6 h + 0.5 p))), rounded to 2 places
+        assertEquals(0.5, model.score(0, 0, 0));
+        assertEquals(0.97, model.score(0, 4, 2));
+        assertEquals(0.86, model.score(30, 1, 0));
+        assertEquals(0.01, new OverdueRiskModel(0.04, 0.6, 0.5, -5.0).score(0, 1, 0));
+
+        LocalDate today = LocalDate.of(2026, 3, 31);
+        assertEquals(30, OverdueRiskModel.daysOverdue(LocalDate.of(2026, 3, 1), today));
+        assertEquals(0, OverdueRiskModel.daysOverdue(LocalDate.of(2026, 4, 15), today));
+        assertEquals(0, OverdueRiskModel.daysOverdue(null, today));
+    }
+
+    @Test
+    void batchScoringAgreesWithSingleScoring() {
+
+        int[] days = new int[INVOICES];
+        int[] history = new int[INVOICES];
+        int[] previous = new int[INVOICES];
+        double[] out = new double[INVOICES];
+        for (int i = 0; i < INVOICES; i++) {
+            days[i] = i % 120;
+            history[i] = i % 6 - 3;
+            previous[i] = i % 4;
+        }
+
+        model.scoreAll(days, history, previous, out, INVOICES);
+
+        for (int i = 0; i < INVOICES; i += 997) {
+            assertEquals(model.score(days[i], history[i], previous[i]), out[i]);
+        }
+    }
+}
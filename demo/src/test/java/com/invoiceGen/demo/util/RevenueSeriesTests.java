@@ -0,0 +1,79 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevenueSeriesTests {
+
+    @Test
+    void bucketsSumDaysAndCarryTheOutstandingBalance() {
+
+        RevenueSeries series = new RevenueSeries();
+        series.add(LocalDate.of(2026, 1, 30), 10_000, 1_800, 0);
+        series.add(LocalDate.of(2026, 2, 3), 5_000, 900, 0);
+        // Earlier than anything so far, and a payment of the first invoice
+        series.add(LocalDate.of(2025, 12, 31), 2_000, 360, 0);
+        series.add(LocalDate.of(2026, 2, 10), 0, 0, 10_000);
+
+        List<RevenueSeries.Bucket> months = series.query(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31), RevenueSeries.Granularity.MONTH);
+
+        assertEquals(List.of(
+                new RevenueSeries.Bucket(LocalDate.of(2026, 1, 1), 10_000, 1_800, 0, 12_000),
+                new RevenueSeries.Bucket(LocalDate.of(2026, 2, 1), 5_000, 900, 10_000, 7_000),
+                new RevenueSeries.Bucket(LocalDate.of(2026, 3, 1), 0, 0, 0, 7_000)), months);
+
+        // ISO weeks: Jan 30th 2026 is a Friday, Feb 3rd a Tuesday
+        List<RevenueSeries.Bucket> weeks = series.query(
+                LocalDate.of(2026, 1, 30), LocalDate.of(2026, 2, 8), RevenueSeries.Granularity.WEEK);
+        assertEquals(2, weeks.size());
+        assertEquals(LocalDate.of(2026, 1, 26), weeks.get(0).start());
+        assertEquals(10_000, weeks.get(0).invoicedMinor());
+        assertEquals(5_000, weeks.get(1).invoicedMinor());
+        assertEquals(17_000, weeks.get(1).outstandingMinor());
+
+        // Reversing an entry leaves the day at zero
+        series.add(LocalDate.of(2026, 2, 10), 0, 0, -10_000);
+        assertEquals(17_000, series.query(LocalDate.of(2026, 2, 10), LocalDate.of(2026, 2, 10),
+                RevenueSeries.Granularity.DAY).get(0).outstandingMinor());
+
+        // Before the first day there is nothing
+        assertEquals(0, series.query(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 31),
+                RevenueSeries.Granularity.MONTH).get(0).outstandingMinor());
+    }
+
+    @Test
+    void tenYearQueryCoversEveryDayAtEachGranularity() {
+
+        RevenueSeries series = new RevenueSeries();
+        LocalDate first = LocalDate.of(2016, 1, 1);
+        long invoiced = 0;
+        for (int day = 0; day < 3_653; day++) {
+            series.add(first.plusDays(day), 100_000 + day, 18_000, 90_000);
+            invoiced += 100_000 + day;
+        }
+        LocalDate last = first.plusDays(3_652);
+        assertEquals(3_653, series.days());
+
+        assertEquals(3_653, series.query(first, last, RevenueSeries.Granularity.DAY).size());
+        List<RevenueSeries.Bucket> months = series.query(first, last, RevenueSeries.Granularity.MONTH);
+        assertEquals(120, months.size());
+
+        long summed = 0;
+        for (RevenueSeries.Bucket month : months) {
+            summed += month.invoicedMinor();
+        }
+        assertEquals(invoiced, summed);
+        assertEquals(invoiced - 3_653L * 90_000, months.get(119).outstandingMinor());
+
+        // Partial ISO weeks at both ends: Friday Jan 1st 2016, Wednesday Dec 31st 2025
+        List<RevenueSeries.Bucket> weeks = series.query(first, last, RevenueSeries.Granularity.WEEK);
+        assertEquals(523, weeks.size());
+        assertEquals(LocalDate.of(2015, 12, 28), weeks.get(0).start());
+        assertEquals(3 * 100_000 + 3, weeks.get(0).invoicedMinor());
+    }
+}
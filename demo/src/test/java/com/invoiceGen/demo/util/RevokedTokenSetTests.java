@@ -0,0 +1,54 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokenSetTests {
+
+    private static final int REVOKED = 1_000_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    @Test
+    void largeSetAnswersMembershipExactly() {
+
+        RevokedTokenSet set = new RevokedTokenSet();
+        SplittableRandom random = new SplittableRandom(42);
+        long[] revoked = new long[REVOKED];
+        for (int i = 0; i < REVOKED; i++) {
+            revoked[i] = random.nextLong() | 1L;   // odd: never 0
+            set.add(revoked[i]);
+        }
+        assertEquals(REVOKED, set.size());
+
+        for (long tokenId : revoked) {
+            assertTrue(set.contains(tokenId));
+        }
+
+        // Even ids were never added: no false positives on the miss path
+        long misses = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (!set.contains(random.nextLong() & ~1L)) {
+                misses++;
+            }
+        }
+        assertEquals(LOOKUPS, misses);
+    }
+
+    @Test
+    void zeroIsNeverRevokedAndDuplicatesCountOnce() {
+
+        RevokedTokenSet set = new RevokedTokenSet();
+        assertFalse(set.contains(0L));
+
+        set.add(7L);
+        set.add(7L);
+        assertEquals(1, set.size());
+        assertTrue(set.contains(7L));
+        assertFalse(set.contains(8L));
+    }
+}
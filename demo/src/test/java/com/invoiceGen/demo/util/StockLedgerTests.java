@@ -0,0 +1,84 @@
+package com.invoiceGen.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockLedgerTests {
+
+    private static final int THREADS = 16;
+    private static final int INVOICES_PER_THREAD = 50_000;
+    private static final long HOT_STOCK = 100_000;
+
+    @Test
+    void hotProductsAreNeverOversold() throws Exception {
+
+        StockLedger ledger = new StockLedger();
+        long[] productIds = {1, 2};
+        int[] quantities = {3, 1};
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Future<Integer>[] futures = new Future[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            futures[t] = pool.submit(() -> {
+                int accepted = 0;
+                start.await();
+                for (int i = 0; i < INVOICES_PER_THREAD; i++) {
+                    if (ledger.reserve(productIds, quantities, id -> HOT_STOCK) < 0) {
+                        ledger.confirm(productIds, quantities);
+                        accepted++;
+                    }
+                }
+                return accepted;
+            });
+        }
+
+        start.countDown();
+
+        long accepted = 0;
+        for (Future<Integer> future : futures) {
+            accepted += future.get();
+        }
+        pool.shutdown();
+
+        // Product 1 runs out first, after exactly HOT_STOCK / 3 invoices
+        assertEquals(HOT_STOCK / 3, accepted);
+        assertEquals(HOT_STOCK % 3, ledger.available(1));
+        assertEquals(HOT_STOCK - accepted, ledger.available(2));
+
+        long[] drained = new long[3];
+        for (StockLedger.Delta delta : ledger.drain()) {
+            drained[(int) delta.productId()] = delta.quantity();
+        }
+        assertEquals(accepted * 3, drained[1]);
+        assertEquals(accepted, drained[2]);
+        assertEquals(List.of(), ledger.drain());
+    }
+
+    @Test
+    void failedReservationTakesNothingAndReleaseCreditsTheDatabase() {
+
+        StockLedger ledger = new StockLedger();
+
+        assertEquals(1, ledger.reserve(new long[]{1, 2}, new int[]{5, 11}, id -> 10));
+        assertEquals(10, ledger.available(1));
+
+        assertEquals(-1, ledger.reserve(new long[]{1, 2}, new int[]{5, 5}, id -> 10));
+        ledger.abort(new long[]{1, 2}, new int[]{5, 5});
+        assertEquals(10, ledger.available(1));
+        assertEquals(List.of(), ledger.drain());
+
+        // Cancel of an invoice committed before the last restart
+        ledger.release(new long[]{3}, new int[]{4}, id -> 6);
+        assertEquals(10, ledger.available(3));
+        assertEquals(List.of(new StockLedger.Delta(3, -4)), ledger.drain());
+    }
+}